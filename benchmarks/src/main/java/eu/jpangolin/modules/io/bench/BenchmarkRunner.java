@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2025 Tim Langhammer.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.jpangolin.modules.io.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs benchmarks with the GC profiler, so allocation rates are part of each result.
+ * <p>
+ *     Arguments are the usual JMH command line options, e.g. a benchmark regex.
+ * </p>
+ *
+ * @author jTzipi
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+        throw new AssertionError( "--__--" );
+    }
+
+    /**
+     * Run.
+     *
+     * @param args JMH options
+     * @throws RunnerException             if a benchmark failed
+     * @throws CommandLineOptionException if {@code args} are not valid
+     */
+    public static void main( final String[] args ) throws RunnerException, CommandLineOptionException {
+        new Runner( new OptionsBuilder()
+                .parent( new CommandLineOptions( args ) )
+                .addProfiler( GCProfiler.class )
+                .build() ).run();
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2025 Tim Langhammer.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.jpangolin.modules.io.bench;
+
+import eu.jpangolin.modules.io.Checksums;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+/**
+ * Benchmark of {@link Checksums} against a naive {@link InputStream} loop.
+ *
+ * @author jTzipi
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( { Mode.Throughput, Mode.SampleTime } )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class ChecksumBenchmark {
+
+    @Param( { "1048576", "67108864", "268435456" } )
+    int bytes;
+
+    private Path dir;
+    private Path file;
+
+    @Setup( Level.Trial )
+    public void setUp() throws IOException {
+        dir = Fixtures.tempDir();
+        file = Fixtures.binary( dir.resolve( "fixture.bin" ), bytes );
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDown() {
+        Fixtures.delete( dir );
+    }
+
+    @Benchmark
+    public long naiveCrc32c() throws IOException {
+        final CRC32C crc = new CRC32C();
+        try ( InputStream is = Files.newInputStream( file ) ) {
+            final byte[] buf = new byte[8192];
+            int n;
+            while ( 0 < ( n = is.read( buf ) ) ) {
+                crc.update( buf, 0, n );
+            }
+        }
+        return crc.getValue();
+    }
+
+    @Benchmark
+    public long crc32c() throws IOException {
+        return Checksums.crc32c( file );
+    }
+
+    @Benchmark
+    public byte[] naiveSha256() throws IOException, NoSuchAlgorithmException {
+        final MessageDigest md = MessageDigest.getInstance( "SHA-256" );
+        try ( InputStream is = Files.newInputStream( file ) ) {
+            final byte[] buf = new byte[8192];
+            int n;
+            while ( 0 < ( n = is.read( buf ) ) ) {
+                md.update( buf, 0, n );
+            }
+        }
+        return md.digest();
+    }
+
+    @Benchmark
+    public byte[] sha256() throws IOException {
+        return Checksums.digest( file, Checksums.Algorithm.SHA_256 );
+    }
+
+    @Benchmark
+    public byte[] sha256Tree() throws IOException {
+        return Checksums.digest( file, Checksums.Algorithm.SHA_256_TREE );
+    }
+}
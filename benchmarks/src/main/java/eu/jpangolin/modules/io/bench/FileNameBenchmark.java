@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2025 Tim Langhammer.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.jpangolin.modules.io.bench;
+
+import eu.jpangolin.modules.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of {@link IOUtils#getFileNamePrefix(Path)} and {@link IOUtils#getFileNameSuffix(Path)}.
+ *
+ * @author jTzipi
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( { Mode.Throughput, Mode.SampleTime } )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class FileNameBenchmark {
+
+    private Path dir;
+    private Path file;
+    private Path subDir;
+
+    @Setup( Level.Trial )
+    public void setUp() throws IOException {
+        dir = Fixtures.tempDir();
+        file = Files.createFile( dir.resolve( "archive.tar.gz" ) );
+        subDir = Files.createDirectory( dir.resolve( "folder" ) );
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDown() {
+        Fixtures.delete( dir );
+    }
+
+    @Benchmark
+    public String prefixOfFile() {
+        return IOUtils.getFileNamePrefix( file );
+    }
+
+    @Benchmark
+    public String suffixOfFile() {
+        return IOUtils.getFileNameSuffix( file );
+    }
+
+    @Benchmark
+    public String suffixOfDir() {
+        return IOUtils.getFileNameSuffix( subDir );
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2025 Tim Langhammer.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.jpangolin.modules.io.bench;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Generated benchmark fixtures.
+ *
+ * @author jTzipi
+ */
+final class Fixtures {
+
+    // fixed seed for reproducible content
+    private static final long SEED = 0x5EEDL;
+
+    private Fixtures() {
+        throw new AssertionError( "--__--" );
+    }
+
+    /**
+     * Create a temporary directory.
+     *
+     * @return directory
+     * @throws IOException if failed
+     */
+    static Path tempDir() throws IOException {
+        return Files.createTempDirectory( "pango-bench" );
+    }
+
+    /**
+     * Delete a directory tree.
+     *
+     * @param dir directory
+     */
+    static void delete( final Path dir ) {
+        if ( null == dir ) {
+            return;
+        }
+        try ( Stream<Path> walk = Files.walk( dir ) ) {
+            walk.sorted( Comparator.reverseOrder() ).forEach( p -> p.toFile().delete() );
+        } catch ( final IOException ioe ) {
+            throw new UncheckedIOException( ioe );
+        }
+    }
+
+    /**
+     * Write a text file of lines with mixed line endings.
+     *
+     * @param file  file
+     * @param bytes approximate size in bytes
+     * @return file
+     * @throws IOException if failed
+     */
+    static Path text( final Path file, final int bytes ) throws IOException {
+        final Random rnd = new Random( SEED );
+        final StringBuilder sb = new StringBuilder( bytes + 128 );
+        int line = 0;
+        while ( sb.length() < bytes ) {
+            sb.append( "SELECT col_" ).append( line ).append( " FROM table_" ).append( rnd.nextInt( 100 ) )
+                    .append( " WHERE id = " ).append( rnd.nextLong() );
+            sb.append( 0 == line % 7 ? "\r\n" : "\n" );
+            line++;
+        }
+        return Files.writeString( file, sb, StandardCharsets.UTF_8 );
+    }
+
+    /**
+     * Write a file of random bytes.
+     *
+     * @param file  file
+     * @param bytes size in bytes
+     * @return file
+     * @throws IOException if failed
+     */
+    static Path binary( final Path file, final int bytes ) throws IOException {
+        final byte[] data = new byte[bytes];
+        new Random( SEED ).nextBytes( data );
+        return Files.write( file, data );
+    }
+
+    /**
+     * Write a properties file.
+     *
+     * @param file file
+     * @param keys number of keys
+     * @return file
+     * @throws IOException if failed
+     */
+    static Path properties( final Path file, final int keys ) throws IOException {
+        final Random rnd = new Random( SEED );
+        final StringBuilder sb = new StringBuilder( keys * 48 );
+        sb.append( "# generated\n" );
+        for ( int i = 0; i < keys; i++ ) {
+            sb.append( "app.section" ).append( i % 17 ).append( ".key" ).append( i ).append( '=' )
+                    .append( Long.toHexString( rnd.nextLong() ) ).append( '\n' );
+        }
+        return Files.writeString( file, sb, StandardCharsets.ISO_8859_1 );
+    }
+
+    /**
+     * Write a PNG image.
+     *
+     * @param file file
+     * @param size width and height in pixel
+     * @return file
+     * @throws IOException if failed
+     */
+    static Path png( final Path file, final int size ) throws IOException {
+        final BufferedImage img = new BufferedImage( size, size, BufferedImage.TYPE_INT_ARGB );
+        final Graphics2D g = img.createGraphics();
+        g.setPaint( new GradientPaint( 0, 0, Color.ORANGE, size, size, Color.BLUE ) );
+        g.fillRect( 0, 0, size, size );
+        g.dispose();
+        ImageIO.write( img, "png", file.toFile() );
+        return file;
+    }
+
+    /**
+     * Return an anchor class whose resources are resolved in {@code dir}.
+     *
+     * @param dir fixture directory
+     * @return class loaded by an isolated class loader
+     * @throws IOException if failed to copy the anchor class
+     */
+    static Class<?> resourceAnchor( final Path dir ) throws IOException {
+        final String clsFile = ResourceAnchor.class.getName().replace( '.', '/' ) + ".class";
+        final Path target = dir.resolve( clsFile );
+        Files.createDirectories( target.getParent() );
+        try ( InputStream is = ResourceAnchor.class.getClassLoader().getResourceAsStream( clsFile ) ) {
+            if ( null == is ) {
+                throw new IOException( "Class file of anchor not found" );
+            }
+            Files.copy( is, target );
+        }
+        // no parent, so the anchor is defined by this loader
+        final URLClassLoader loader = new URLClassLoader( new URL[]{ dir.toUri().toURL() }, null );
+        try {
+            return Class.forName( ResourceAnchor.class.getName(), true, loader );
+        } catch ( final ClassNotFoundException cnfe ) {
+            throw new IOException( cnfe );
+        }
+    }
+}
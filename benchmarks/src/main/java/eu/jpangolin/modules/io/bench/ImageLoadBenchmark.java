@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2025 Tim Langhammer.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.jpangolin.modules.io.bench;
+
+import eu.jpangolin.modules.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of {@link IOUtils#loadBufferedImage(Path)} and its variants.
+ *
+ * @author jTzipi
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( { Mode.Throughput, Mode.SampleTime } )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( value = 1, jvmArgsAppend = "-Djava.awt.headless=true" )
+public class ImageLoadBenchmark {
+
+    @Param( { "64", "512", "2048" } )
+    int size;
+
+    private Path dir;
+    private Path png;
+
+    @Setup( Level.Trial )
+    public void setUp() throws IOException {
+        dir = Fixtures.tempDir();
+        png = Fixtures.png( dir.resolve( "fixture.png" ), size );
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDown() {
+        IOUtils.getBufferedImageCache().clear();
+        Fixtures.delete( dir );
+    }
+
+    @Benchmark
+    public BufferedImage loadBufferedImage() throws IOException {
+        return IOUtils.loadBufferedImage( png );
+    }
+
+    @Benchmark
+    public BufferedImage loadBufferedImageThumbnail() throws IOException {
+        return IOUtils.loadBufferedImage( png, 64, 64 );
+    }
+
+    @Benchmark
+    public BufferedImage loadBufferedImageCached() throws IOException {
+        return IOUtils.loadBufferedImageCached( png );
+    }
+}
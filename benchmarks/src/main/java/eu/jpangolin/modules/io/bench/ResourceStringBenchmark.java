@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2025 Tim Langhammer.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.jpangolin.modules.io.bench;
+
+import eu.jpangolin.modules.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of {@link IOUtils#loadResourceString(Class, String, boolean)}.
+ * <p>
+ *     {@link #scannerBaseline()} is the former {@link Scanner} based implementation.
+ * </p>
+ *
+ * @author jTzipi
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( { Mode.Throughput, Mode.SampleTime } )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class ResourceStringBenchmark {
+
+    private static final String RESOURCE = "/fixture.sql";
+
+    @Param( { "4096", "262144", "8388608" } )
+    int bytes;
+
+    private Path dir;
+    private Class<?> anchor;
+
+    @Setup( Level.Trial )
+    public void setUp() throws IOException {
+        dir = Fixtures.tempDir();
+        Fixtures.text( dir.resolve( RESOURCE.substring( 1 ) ), bytes );
+        anchor = Fixtures.resourceAnchor( dir );
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDown() {
+        Fixtures.delete( dir );
+    }
+
+    @Benchmark
+    public StringBuilder loadResourceString() throws IOException {
+        return IOUtils.loadResourceString( anchor, RESOURCE, true );
+    }
+
+    @Benchmark
+    public String loadResourceStringVerbatim() throws IOException {
+        return IOUtils.loadResourceString( anchor, RESOURCE, StandardCharsets.UTF_8 );
+    }
+
+    @Benchmark
+    public StringBuilder scannerBaseline() throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        try ( InputStream resIs = anchor.getResourceAsStream( RESOURCE ) ) {
+            if ( null == resIs ) {
+                throw new IOException( "Resource '" + RESOURCE + "' not found" );
+            }
+            try ( Scanner scan = new Scanner( resIs ) ) {
+                while ( scan.hasNextLine() ) {
+                    sb.append( scan.nextLine() );
+                    sb.append( '\n' );
+                }
+            }
+        }
+        return sb;
+    }
+}
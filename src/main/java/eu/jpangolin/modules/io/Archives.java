@@ -0,0 +1,586 @@
+/*
+ * Copyright (c) 2025 Tim Langhammer.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.jpangolin.modules.io;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ParallelScatterZipCreator;
+import org.apache.commons.compress.archivers.zip.Zip64Mode;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Archives.
+ * <p>
+ *     Streaming extraction and creation of zip and tar archives.
+ *     The heap used does not depend on the size of an archive:
+ *     <ul>
+ *         <li>zip entries are extracted in parallel, each streamed with a small buffer</li>
+ *         <li>tar archives are decompressed on a reader thread and written by the calling thread.
+ *         Both are connected by a pipe of {@value #PIPE_BLOCKS} blocks of 64 KiB</li>
+ *         <li>zip archives are compressed in parallel with temporary files as backing store</li>
+ *     </ul>
+ * </p>
+ * <p>
+ *     An entry which would be extracted outside the target directory ('zip slip') fails the extraction.
+ *     Symbolic and hard links are skipped.
+ * </p>
+ *
+ * @author jTzipi
+ */
+public final class Archives {
+
+    /**
+     * Number of blocks between reader and writer.
+     */
+    public static final int PIPE_BLOCKS = 16;
+
+    // Logger
+    private static final org.slf4j.Logger LOG = LoggerFactory.getLogger( Archives.class );
+
+    private Archives() {
+        throw new AssertionError( "--__--" );
+    }
+
+    /**
+     * Extract an archive.
+     * Missing directories are created. A failed extraction may leave extracted entries.
+     *
+     * @param archive   archive
+     * @param targetDir target directory
+     * @param replace   replace existing files
+     * @param listener  progress listener or {@code null}
+     * @return entries and bytes extracted
+     * @throws IOException                if failed or an entry is outside of {@code targetDir}
+     * @throws FileAlreadyExistsException if a file exists and not {@code replace}
+     * @throws IllegalArgumentException   if the format of {@code archive} is unknown
+     * @throws NullPointerException       if {@code archive}|{@code targetDir} is null
+     */
+    public static Progress extract( final Path archive, final Path targetDir, final boolean replace, final Consumer<? super Progress> listener ) throws IOException {
+        Objects.requireNonNull( archive );
+        Objects.requireNonNull( targetDir );
+        final Format format = Format.of( archive );
+        final Path root = targetDir.toAbsolutePath().normalize();
+        Files.createDirectories( root );
+        final Reporter reporter = new Reporter( listener );
+
+        if ( Format.ZIP == format ) {
+            extractZip( archive, root, replace, reporter );
+        } else {
+            extractTar( archive, format, root, replace, reporter );
+        }
+        return reporter.get();
+    }
+
+    /**
+     * Create an archive of a directory tree.
+     * The entries are sorted by path and named relative to {@code sourceDir}. Symbolic links are skipped.
+     * The archive is written to a temporary file which is moved over {@code archive} when complete.
+     *
+     * @param sourceDir directory to archive
+     * @param archive   archive to create
+     * @param format    format of archive
+     * @return entries and bytes archived
+     * @throws IOException          if failed
+     * @throws NullPointerException if {@code sourceDir}|{@code archive}|{@code format} is null
+     */
+    public static Progress create( final Path sourceDir, final Path archive, final Format format ) throws IOException {
+        Objects.requireNonNull( sourceDir );
+        Objects.requireNonNull( archive );
+        Objects.requireNonNull( format );
+
+        final List<DirectoryScanner.FileEntry> entries = new ArrayList<>();
+        for ( final DirectoryScanner.FileEntry entry : DirectoryScanner.walk( sourceDir, Integer.MAX_VALUE, true ) ) {
+            if ( !entry.link() ) {
+                entries.add( entry );
+            }
+        }
+        final Map<DirectoryScanner.FileEntry, String> names = new LinkedHashMap<>();
+        entries.stream()
+                .sorted( Comparator.comparing( entry -> relative( sourceDir, entry.path() ) ) )
+                .forEach( entry -> names.put( entry, relative( sourceDir, entry.path() ) + ( entry.dir() ? "/" : "" ) ) );
+
+        final Reporter reporter = new Reporter( null );
+        if ( Format.ZIP == format ) {
+            createZip( names, archive, reporter );
+        } else {
+            createTar( names, archive, format, reporter );
+        }
+        return reporter.get();
+    }
+
+    /**
+     * Resolve an entry name against the target directory.
+     *
+     * @param root normalized absolute target directory
+     * @param name entry name
+     * @return target of entry
+     * @throws IOException if outside of {@code root}
+     */
+    static Path resolve( final Path root, final String name ) throws IOException {
+        final Path target = root.resolve( name ).normalize();
+        if ( !target.startsWith( root ) ) {
+            throw new IOException( "Entry[='" + name + "'] is outside of target dir[='" + root + "']" );
+        }
+        return target;
+    }
+
+    /* -------------------------------------- zip --------------------------------------- */
+
+    private static void extractZip( final Path archive, final Path root, final boolean replace, final Reporter reporter ) throws IOException {
+        try ( ZipFile zip = ZipFile.builder().setPath( archive ).get() ) {
+            final Map<Path, ZipArchiveEntry> files = new LinkedHashMap<>();
+            for ( final ZipArchiveEntry entry : Collections.list( zip.getEntriesInPhysicalOrder() ) ) {
+                final Path target = resolve( root, entry.getName() );
+                if ( entry.isDirectory() ) {
+                    Files.createDirectories( target );
+                    reporter.add( 0L );
+                } else if ( entry.isUnixSymlink() ) {
+                    LOG.debug( "Skip link '{}'", entry.getName() );
+                } else {
+                    if ( !replace && Files.exists( target, LinkOption.NOFOLLOW_LINKS ) ) {
+                        throw new FileAlreadyExistsException( target.toString() );
+                    }
+                    Files.createDirectories( target.getParent() );
+                    files.put( target, entry );
+                }
+            }
+
+            // zip file reads each entry by position, so entries can be read at the same time
+            final List<CompletableFuture<BatchLoader.Result<Long>>> results = BatchLoader.getDefault().submit( files.keySet(), target -> {
+                final ZipArchiveEntry entry = files.get( target );
+                final long bytes;
+                try ( InputStream in = zip.getInputStream( entry ) ) {
+                    bytes = Files.copy( in, target, StandardCopyOption.REPLACE_EXISTING );
+                }
+                if ( -1L != entry.getTime() ) {
+                    Files.setLastModifiedTime( target, FileTime.fromMillis( entry.getTime() ) );
+                }
+                reporter.add( bytes );
+                return bytes;
+            } );
+            for ( final CompletableFuture<BatchLoader.Result<Long>> cf : results ) {
+                final BatchLoader.Result<Long> res = cf.join();
+                if ( !res.isSuccess() ) {
+                    throw new IOException( "Failed to extract '" + res.path() + "'", res.error() );
+                }
+            }
+        }
+    }
+
+    private static void createZip( final Map<DirectoryScanner.FileEntry, String> names, final Path archive, final Reporter reporter ) throws IOException {
+        // the creator shuts the executor down
+        final ExecutorService es = Executors.newFixedThreadPool( PlatformProfile.get().processors(), r -> {
+            final Thread thread = new Thread( r, "pango-zip" );
+            thread.setDaemon( true );
+            return thread;
+        } );
+        final ParallelScatterZipCreator creator = new ParallelScatterZipCreator( es );
+        for ( final Map.Entry<DirectoryScanner.FileEntry, String> name : names.entrySet() ) {
+            final DirectoryScanner.FileEntry entry = name.getKey();
+            final ZipArchiveEntry ze = new ZipArchiveEntry( name.getValue() );
+            ze.setMethod( entry.dir() ? ZipArchiveEntry.STORED : ZipArchiveEntry.DEFLATED );
+            ze.setTime( entry.lastModified() );
+            creator.addArchiveEntry( ze, () -> {
+                if ( entry.dir() ) {
+                    return InputStream.nullInputStream();
+                }
+                try {
+                    return Files.newInputStream( entry.path() );
+                } catch ( final IOException ioe ) {
+                    throw new UncheckedIOException( ioe );
+                }
+            } );
+            reporter.add( entry.dir() ? 0L : entry.size() );
+        }
+
+        try {
+            AtomicFiles.write( archive, os -> {
+                final ZipArchiveOutputStream zos = new ZipArchiveOutputStream( new BufferedOutputStream( os, PlatformProfile.get().bufferSize() ) );
+                zos.setUseZip64( Zip64Mode.AsNeeded );
+                try {
+                    creator.writeTo( zos );
+                } catch ( final InterruptedException ie ) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException( "Interrupted while creating '" + archive + "'" );
+                } catch ( final ExecutionException ee ) {
+                    throw new IOException( "Failed to create '" + archive + "'", ee.getCause() );
+                }
+                zos.finish();
+                zos.flush();
+            }, false );
+        } finally {
+            es.shutdownNow();
+        }
+    }
+
+    /* -------------------------------------- tar --------------------------------------- */
+
+    private static void extractTar( final Path archive, final Format format, final Path root, final boolean replace, final Reporter reporter ) throws IOException {
+        final BlockPipe<TarItem> pipe = new BlockPipe<>( PIPE_BLOCKS );
+        final Thread reader = Thread.ofVirtual().name( "pango-archive-reader" ).start( () -> readTar( archive, format, root, pipe ) );
+
+        FileChannel out = null;
+        TarItem item = null;
+        try {
+            BlockPipe.Block<TarItem> block;
+            while ( null != ( block = pipe.next() ) ) {
+                try {
+                    if ( null != block.header ) {
+                        closeItem( out, item );
+                        out = null;
+                        item = block.header;
+                        reporter.add( 0L );
+                        if ( item.dir() ) {
+                            Files.createDirectories( item.target() );
+                        } else {
+                            Files.createDirectories( item.target().getParent() );
+                            out = replace
+                                    ? FileChannel.open( item.target(), StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING )
+                                    : FileChannel.open( item.target(), StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW );
+                        }
+                    } else if ( null != out ) {
+                        final ByteBuffer bb = ByteBuffer.wrap( block.data, 0, block.length );
+                        while ( bb.hasRemaining() ) {
+                            out.write( bb );
+                        }
+                        reporter.bytes( block.length );
+                    }
+                } finally {
+                    pipe.release( block );
+                }
+            }
+            closeItem( out, item );
+        } catch ( final Throwable t ) {
+            // stop the reader blocked on a full pipe
+            reader.interrupt();
+            if ( null != out ) {
+                out.close();
+            }
+            throw t;
+        }
+    }
+
+    private static void closeItem( final FileChannel out, final TarItem item ) throws IOException {
+        if ( null == item ) {
+            return;
+        }
+        if ( null != out ) {
+            out.close();
+        }
+        Files.setLastModifiedTime( item.target(), FileTime.fromMillis( item.lastModified() ) );
+    }
+
+    private static void readTar( final Path archive, final Format format, final Path root, final BlockPipe<TarItem> pipe ) {
+        Throwable cause = null;
+        try ( TarArchiveInputStream tar = new TarArchiveInputStream( decompress( archive, format ) ) ) {
+            TarArchiveEntry entry;
+            while ( null != ( entry = tar.getNextEntry() ) ) {
+                if ( !tar.canReadEntryData( entry ) || !( entry.isDirectory() || entry.isFile() ) ) {
+                    LOG.debug( "Skip entry '{}'", entry.getName() );
+                    continue;
+                }
+                final Path target = resolve( root, entry.getName() );
+                if ( root.equals( target ) ) {
+                    continue;
+                }
+                pipe.header( new TarItem( target, entry.isDirectory(), entry.getModTime().getTime() ) );
+                if ( entry.isDirectory() ) {
+                    continue;
+                }
+                while ( true ) {
+                    final BlockPipe.Block<TarItem> block = pipe.claim();
+                    final int n = tar.readNBytes( block.data, 0, block.data.length );
+                    if ( 0 >= n ) {
+                        pipe.release( block );
+                        break;
+                    }
+                    block.length = n;
+                    pipe.put( block );
+                }
+            }
+        } catch ( final Throwable t ) {
+            // errors too, the consumer must never mistake a failure for the end
+            cause = t;
+        } finally {
+            pipe.finish( cause );
+        }
+    }
+
+    private static void createTar( final Map<DirectoryScanner.FileEntry, String> names, final Path archive, final Format format, final Reporter reporter ) throws IOException {
+        final BlockPipe<TarArchiveEntry> pipe = new BlockPipe<>( PIPE_BLOCKS );
+        final Thread reader = Thread.ofVirtual().name( "pango-archive-reader" ).start( () -> readFiles( names, pipe ) );
+
+        try {
+            AtomicFiles.write( archive, os -> {
+                final OutputStream bos = new BufferedOutputStream( os, PlatformProfile.get().bufferSize() );
+                final OutputStream cos = switch ( format ) {
+                    case TAR_GZ -> new GzipCompressorOutputStream( bos );
+                    case TAR_BZIP2 -> new BZip2CompressorOutputStream( bos );
+                    default -> bos;
+                };
+                final TarArchiveOutputStream tos = new TarArchiveOutputStream( cos );
+                tos.setLongFileMode( TarArchiveOutputStream.LONGFILE_POSIX );
+                tos.setBigNumberMode( TarArchiveOutputStream.BIGNUMBER_POSIX );
+
+                boolean open = false;
+                BlockPipe.Block<TarArchiveEntry> block;
+                while ( null != ( block = pipe.next() ) ) {
+                    try {
+                        if ( null != block.header ) {
+                            if ( open ) {
+                                tos.closeArchiveEntry();
+                            }
+                            tos.putArchiveEntry( block.header );
+                            open = true;
+                            reporter.add( 0L );
+                        } else {
+                            tos.write( block.data, 0, block.length );
+                            reporter.bytes( block.length );
+                        }
+                    } finally {
+                        pipe.release( block );
+                    }
+                }
+                if ( open ) {
+                    tos.closeArchiveEntry();
+                }
+                // finish without closing the target stream
+                tos.finish();
+                if ( cos instanceof GzipCompressorOutputStream gz ) {
+                    gz.finish();
+                } else if ( cos instanceof BZip2CompressorOutputStream bz ) {
+                    bz.finish();
+                }
+                bos.flush();
+            }, false );
+        } catch ( final Throwable t ) {
+            // stop the reader blocked on a full pipe
+            reader.interrupt();
+            throw t;
+        }
+    }
+
+    private static void readFiles( final Map<DirectoryScanner.FileEntry, String> names, final BlockPipe<TarArchiveEntry> pipe ) {
+        Throwable cause = null;
+        try {
+            for ( final Map.Entry<DirectoryScanner.FileEntry, String> name : names.entrySet() ) {
+                final DirectoryScanner.FileEntry entry = name.getKey();
+                final TarArchiveEntry te = new TarArchiveEntry( name.getValue() );
+                te.setModTime( entry.lastModified() );
+                if ( entry.dir() ) {
+                    pipe.header( te );
+                    continue;
+                }
+                try ( InputStream in = Files.newInputStream( entry.path() ) ) {
+                    // the size in the header must match the data
+                    te.setSize( entry.size() );
+                    pipe.header( te );
+                    long left = entry.size();
+                    while ( 0L < left ) {
+                        final BlockPipe.Block<TarArchiveEntry> block = pipe.claim();
+                        final int n = in.readNBytes( block.data, 0, ( int ) Math.min( block.data.length, left ) );
+                        if ( 0 >= n ) {
+                            pipe.release( block );
+                            throw new IOException( "File[='" + entry.path() + "'] truncated while archiving" );
+                        }
+                        block.length = n;
+                        left -= n;
+                        pipe.put( block );
+                    }
+                }
+            }
+        } catch ( final Throwable t ) {
+            // errors too, the consumer must never mistake a failure for the end
+            cause = t;
+        } finally {
+            pipe.finish( cause );
+        }
+    }
+
+    private static InputStream decompress( final Path archive, final Format format ) throws IOException {
+        final InputStream in = new BufferedInputStream( Files.newInputStream( archive ), PlatformProfile.get().bufferSize() );
+        try {
+            return switch ( format ) {
+                case TAR_GZ -> new GzipCompressorInputStream( in, true );
+                case TAR_BZIP2 -> new BZip2CompressorInputStream( in, true );
+                default -> in;
+            };
+        } catch ( final IOException | RuntimeException e ) {
+            in.close();
+            throw e;
+        }
+    }
+
+    private static String relative( final Path dir, final Path path ) {
+        final StringBuilder sb = new StringBuilder();
+        for ( final Path name : dir.relativize( path ) ) {
+            if ( !sb.isEmpty() ) {
+                sb.append( '/' );
+            }
+            sb.append( name );
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Archive format.
+     */
+    public enum Format {
+        /**
+         * Zip, also '.jar'.
+         */
+        ZIP,
+        /**
+         * Tar.
+         */
+        TAR,
+        /**
+         * Gzip compressed tar, '.tar.gz' or '.tgz'.
+         */
+        TAR_GZ,
+        /**
+         * Bzip2 compressed tar, '.tar.bz2' or '.tbz2'.
+         */
+        TAR_BZIP2;
+
+        /**
+         * Detect the format by file name.
+         *
+         * @param path archive
+         * @return format
+         * @throws IllegalArgumentException if unknown
+         */
+        public static Format of( final Path path ) {
+            final Path fileName = path.getFileName();
+            final String name = null == fileName ? "" : fileName.toString().toLowerCase( Locale.ROOT );
+            if ( name.endsWith( ".zip" ) || name.endsWith( ".jar" ) ) {
+                return ZIP;
+            }
+            if ( name.endsWith( ".tar" ) ) {
+                return TAR;
+            }
+            if ( name.endsWith( ".tar.gz" ) || name.endsWith( ".tgz" ) ) {
+                return TAR_GZ;
+            }
+            if ( name.endsWith( ".tar.bz2" ) || name.endsWith( ".tbz2" ) ) {
+                return TAR_BZIP2;
+            }
+            throw new IllegalArgumentException( "Unknown archive format of '" + path + "'" );
+        }
+    }
+
+    /**
+     * Progress of an archive operation.
+     *
+     * @param entries entries done
+     * @param bytes   uncompressed bytes done
+     */
+    public record Progress( int entries, long bytes ) {
+
+        /**
+         * Format like {@code "42 entries, 1.5 GiB"}.
+         *
+         * @param si standard unit
+         * @return formatted progress
+         * @see IOUtils#formatFileSize(long, boolean)
+         */
+        public String format( final boolean si ) {
+            final StringBuilder sb = new StringBuilder( 32 );
+            sb.append( entries ).append( " entries, " );
+            return IOUtils.appendFileSize( bytes, si, sb ).toString();
+        }
+    }
+
+    private record TarItem( Path target, boolean dir, long lastModified ) {
+    }
+
+    private static final class Reporter {
+
+        private final Consumer<? super Progress> listener;
+        private int entries;
+        private long bytes;
+
+        Reporter( final Consumer<? super Progress> listener ) {
+            this.listener = listener;
+        }
+
+        // an entry is done
+        synchronized void add( final long size ) {
+            entries++;
+            bytes += size;
+            report();
+        }
+
+        // bytes of the current entry
+        synchronized void bytes( final long size ) {
+            bytes += size;
+            report();
+        }
+
+        synchronized Progress get() {
+            return new Progress( entries, bytes );
+        }
+
+        private void report() {
+            if ( null == listener ) {
+                return;
+            }
+            try {
+                listener.accept( new Progress( entries, bytes ) );
+            } catch ( final RuntimeException re ) {
+                LOG.warn( "Progress listener failed", re );
+            }
+        }
+    }
+}
@@ -0,0 +1,446 @@
+/*
+ * Copyright (c) 2025 Tim Langhammer.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.jpangolin.modules.io;
+
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Async IO.
+ * <p>
+ *     Non blocking file reads and writes on {@link AsynchronousFileChannel} returning {@link CompletableFuture}s,
+ *     so a UI thread never waits for the disk. Opening, moving and the completion of each future happen on virtual threads.
+ *     Dependent stages run there too unless an executor is given, so switch to the UI thread, for instance with
+ *     {@code Platform.runLater}, before touching UI state.
+ * </p>
+ * <p>
+ *     Transfers go through direct buffers from a bounded pool, so a high request rate does not allocate a buffer per call.
+ *     At most {@code maxBuffers} transfers run at the same time, further ones wait for a buffer to be released.
+ *     Writes are atomic like {@link IOUtils#writeProperties(Path, Properties, String, boolean)}: the content goes to a
+ *     temporary file which is then moved over the target.
+ * </p>
+ *
+ * @author jTzipi
+ */
+public final class AsyncIO {
+
+    /**
+     * Default maximal number of buffers.
+     */
+    public static final int DEFAULT_MAX_BUFFERS = 32;
+
+    // Logger
+    private static final org.slf4j.Logger LOG = LoggerFactory.getLogger( AsyncIO.class );
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+    private static final String DEFAULT_COMMENT = "<Auto Generated Comment!>";
+
+    private final int bufferSize;
+    private final ConcurrentLinkedQueue<ByteBuffer> pool = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+    // pooled plus in use buffers never exceed maxBuffers
+    private final Semaphore permits;
+    private final LongAdder allocations = new LongAdder();
+
+    /**
+     * Async IO.
+     *
+     * @param bufferSize size of a direct buffer [1 .. ]
+     * @param maxBuffers maximal number of buffers and so of concurrent transfers [1 .. ]
+     * @throws IllegalArgumentException if {@code bufferSize} &lt; 1 or {@code maxBuffers} &lt; 1
+     */
+    public AsyncIO( final int bufferSize, final int maxBuffers ) {
+        if ( 1 > bufferSize ) {
+            throw new IllegalArgumentException( "buffer size[=" + bufferSize + "] < 1" );
+        }
+        if ( 1 > maxBuffers ) {
+            throw new IllegalArgumentException( "max buffers[=" + maxBuffers + "] < 1" );
+        }
+        this.bufferSize = bufferSize;
+        this.permits = new Semaphore( maxBuffers );
+    }
+
+    /**
+     * Async IO with the platform buffer size and {@linkplain #DEFAULT_MAX_BUFFERS}.
+     */
+    public AsyncIO() {
+        this( PlatformProfile.get().bufferSize(), DEFAULT_MAX_BUFFERS );
+    }
+
+    /**
+     * Return the shared async IO.
+     *
+     * @return async IO
+     */
+    public static AsyncIO getDefault() {
+        return Holder.DEFAULT;
+    }
+
+    /**
+     * Read all bytes of a file.
+     * A file growing while read is read up to its size at open.
+     *
+     * @param path path to file
+     * @return future of content
+     * @throws NullPointerException if {@code path} is null
+     */
+    public CompletableFuture<byte[]> readAllBytes( final Path path ) {
+        Objects.requireNonNull( path );
+        final CompletableFuture<byte[]> cf = new CompletableFuture<>();
+        VirtualThreadHolder.EXE.execute( () -> {
+            final ByteBuffer buf = acquire();
+            try {
+                final AsynchronousFileChannel ch = AsynchronousFileChannel.open( path, Set.of( StandardOpenOption.READ ), VirtualThreadHolder.EXE );
+                final byte[] data;
+                try {
+                    final long size = ch.size();
+                    if ( MAX_ARRAY_SIZE < size ) {
+                        throw new IOException( "Path[='" + path + "'] too large to read at once" );
+                    }
+                    data = new byte[( int ) size ];
+                } catch ( final IOException | RuntimeException | OutOfMemoryError e ) {
+                    closeQuietly( ch );
+                    throw e;
+                }
+                new Reader( ch, buf, data, cf ).next();
+            } catch ( final IOException | RuntimeException | OutOfMemoryError e ) {
+                release( buf );
+                cf.completeExceptionally( e );
+            }
+        } );
+        return cf;
+    }
+
+    /**
+     * Read a file as text.
+     *
+     * @param path path to file
+     * @param cs   charset
+     * @return future of text
+     * @throws NullPointerException if {@code path}|{@code cs} is null
+     */
+    public CompletableFuture<String> readString( final Path path, final Charset cs ) {
+        Objects.requireNonNull( cs );
+        return readAllBytes( path ).thenApply( bytes -> new String( bytes, cs ) );
+    }
+
+    /**
+     * Write bytes atomically.
+     *
+     * @param path  target file
+     * @param data  content, must not be modified until the future completed
+     * @param fsync force content and directory to disk before completion
+     * @return future completed after the move
+     * @throws NullPointerException if {@code path}|{@code data} is null
+     */
+    public CompletableFuture<Void> write( final Path path, final byte[] data, final boolean fsync ) {
+        Objects.requireNonNull( path );
+        Objects.requireNonNull( data );
+        final CompletableFuture<Void> cf = new CompletableFuture<>();
+        VirtualThreadHolder.EXE.execute( () -> {
+            final ByteBuffer buf = acquire();
+            Path tmp = null;
+            try {
+                final Path abs = AtomicFiles.resolve( path );
+                tmp = AtomicFiles.createTemp( abs );
+                final AsynchronousFileChannel ch = AsynchronousFileChannel.open( tmp, Set.of( StandardOpenOption.WRITE ), VirtualThreadHolder.EXE );
+                new WriteHandler( ch, buf, abs, tmp, data, fsync, cf ).next();
+            } catch ( final IOException | RuntimeException e ) {
+                release( buf );
+                deleteQuietly( tmp );
+                cf.completeExceptionally( e );
+            }
+        } );
+        return cf;
+    }
+
+    /**
+     * Write text atomically.
+     *
+     * @param path  target file
+     * @param text  text
+     * @param cs    charset
+     * @param fsync force content and directory to disk before completion
+     * @return future completed after the move
+     * @throws NullPointerException if {@code path}|{@code text}|{@code cs} is null
+     */
+    public CompletableFuture<Void> writeString( final Path path, final String text, final Charset cs, final boolean fsync ) {
+        Objects.requireNonNull( cs );
+        return write( path, text.getBytes( cs ), fsync );
+    }
+
+    /**
+     * Load properties like {@link IOUtils#loadProperties(Path)}.
+     *
+     * @param path path to properties
+     * @return future of properties
+     * @throws NullPointerException if {@code path} is null
+     */
+    public CompletableFuture<Properties> loadProperties( final Path path ) {
+        return readAllBytes( path ).thenApply( bytes -> {
+            final Properties prop = new Properties();
+            try {
+                prop.load( new ByteArrayInputStream( bytes ) );
+            } catch ( final IOException ioe ) {
+                throw new UncheckedIOException( ioe );
+            }
+            return prop;
+        } );
+    }
+
+    /**
+     * Write properties atomically like {@link IOUtils#writeProperties(Path, Properties, String, boolean)}.
+     * The properties are stored before this method returns, so later changes are not written.
+     *
+     * @param path       path to properties
+     * @param prop       properties
+     * @param commentStr comment (optional)
+     * @param fsync      force content and directory to disk before completion
+     * @return future completed after the move
+     * @throws NullPointerException if {@code path}|{@code prop} is null
+     */
+    public CompletableFuture<Void> writeProperties( final Path path, final Properties prop, final String commentStr, final boolean fsync ) {
+        Objects.requireNonNull( path );
+        Objects.requireNonNull( prop );
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream( 256 );
+        try ( Writer writer = new OutputStreamWriter( bos, StandardCharsets.UTF_8 ) ) {
+            prop.store( writer, null == commentStr ? DEFAULT_COMMENT : commentStr );
+        } catch ( final IOException ioe ) {
+            // in memory
+            throw new UncheckedIOException( ioe );
+        }
+        return write( path, bos.toByteArray(), fsync );
+    }
+
+    /**
+     * Return number of direct buffers allocated.
+     *
+     * @return allocations
+     */
+    public long getAllocationCount() {
+        return allocations.sum();
+    }
+
+    /**
+     * Return number of idle pooled buffers.
+     *
+     * @return pooled buffers
+     */
+    public int getPooledCount() {
+        return pooled.get();
+    }
+
+    // blocks only the virtual thread starting the transfer
+    private ByteBuffer acquire() {
+        permits.acquireUninterruptibly();
+        final ByteBuffer buf = pool.poll();
+        if ( null != buf ) {
+            pooled.decrementAndGet();
+            return buf.clear();
+        }
+        allocations.increment();
+        return ByteBuffer.allocateDirect( bufferSize );
+    }
+
+    private void release( final ByteBuffer buf ) {
+        pooled.incrementAndGet();
+        pool.offer( buf );
+        permits.release();
+    }
+
+    private static void closeQuietly( final AsynchronousFileChannel ch ) {
+        try {
+            ch.close();
+        } catch ( final IOException ioe ) {
+            LOG.debug( "Failed to close channel", ioe );
+        }
+    }
+
+    private static void deleteQuietly( final Path tmp ) {
+        if ( null == tmp ) {
+            return;
+        }
+        try {
+            Files.deleteIfExists( tmp );
+        } catch ( final IOException ioe ) {
+            LOG.debug( "Failed to delete '{}'", tmp, ioe );
+        }
+    }
+
+    // reads chunk after chunk into the array
+    private final class Reader implements CompletionHandler<Integer, Void> {
+
+        private final AsynchronousFileChannel ch;
+        private final byte[] data;
+        private final CompletableFuture<byte[]> cf;
+        private final ByteBuffer buf;
+        private int pos;
+
+        Reader( final AsynchronousFileChannel ch, final ByteBuffer buf, final byte[] data, final CompletableFuture<byte[]> cf ) {
+            this.ch = ch;
+            this.buf = buf;
+            this.data = data;
+            this.cf = cf;
+        }
+
+        void next() {
+            if ( pos == data.length ) {
+                done( data );
+                return;
+            }
+            buf.clear().limit( Math.min( buf.capacity(), data.length - pos ) );
+            ch.read( buf, pos, null, this );
+        }
+
+        @Override
+        public void completed( final Integer n, final Void att ) {
+            if ( 0 > n ) {
+                // truncated while reading
+                done( Arrays.copyOf( data, pos ) );
+                return;
+            }
+            buf.flip().get( data, pos, n );
+            pos += n;
+            try {
+                next();
+            } catch ( final RuntimeException re ) {
+                failed( re, null );
+            }
+        }
+
+        @Override
+        public void failed( final Throwable t, final Void att ) {
+            release( buf );
+            closeQuietly( ch );
+            cf.completeExceptionally( t );
+        }
+
+        private void done( final byte[] result ) {
+            release( buf );
+            closeQuietly( ch );
+            cf.complete( result );
+        }
+    }
+
+    // writes chunk after chunk into the temporary file and moves it over the target
+    private final class WriteHandler implements CompletionHandler<Integer, Void> {
+
+        private final AsynchronousFileChannel ch;
+        private final Path target;
+        private final Path tmp;
+        private final byte[] data;
+        private final boolean fsync;
+        private final CompletableFuture<Void> cf;
+        private final ByteBuffer buf;
+        private int pos;
+
+        WriteHandler( final AsynchronousFileChannel ch, final ByteBuffer buf, final Path target, final Path tmp, final byte[] data,
+                      final boolean fsync, final CompletableFuture<Void> cf ) {
+            this.ch = ch;
+            this.buf = buf;
+            this.target = target;
+            this.tmp = tmp;
+            this.data = data;
+            this.fsync = fsync;
+            this.cf = cf;
+        }
+
+        void next() {
+            if ( pos == data.length ) {
+                done();
+                return;
+            }
+            final int n = Math.min( buf.capacity(), data.length - pos );
+            buf.clear();
+            buf.put( data, pos, n ).flip();
+            ch.write( buf, pos, null, this );
+        }
+
+        @Override
+        public void completed( final Integer n, final Void att ) {
+            pos += n;
+            try {
+                if ( buf.hasRemaining() ) {
+                    ch.write( buf, pos, null, this );
+                } else {
+                    next();
+                }
+            } catch ( final RuntimeException re ) {
+                failed( re, null );
+            }
+        }
+
+        @Override
+        public void failed( final Throwable t, final Void att ) {
+            release( buf );
+            closeQuietly( ch );
+            deleteQuietly( tmp );
+            cf.completeExceptionally( t );
+        }
+
+        private void done() {
+            release( buf );
+            try {
+                if ( fsync ) {
+                    ch.force( true );
+                }
+                ch.close();
+                AtomicFiles.copyPermissions( target, tmp );
+                AtomicFiles.move( tmp, target );
+                if ( fsync ) {
+                    AtomicFiles.syncDir( target.getParent() );
+                }
+                cf.complete( null );
+            } catch ( final IOException | RuntimeException e ) {
+                closeQuietly( ch );
+                deleteQuietly( tmp );
+                cf.completeExceptionally( e );
+            }
+        }
+    }
+
+    private static final class VirtualThreadHolder {
+        static final ExecutorService EXE = Executors.newThreadPerTaskExecutor( Thread.ofVirtual().name( "pango-async-", 0L ).factory() );
+    }
+
+    private static final class Holder {
+        static final AsyncIO DEFAULT = new AsyncIO();
+    }
+}
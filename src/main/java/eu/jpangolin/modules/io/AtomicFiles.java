@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2025 Tim Langhammer.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.jpangolin.modules.io;
+
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Atomic Files.
+ * <p>
+ *     Writes a file to a temporary file in the same directory and moves it over the target,
+ *     so readers and crashes see either the old or the new content.
+ *     A symbolic link is followed, so the file it points to is replaced and the link is kept.
+ * </p>
+ *
+ * @author jTzipi
+ */
+final class AtomicFiles {
+
+    // Logger
+    private static final org.slf4j.Logger LOG = LoggerFactory.getLogger( AtomicFiles.class );
+
+    // same limit as Linux
+    private static final int MAX_LINKS = 40;
+
+    private AtomicFiles() {
+        throw new AssertionError( "--__--" );
+    }
+
+    /**
+     * Write text atomically with UTF-8.
+     *
+     * @param target target file
+     * @param action writes the content
+     * @param fsync  force content and directory to disk before return
+     * @throws IOException if failed
+     */
+    static void writeText( final Path target, final TextAction action, final boolean fsync ) throws IOException {
+        write( target, os -> {
+            final Writer bw = new BufferedWriter( new OutputStreamWriter( os, StandardCharsets.UTF_8 ), PlatformProfile.get().bufferSize() );
+            action.write( bw );
+            bw.flush();
+        }, fsync );
+    }
+
+    /**
+     * Write bytes atomically.
+     *
+     * @param target target file
+     * @param action writes the content
+     * @param fsync  force content and directory to disk before return
+     * @throws IOException if failed
+     */
+    static void write( final Path target, final StreamAction action, final boolean fsync ) throws IOException {
+        final Path abs = resolve( target );
+        final Path tmp = createTemp( abs );
+        try {
+            try ( FileChannel fc = FileChannel.open( tmp, StandardOpenOption.WRITE ) ) {
+                final OutputStream os = Channels.newOutputStream( fc );
+                action.write( os );
+                os.flush();
+                if ( fsync ) {
+                    fc.force( true );
+                }
+            }
+            copyPermissions( abs, tmp );
+            move( tmp, abs );
+        } catch ( final IOException | RuntimeException e ) {
+            Files.deleteIfExists( tmp );
+            throw e;
+        }
+        if ( fsync ) {
+            syncDir( abs.getParent() );
+        }
+    }
+
+    /**
+     * Return the absolute path of the file to replace.
+     * Symbolic links are followed, even if the final target does not exist yet.
+     *
+     * @param target target
+     * @return absolute path of the real target
+     * @throws IOException if failed to read a link or the links form a loop
+     */
+    static Path resolve( final Path target ) throws IOException {
+        Path abs = target.toAbsolutePath();
+        for ( int i = 0; i < MAX_LINKS; i++ ) {
+            if ( !Files.isSymbolicLink( abs ) ) {
+                return abs;
+            }
+            abs = abs.resolveSibling( Files.readSymbolicLink( abs ) ).normalize();
+        }
+        throw new FileSystemException( target.toString(), null, "Too many levels of symbolic links" );
+    }
+
+    /**
+     * Move a file in the same directory atomically if the file system supports it.
+     *
+     * @param src    source
+     * @param target target, replaced if existing
+     * @throws IOException if failed
+     */
+    static void move( final Path src, final Path target ) throws IOException {
+        try {
+            Files.move( src, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING );
+        } catch ( final AtomicMoveNotSupportedException amnse ) {
+            LOG.debug( "Atomic move not supported for '{}'", target );
+            Files.move( src, target, StandardCopyOption.REPLACE_EXISTING );
+        }
+    }
+
+    /**
+     * Move a file without ever replacing an existing target.
+     * A hard link is created atomically and the source deleted, so a target created concurrently is kept.
+     * Without hard link support a plain move is used.
+     *
+     * @param src    source
+     * @param target target
+     * @throws java.nio.file.FileAlreadyExistsException if {@code target} exists
+     * @throws IOException                              if failed
+     */
+    static void moveNew( final Path src, final Path target ) throws IOException {
+        if ( link( src, target ) ) {
+            Files.delete( src );
+        } else {
+            Files.move( src, target );
+        }
+    }
+
+    /**
+     * Create a hard link to a file.
+     *
+     * @param src    existing file
+     * @param target new link
+     * @return {@code true} if linked or {@code false} if hard links are not supported, for example across file stores
+     * @throws java.nio.file.FileAlreadyExistsException if {@code target} exists
+     * @throws IOException                              if failed
+     */
+    static boolean link( final Path src, final Path target ) throws IOException {
+        try {
+            Files.createLink( target, src );
+            return true;
+        } catch ( final FileAlreadyExistsException faee ) {
+            throw faee;
+        } catch ( final UnsupportedOperationException | FileSystemException e ) {
+            LOG.debug( "Hard link not supported for '{}'", target, e );
+            return false;
+        }
+    }
+
+    /**
+     * Create a temporary file beside the target.
+     * The file is created with the default permissions of the directory.
+     *
+     * @param target target
+     * @return empty temporary file
+     * @throws IOException if failed
+     */
+    static Path createTemp( final Path target ) throws IOException {
+        final Path dir = target.getParent();
+        final String prefix = "." + target.getFileName() + ".";
+        while ( true ) {
+            final Path tmp = dir.resolve( prefix + Long.toHexString( ThreadLocalRandom.current().nextLong() ) + ".tmp" );
+            try {
+                return Files.createFile( tmp );
+            } catch ( final FileAlreadyExistsException faee ) {
+                // next name
+            }
+        }
+    }
+
+    /**
+     * Copy the POSIX permissions if supported.
+     *
+     * @param from source of permissions
+     * @param to   target
+     */
+    static void copyPermissions( final Path from, final Path to ) {
+        final PosixFileAttributeView src = Files.getFileAttributeView( from, PosixFileAttributeView.class );
+        if ( null == src || !Files.exists( from ) ) {
+            return;
+        }
+        try {
+            Files.getFileAttributeView( to, PosixFileAttributeView.class ).setPermissions( src.readAttributes().permissions() );
+        } catch ( final IOException | RuntimeException e ) {
+            LOG.debug( "Failed to copy permissions of '{}'", from, e );
+        }
+    }
+
+    /**
+     * Force a directory to disk if supported.
+     *
+     * @param dir directory
+     */
+    static void syncDir( final Path dir ) {
+        // not supported on all platforms
+        try ( FileChannel fc = FileChannel.open( dir, StandardOpenOption.READ ) ) {
+            fc.force( true );
+        } catch ( final IOException | RuntimeException e ) {
+            LOG.debug( "Failed to sync dir '{}'", dir, e );
+        }
+    }
+
+    /**
+     * Writes text.
+     */
+    @FunctionalInterface
+    interface TextAction {
+        void write( Writer writer ) throws IOException;
+    }
+
+    /**
+     * Writes bytes.
+     */
+    @FunctionalInterface
+    interface StreamAction {
+        void write( OutputStream os ) throws IOException;
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2025 Tim Langhammer.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.jpangolin.modules.io;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Batch Loader.
+ * <p>
+ *     Loads many files concurrently.
+ *     Each file is loaded in its own task on an executor, by default on virtual threads.
+ *     The number of loads running at the same time is bounded by the parallelism since decoding is CPU bound.
+ * </p>
+ * <p>
+ *     A failure of one file is reported in its {@link Result} and does not abort the batch.
+ * </p>
+ *
+ * @author jTzipi
+ */
+public final class BatchLoader {
+
+    private final Executor exe;
+    private final int parallelism;
+
+    /**
+     * Batch Loader using virtual threads and the number of available processors as parallelism.
+     */
+    public BatchLoader() {
+        this( VirtualThreadHolder.EXE, Runtime.getRuntime().availableProcessors() );
+    }
+
+    /**
+     * Batch Loader.
+     *
+     * @param exe         executor running the loads
+     * @param parallelism maximal number of loads at the same time [1 .. ]
+     * @throws NullPointerException     if {@code exe} is null
+     * @throws IllegalArgumentException if {@code parallelism} &lt; 1
+     */
+    public BatchLoader( final Executor exe, final int parallelism ) {
+        if ( 1 > parallelism ) {
+            throw new IllegalArgumentException( "parallelism[=" + parallelism + "] < 1" );
+        }
+        this.exe = Objects.requireNonNull( exe );
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Return the shared batch loader.
+     *
+     * @return batch loader using virtual threads
+     */
+    public static BatchLoader getDefault() {
+        return DefaultHolder.DEFAULT;
+    }
+
+    /**
+     * Load all paths.
+     * The futures never complete exceptionally.
+     *
+     * @param paths  paths to load
+     * @param loader loads a single path. A {@code null} result is reported as failure.
+     * @param <T>    type of result
+     * @return futures in the order of {@code paths}
+     * @throws NullPointerException if {@code paths}|{@code loader} is null
+     */
+    public <T> List<CompletableFuture<Result<T>>> submit( final Collection<Path> paths, final IOFunction<? super Path, ? extends T> loader ) {
+        Objects.requireNonNull( paths );
+        Objects.requireNonNull( loader );
+
+        // one permit pool per batch
+        final Semaphore permits = new Semaphore( parallelism );
+        final List<CompletableFuture<Result<T>>> futures = new ArrayList<>( paths.size() );
+        for ( final Path path : paths ) {
+            Objects.requireNonNull( path );
+            // an error thrown by the loader is reported as failed result too
+            futures.add( CompletableFuture.<Result<T>>supplyAsync( () -> load( path, loader, permits ), exe )
+                    .exceptionally( t -> new Result<>( path, null, unwrap( t ) ) ) );
+        }
+        return futures;
+    }
+
+    /**
+     * Load all paths and return results in the order of their completion.
+     * The stream blocks until the next result is available.
+     *
+     * @param paths  paths to load
+     * @param loader loads a single path. A {@code null} result is reported as failure.
+     * @param <T>    type of result
+     * @return stream of results in completion order
+     * @throws NullPointerException if {@code paths}|{@code loader} is null
+     */
+    public <T> Stream<Result<T>> stream( final Collection<Path> paths, final IOFunction<? super Path, ? extends T> loader ) {
+        final List<Path> order = List.copyOf( paths );
+        final List<CompletableFuture<Result<T>>> futures = submit( order, loader );
+        final BlockingQueue<Result<T>> done = new LinkedBlockingQueue<>();
+        // every future must enqueue a result, otherwise the stream blocks forever
+        for ( int i = 0; i < futures.size(); i++ ) {
+            final Path path = order.get( i );
+            futures.get( i ).whenComplete( ( r, t ) -> done.add( null == t ? r : new Result<>( path, null, unwrap( t ) ) ) );
+        }
+
+        return IntStream.range( 0, futures.size() ).mapToObj( i -> take( done ) );
+    }
+
+    /**
+     * Return the maximal number of loads at the same time.
+     *
+     * @return parallelism
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    private static <T> Result<T> load( final Path path, final IOFunction<? super Path, ? extends T> loader, final Semaphore permits ) {
+        try {
+            permits.acquire();
+        } catch ( final InterruptedException ie ) {
+            Thread.currentThread().interrupt();
+            return new Result<>( path, null, ie );
+        }
+        try {
+            final T value = loader.apply( path );
+            if ( null == value ) {
+                return new Result<>( path, null, new IOException( "Path[='" + path + "'] failed to load" ) );
+            }
+            return new Result<>( path, value, null );
+        } catch ( final IOException | RuntimeException e ) {
+            return new Result<>( path, null, e );
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static Throwable unwrap( final Throwable t ) {
+        return t instanceof CompletionException && null != t.getCause() ? t.getCause() : t;
+    }
+
+    private static <T> T take( final BlockingQueue<T> queue ) {
+        try {
+            return queue.take();
+        } catch ( final InterruptedException ie ) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException( "Interrupted while waiting for batch result" );
+        }
+    }
+
+    /**
+     * Result of loading a single path.
+     *
+     * @param path  path
+     * @param value loaded value or {@code null} if failed
+     * @param error error or {@code null} if loaded
+     * @param <T>   type of value
+     */
+    public record Result<T>( Path path, T value, Throwable error ) {
+
+        /**
+         * Was the load successful.
+         *
+         * @return {@code true} if loaded
+         */
+        public boolean isSuccess() {
+            return null == error;
+        }
+    }
+
+    private static final class VirtualThreadHolder {
+        static final ExecutorService EXE = Executors.newThreadPerTaskExecutor( Thread.ofVirtual().name( "pango-batch-", 0L ).factory() );
+    }
+
+    private static final class DefaultHolder {
+        static final BatchLoader DEFAULT = new BatchLoader();
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2025 Tim Langhammer.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.jpangolin.modules.io;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Block Pipe.
+ * <p>
+ *     Hands blocks of bytes from a producer thread to a consumer thread.
+ *     The blocks are pooled, so the heap used by a pipe is bounded by the number of blocks times the block size,
+ *     and the producer waits while the consumer is behind.
+ * </p>
+ * <p>
+ *     A block either starts an item, like an archive entry, with a header or carries data of the current item.
+ * </p>
+ *
+ * @param <H> type of header
+ * @author jTzipi
+ */
+final class BlockPipe<H> {
+
+    /**
+     * Size of a block.
+     */
+    static final int BLOCK_SIZE = 64 * 1024;
+
+    private final BlockingQueue<Block<H>> free;
+    private final BlockingQueue<Block<H>> full;
+    private final Block<H> end = new Block<>( 0 );
+    private volatile Throwable failure;
+
+    /**
+     * Block Pipe.
+     *
+     * @param blocks number of blocks [2 .. ]
+     */
+    BlockPipe( final int blocks ) {
+        this.free = new ArrayBlockingQueue<>( blocks );
+        this.full = new ArrayBlockingQueue<>( blocks + 1 );
+        for ( int i = 0; i < blocks; i++ ) {
+            free.add( new Block<>( BLOCK_SIZE ) );
+        }
+    }
+
+    /**
+     * Producer: start a new item.
+     *
+     * @param header header of item
+     * @throws InterruptedIOException if interrupted
+     */
+    void header( final H header ) throws InterruptedIOException {
+        final Block<H> block = take( free );
+        block.header = header;
+        block.length = 0;
+        put( block );
+    }
+
+    /**
+     * Producer: take a free block to fill.
+     *
+     * @return empty block
+     * @throws InterruptedIOException if interrupted
+     */
+    Block<H> claim() throws InterruptedIOException {
+        final Block<H> block = take( free );
+        block.header = null;
+        block.length = 0;
+        return block;
+    }
+
+    /**
+     * Producer: hand a filled block to the consumer.
+     *
+     * @param block block
+     * @throws InterruptedIOException if interrupted
+     */
+    void put( final Block<H> block ) throws InterruptedIOException {
+        try {
+            full.put( block );
+        } catch ( final InterruptedException ie ) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException( "Interrupted while writing to pipe" );
+        }
+    }
+
+    /**
+     * Producer: signal the end, maybe with a failure.
+     *
+     * @param cause failure or {@code null}
+     */
+    void finish( final Throwable cause ) {
+        failure = cause;
+        // there is always room for the end
+        full.add( end );
+    }
+
+    /**
+     * Consumer: take the next block.
+     *
+     * @return block or {@code null} at the end
+     * @throws IOException if the producer failed or interrupted
+     */
+    Block<H> next() throws IOException {
+        final Block<H> block = take( full );
+        if ( end != block ) {
+            return block;
+        }
+        final Throwable cause = failure;
+        if ( null == cause ) {
+            return null;
+        }
+        if ( cause instanceof IOException ioe ) {
+            throw new IOException( ioe.getMessage(), ioe );
+        }
+        throw new IOException( "Producer failed", cause );
+    }
+
+    /**
+     * Consumer: return a consumed block.
+     *
+     * @param block block
+     */
+    void release( final Block<H> block ) {
+        free.add( block );
+    }
+
+    private static <T> T take( final BlockingQueue<T> queue ) throws InterruptedIOException {
+        try {
+            return queue.take();
+        } catch ( final InterruptedException ie ) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException( "Interrupted while reading from pipe" );
+        }
+    }
+
+    /**
+     * Block.
+     *
+     * @param <H> type of header
+     */
+    static final class Block<H> {
+
+        final byte[] data;
+        H header;
+        int length;
+
+        Block( final int size ) {
+            this.data = new byte[size];
+        }
+    }
+}
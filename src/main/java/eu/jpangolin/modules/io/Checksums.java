@@ -0,0 +1,507 @@
+/*
+ * Copyright (c) 2025 Tim Langhammer.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.jpangolin.modules.io;
+
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32C;
+
+/**
+ * Checksums.
+ * <p>
+ *     Hashes files with large direct or mapped buffers. Files from the
+ *     {@linkplain PlatformProfile#mmapThreshold() mmap threshold} on are mapped into memory.
+ * </p>
+ * <p>
+ *     Large files are hashed in chunks of {@linkplain #CHUNK_SIZE} in parallel on the pool of the {@link DirectoryScanner},
+ *     so blocking reads and page faults never occupy the common pool:
+ *     <ul>
+ *         <li>{@linkplain Algorithm#CRC32C} combines the chunk checksums, the result equals a sequential CRC32C</li>
+ *         <li>{@linkplain Algorithm#SHA_256_TREE} hashes the concatenated SHA-256 digests of all chunks.
+ *         This is not the SHA-256 of the file but does not depend on the parallelism</li>
+ *         <li>{@linkplain Algorithm#SHA_256} is the plain, sequential SHA-256 of the file</li>
+ *     </ul>
+ *     All results are deterministic.
+ * </p>
+ *
+ * @author jTzipi
+ */
+public final class Checksums {
+
+    /**
+     * Size of a chunk hashed in parallel (8 MiB).
+     */
+    public static final int CHUNK_SIZE = 8 * 1024 * 1024;
+
+    // Logger
+    private static final org.slf4j.Logger LOG = LoggerFactory.getLogger( Checksums.class );
+    // reflected Castagnoli polynomial
+    private static final int CRC32C_POLY = 0x82F63B78;
+    // x^(2^n) mod p
+    private static final int[] X2N = x2nTable();
+
+    private Checksums() {
+        throw new AssertionError( "--__--" );
+    }
+
+    /**
+     * Hash a file.
+     *
+     * @param path path to file
+     * @param alg  algorithm
+     * @return digest, for {@linkplain Algorithm#CRC32C} 4 bytes big endian
+     * @throws IOException              if not readable
+     * @throws IllegalArgumentException if {@code path} is a dir
+     * @throws NullPointerException     if {@code path}|{@code alg} is null
+     */
+    public static byte[] digest( final Path path, final Algorithm alg ) throws IOException {
+        Objects.requireNonNull( path );
+        Objects.requireNonNull( alg );
+        if ( Files.isDirectory( path ) ) {
+            throw new IllegalArgumentException( "You try to hash dir[='" + path + "']" );
+        }
+        try ( Input in = Input.open( path ) ) {
+            return switch ( alg ) {
+                case CRC32C -> ByteBuffer.allocate( Integer.BYTES ).putInt( crc32c( in ) ).array();
+                case SHA_256 -> sha256( in );
+                case SHA_256_TREE -> sha256Tree( in );
+            };
+        } catch ( final UncheckedIOException uioe ) {
+            throw uioe.getCause();
+        }
+    }
+
+    /**
+     * Hash a file and return the digest as lower case hex string.
+     *
+     * @param path path to file
+     * @param alg  algorithm
+     * @return hex digest
+     * @throws IOException              if not readable
+     * @throws IllegalArgumentException if {@code path} is a dir
+     * @throws NullPointerException     if {@code path}|{@code alg} is null
+     */
+    public static String hash( final Path path, final Algorithm alg ) throws IOException {
+        return HexFormat.of().formatHex( digest( path, alg ) );
+    }
+
+    /**
+     * Return the CRC32C of a file.
+     *
+     * @param path path to file
+     * @return CRC32C as unsigned int
+     * @throws IOException              if not readable
+     * @throws IllegalArgumentException if {@code path} is a dir
+     * @throws NullPointerException     if {@code path} is null
+     */
+    public static long crc32c( final Path path ) throws IOException {
+        return Integer.toUnsignedLong( ByteBuffer.wrap( digest( path, Algorithm.CRC32C ) ).getInt() );
+    }
+
+    /**
+     * Hash all regular files of a directory tree concurrently.
+     * <p>
+     *     Symbolic links are skipped. The digest of the directory is the SHA-256 over all files in the order of their
+     *     relative path, each as UTF-8 {@code path '\0' hex-digest '\n'} with '/' as separator.
+     * </p>
+     *
+     * @param dir      directory
+     * @param alg      algorithm for the files
+     * @param listener progress listener or {@code null}
+     * @return digest of directory and its files
+     * @throws IOException          if the directory or a file is not readable
+     * @throws NullPointerException if {@code dir}|{@code alg} is null
+     */
+    public static DirectoryDigest hashDirectory( final Path dir, final Algorithm alg, final Consumer<? super Progress> listener ) throws IOException {
+        Objects.requireNonNull( dir );
+        Objects.requireNonNull( alg );
+
+        final List<DirectoryScanner.FileEntry> files = new ArrayList<>();
+        long total = 0L;
+        for ( final DirectoryScanner.FileEntry entry : DirectoryScanner.walk( dir, Integer.MAX_VALUE, true ) ) {
+            if ( !entry.dir() && !entry.link() ) {
+                files.add( entry );
+                total += entry.size();
+            }
+        }
+        final Reporter reporter = new Reporter( files.size(), total, listener );
+
+        final List<Path> paths = files.stream().map( DirectoryScanner.FileEntry::path ).toList();
+        final List<CompletableFuture<BatchLoader.Result<String>>> hashes = BatchLoader.getDefault().submit( paths, path -> hash( path, alg ) );
+        for ( int i = 0; i < hashes.size(); i++ ) {
+            final long size = files.get( i ).size();
+            hashes.get( i ).thenRun( () -> reporter.add( size ) );
+        }
+
+        final SortedMap<String, String> digests = new TreeMap<>();
+        for ( int i = 0; i < hashes.size(); i++ ) {
+            final BatchLoader.Result<String> res = hashes.get( i ).join();
+            if ( !res.isSuccess() ) {
+                throw new IOException( "Failed to hash '" + res.path() + "'", res.error() );
+            }
+            digests.put( relative( dir, paths.get( i ) ), res.value() );
+        }
+
+        final MessageDigest md = sha256();
+        for ( final Map.Entry<String, String> file : digests.entrySet() ) {
+            md.update( file.getKey().getBytes( StandardCharsets.UTF_8 ) );
+            md.update( ( byte ) 0 );
+            md.update( file.getValue().getBytes( StandardCharsets.UTF_8 ) );
+            md.update( ( byte ) '\n' );
+        }
+        return new DirectoryDigest( dir, alg, HexFormat.of().formatHex( md.digest() ), Collections.unmodifiableSortedMap( digests ) );
+    }
+
+    /**
+     * Combine two CRC32C checksums.
+     *
+     * @param crc1 checksum of the first part
+     * @param crc2 checksum of the second part
+     * @param len2 length of the second part in bytes
+     * @return checksum of both parts
+     */
+    static int combine( final int crc1, final int crc2, final long len2 ) {
+        return multModP( x2nModP( len2, 3 ), crc1 ) ^ crc2;
+    }
+
+    private static int crc32c( final Input in ) {
+        final int chunks = chunks( in.size() );
+        if ( 1 >= chunks ) {
+            return crc32c( in, 0L, in.size() );
+        }
+        final int[] crcs = DirectoryScanner.walkPool().invoke( ForkJoinTask.adapt( () -> IntStream.range( 0, chunks ).parallel()
+                .map( i -> crc32c( in, ( long ) i * CHUNK_SIZE, chunkLength( in.size(), i ) ) )
+                .toArray() ) );
+        int crc = crcs[0];
+        for ( int i = 1; i < chunks; i++ ) {
+            crc = combine( crc, crcs[i], chunkLength( in.size(), i ) );
+        }
+        return crc;
+    }
+
+    private static int crc32c( final Input in, final long pos, final long len ) {
+        final CRC32C crc = new CRC32C();
+        in.feed( pos, len, crc::update );
+        return ( int ) crc.getValue();
+    }
+
+    private static byte[] sha256( final Input in ) {
+        final MessageDigest md = sha256();
+        final int chunks = chunks( in.size() );
+        for ( int i = 0; i < chunks; i++ ) {
+            in.feed( ( long ) i * CHUNK_SIZE, chunkLength( in.size(), i ), md::update );
+        }
+        return md.digest();
+    }
+
+    private static byte[] sha256Tree( final Input in ) {
+        final int chunks = chunks( in.size() );
+        final byte[][] leaves = DirectoryScanner.walkPool().invoke( ForkJoinTask.adapt( () -> IntStream.range( 0, chunks ).parallel()
+                .mapToObj( i -> {
+                    final MessageDigest md = sha256();
+                    in.feed( ( long ) i * CHUNK_SIZE, chunkLength( in.size(), i ), md::update );
+                    return md.digest();
+                } )
+                .toArray( byte[][]::new ) ) );
+        final MessageDigest root = sha256();
+        for ( final byte[] leaf : leaves ) {
+            root.update( leaf );
+        }
+        return root.digest();
+    }
+
+    private static int chunks( final long size ) {
+        return ( int ) ( ( size + CHUNK_SIZE - 1L ) / CHUNK_SIZE );
+    }
+
+    private static long chunkLength( final long size, final int idx ) {
+        return Math.min( CHUNK_SIZE, size - ( long ) idx * CHUNK_SIZE );
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance( "SHA-256" );
+        } catch ( final NoSuchAlgorithmException nsae ) {
+            // every JDK has SHA-256
+            throw new IllegalStateException( nsae );
+        }
+    }
+
+    private static String relative( final Path dir, final Path path ) {
+        final StringBuilder sb = new StringBuilder();
+        for ( final Path name : dir.relativize( path ) ) {
+            if ( !sb.isEmpty() ) {
+                sb.append( '/' );
+            }
+            sb.append( name );
+        }
+        return sb.toString();
+    }
+
+    // a * b mod p, reflected
+    private static int multModP( final int a, int b ) {
+        int m = 1 << 31;
+        int p = 0;
+        while ( true ) {
+            if ( 0 != ( a & m ) ) {
+                p ^= b;
+                if ( 0 == ( a & ( m - 1 ) ) ) {
+                    break;
+                }
+            }
+            m >>>= 1;
+            b = 0 != ( b & 1 ) ? ( b >>> 1 ) ^ CRC32C_POLY : b >>> 1;
+        }
+        return p;
+    }
+
+    // x^(n * 2^k) mod p
+    private static int x2nModP( long n, int k ) {
+        int p = 1 << 31;
+        while ( 0L != n ) {
+            if ( 0L != ( n & 1L ) ) {
+                p = multModP( X2N[k & 31], p );
+            }
+            n >>>= 1;
+            k++;
+        }
+        return p;
+    }
+
+    private static int[] x2nTable() {
+        final int[] table = new int[32];
+        int p = 1 << 30;
+        table[0] = p;
+        for ( int n = 1; n < table.length; n++ ) {
+            p = multModP( p, p );
+            table[n] = p;
+        }
+        return table;
+    }
+
+    /**
+     * Checksum algorithm.
+     */
+    public enum Algorithm {
+        /**
+         * CRC32C (Castagnoli), computed in parallel.
+         */
+        CRC32C,
+        /**
+         * SHA-256 of the file, computed sequentially.
+         */
+        SHA_256,
+        /**
+         * SHA-256 over the SHA-256 digests of all chunks, computed in parallel.
+         */
+        SHA_256_TREE
+    }
+
+    /**
+     * Digest of a directory tree.
+     *
+     * @param dir    directory
+     * @param alg    algorithm of the files
+     * @param digest SHA-256 of the directory as hex
+     * @param files  hex digest of each file by relative path
+     */
+    public record DirectoryDigest( Path dir, Algorithm alg, String digest, SortedMap<String, String> files ) {
+    }
+
+    /**
+     * Progress of a directory hash.
+     *
+     * @param filesDone  files hashed
+     * @param filesTotal files to hash
+     * @param bytesDone  bytes hashed
+     * @param bytesTotal bytes to hash
+     */
+    public record Progress( int filesDone, int filesTotal, long bytesDone, long bytesTotal ) {
+
+        /**
+         * Format like {@code "3/10 files, 1.5 GiB / 4.0 GiB"}.
+         *
+         * @param si standard unit
+         * @return formatted progress
+         * @see IOUtils#formatFileSize(long, boolean)
+         */
+        public String format( final boolean si ) {
+            final StringBuilder sb = new StringBuilder( 48 );
+            sb.append( filesDone ).append( '/' ).append( filesTotal ).append( " files, " );
+            IOUtils.appendFileSize( bytesDone, si, sb ).append( " / " );
+            return IOUtils.appendFileSize( bytesTotal, si, sb ).toString();
+        }
+    }
+
+    private static final class Reporter {
+
+        private final int filesTotal;
+        private final long bytesTotal;
+        private final Consumer<? super Progress> listener;
+        private int files;
+        private long bytes;
+
+        Reporter( final int filesTotal, final long bytesTotal, final Consumer<? super Progress> listener ) {
+            this.filesTotal = filesTotal;
+            this.bytesTotal = bytesTotal;
+            this.listener = listener;
+        }
+
+        synchronized void add( final long size ) {
+            if ( null == listener ) {
+                return;
+            }
+            files++;
+            bytes += size;
+            try {
+                listener.accept( new Progress( files, filesTotal, bytes, bytesTotal ) );
+            } catch ( final RuntimeException re ) {
+                LOG.warn( "Progress listener failed", re );
+            }
+        }
+    }
+
+    /**
+     * Opened file, read by position from many threads.
+     */
+    private static final class Input implements AutoCloseable {
+
+        private final FileChannel fc;
+        private final long size;
+        // null if read with buffer
+        private final MappedFile mapped;
+
+        private Input( final FileChannel fc, final MappedFile mapped ) throws IOException {
+            this.fc = fc;
+            this.size = fc.size();
+            this.mapped = mapped;
+        }
+
+        static Input open( final Path path ) throws IOException {
+            final FileChannel fc = FileChannel.open( path, StandardOpenOption.READ );
+            try {
+                final boolean map = fc.size() >= PlatformProfile.get().mmapThreshold();
+                return new Input( fc, map ? MappedFile.open( path ) : null );
+            } catch ( final IOException | RuntimeException e ) {
+                fc.close();
+                throw e;
+            }
+        }
+
+        long size() {
+            return size;
+        }
+
+        /**
+         * Feed a region in buffers to a consumer.
+         *
+         * @param pos      position
+         * @param len      length [0 .. {@linkplain #CHUNK_SIZE}]
+         * @param consumer consumer
+         * @throws UncheckedIOException if failed to read
+         */
+        void feed( final long pos, final long len, final Consumer<ByteBuffer> consumer ) {
+            if ( null != mapped ) {
+                // chunks never cross a window
+                mapped.withSlice( pos, ( int ) len, bb -> {
+                    consumer.accept( bb );
+                    return null;
+                } );
+                return;
+            }
+            final ByteBuffer buf = BufferPool.acquire();
+            long p = pos;
+            final long end = pos + len;
+            try {
+                while ( p < end ) {
+                    buf.clear().limit( ( int ) Math.min( buf.capacity(), end - p ) );
+                    final int n = fc.read( buf, p );
+                    if ( 0 > n ) {
+                        throw new IOException( "File truncated while hashing" );
+                    }
+                    p += n;
+                    consumer.accept( buf.flip() );
+                }
+            } catch ( final IOException ioe ) {
+                throw new UncheckedIOException( ioe );
+            } finally {
+                BufferPool.release( buf );
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try ( fc ) {
+                if ( null != mapped ) {
+                    mapped.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Pool of direct buffers for files read without mapping.
+     * Hashing many small files would otherwise allocate a direct buffer per file,
+     * which is freed by the garbage collector only.
+     */
+    private static final class BufferPool {
+
+        private static final int MAX_BUFFERS = 2 * Runtime.getRuntime().availableProcessors();
+        private static final ConcurrentLinkedQueue<ByteBuffer> POOL = new ConcurrentLinkedQueue<>();
+        private static final AtomicInteger POOLED = new AtomicInteger();
+
+        static ByteBuffer acquire() {
+            final ByteBuffer buf = POOL.poll();
+            if ( null != buf ) {
+                POOLED.decrementAndGet();
+                return buf;
+            }
+            return ByteBuffer.allocateDirect( PlatformProfile.get().bufferSize() );
+        }
+
+        static void release( final ByteBuffer buf ) {
+            if ( POOLED.incrementAndGet() <= MAX_BUFFERS ) {
+                POOL.offer( buf );
+            } else {
+                POOLED.decrementAndGet();
+            }
+        }
+    }
+}
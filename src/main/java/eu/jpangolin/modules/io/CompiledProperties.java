@@ -0,0 +1,499 @@
+/*
+ * Copyright (c) 2025 Tim Langhammer.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.jpangolin.modules.io;
+
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.PropertyResourceBundle;
+import java.util.ResourceBundle;
+
+/**
+ * Compiled Properties.
+ * <p>
+ *     Read only properties in a compact binary form which is loaded by a single read and looked up without
+ *     building a {@link java.util.Hashtable}. Keys and values are stored once as UTF-8 and found through an open
+ *     addressing hash table of {@link String#hashCode()}. Values are decoded on first lookup.
+ * </p>
+ * <p>
+ *     A compiled file is either produced at build time with {@link #compile(Path, Path)} or cached lazily
+ *     beside the properties file by {@link #load(Path)}. The cached file records last modified time and size of its source
+ *     and is compiled again when they no longer match.
+ * </p>
+ * <p>
+ *     Layout, big endian:
+ * </p>
+ * <pre>
+ *     int magic, int version, long source last modified, long source size, int count, int table size
+ *     int[table size]  1 based entry index or 0 if empty
+ *     (int hash, int key offset, int key length, int value offset, int value length)[count]
+ *     byte[]           UTF-8 keys and values
+ * </pre>
+ * <p>
+ *     Instances are immutable and thread safe.
+ * </p>
+ *
+ * @author jTzipi
+ */
+public final class CompiledProperties {
+
+    /**
+     * Suffix of a compiled file appended to the name of its source.
+     */
+    public static final String SUFFIX = ".compiled";
+
+    // Logger
+    private static final org.slf4j.Logger LOG = LoggerFactory.getLogger( CompiledProperties.class );
+    // 'PGOP'
+    private static final int MAGIC = 0x50474F50;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int ENTRY_SIZE = 20;
+
+    private final ByteBuffer buf;
+    private final long sourceLastModified;
+    private final long sourceSize;
+    private final int count;
+    private final int tableSize;
+    private final int entryPos;
+    // decoded lazily, benign race
+    private final String[] values;
+
+    private CompiledProperties( final ByteBuffer buf ) throws IOException {
+        if ( HEADER_SIZE > buf.limit() || MAGIC != buf.getInt( 0 ) ) {
+            throw new IOException( "Not compiled properties" );
+        }
+        if ( VERSION != buf.getInt( 4 ) ) {
+            throw new IOException( "Unsupported version[=" + buf.getInt( 4 ) + "]" );
+        }
+        this.buf = buf;
+        this.sourceLastModified = buf.getLong( 8 );
+        this.sourceSize = buf.getLong( 16 );
+        this.count = buf.getInt( 24 );
+        this.tableSize = buf.getInt( 28 );
+        if ( 0 > count || 0 >= tableSize || 0 != ( tableSize & ( tableSize - 1 ) ) || tableSize <= count
+                || HEADER_SIZE + 4L * tableSize + ( long ) ENTRY_SIZE * count > buf.limit() ) {
+            throw new IOException( "Corrupt compiled properties" );
+        }
+        this.entryPos = HEADER_SIZE + 4 * tableSize;
+        this.values = new String[count];
+        validate();
+    }
+
+    // a corrupt file must fail here and not on a later lookup
+    private void validate() throws IOException {
+        final long dataPos = entryPos + ( long ) ENTRY_SIZE * count;
+        final int limit = buf.limit();
+        for ( int i = 0; i < count; i++ ) {
+            final int e = entryPos + ENTRY_SIZE * i;
+            if ( !inData( buf.getInt( e + 4 ), buf.getInt( e + 8 ), dataPos, limit )
+                    || !inData( buf.getInt( e + 12 ), buf.getInt( e + 16 ), dataPos, limit ) ) {
+                throw new IOException( "Corrupt compiled properties entry[=" + i + "]" );
+            }
+        }
+        // lookups end at an empty slot
+        int empty = 0;
+        for ( int slot = 0; slot < tableSize; slot++ ) {
+            final int idx = buf.getInt( HEADER_SIZE + 4 * slot );
+            if ( 0 > idx || count < idx ) {
+                throw new IOException( "Corrupt compiled properties slot[=" + slot + "]" );
+            }
+            if ( 0 == idx ) {
+                empty++;
+            }
+        }
+        if ( 0 == empty ) {
+            throw new IOException( "Corrupt compiled properties table without empty slot" );
+        }
+    }
+
+    private static boolean inData( final int off, final int len, final long dataPos, final int limit ) {
+        return dataPos <= off && 0 <= len && ( long ) off + len <= limit;
+    }
+
+    /**
+     * Load a properties file through its compiled file beside it.
+     * If the compiled file is missing or stale the properties file is parsed and the compiled file written
+     * atomically. If the directory is not writable the compiled properties are kept in memory only.
+     *
+     * @param source properties file
+     * @return compiled properties
+     * @throws IOException          if {@code source} is not readable
+     * @throws NullPointerException if {@code source} is null
+     */
+    public static CompiledProperties load( final Path source ) throws IOException {
+        Objects.requireNonNull( source );
+        final BasicFileAttributes attr = Files.readAttributes( source, BasicFileAttributes.class );
+        final long lastModified = attr.lastModifiedTime().toMillis();
+        final Path compiled = source.resolveSibling( source.getFileName() + SUFFIX );
+        try {
+            final CompiledProperties cp = open( compiled );
+            if ( cp.sourceLastModified == lastModified && cp.sourceSize == attr.size() ) {
+                return cp;
+            }
+            LOG.debug( "Compiled properties[='{}'] stale", compiled );
+        } catch ( final NoSuchFileException nsfe ) {
+            // first load
+        } catch ( final IOException ioe ) {
+            LOG.debug( "Compiled properties[='{}'] not readable", compiled, ioe );
+        }
+
+        final byte[] bytes = toBytes( IOUtils.loadProperties( source ), lastModified, attr.size() );
+        try {
+            AtomicFiles.write( compiled, os -> os.write( bytes ), false );
+        } catch ( final IOException ioe ) {
+            LOG.debug( "Failed to write compiled properties[='{}']", compiled, ioe );
+        }
+        return new CompiledProperties( ByteBuffer.wrap( bytes ) );
+    }
+
+    /**
+     * Open a compiled file.
+     * Files above the {@linkplain PlatformProfile#mmapThreshold() mmap threshold} are mapped, smaller ones read at once.
+     *
+     * @param compiled compiled file
+     * @return compiled properties
+     * @throws IOException          if {@code compiled} is not readable or not compiled properties
+     * @throws NullPointerException if {@code compiled} is null
+     */
+    public static CompiledProperties open( final Path compiled ) throws IOException {
+        Objects.requireNonNull( compiled );
+        try ( FileChannel fc = FileChannel.open( compiled, StandardOpenOption.READ ) ) {
+            final long size = fc.size();
+            if ( Integer.MAX_VALUE < size ) {
+                throw new IOException( "Compiled properties[='" + compiled + "'] too large" );
+            }
+            if ( size >= PlatformProfile.get().mmapThreshold() ) {
+                // mapping stays valid after close
+                return new CompiledProperties( fc.map( FileChannel.MapMode.READ_ONLY, 0L, size ) );
+            }
+            final ByteBuffer bb = ByteBuffer.allocate( ( int ) size );
+            while ( bb.hasRemaining() ) {
+                if ( 0 > fc.read( bb, bb.position() ) ) {
+                    throw new IOException( "Compiled properties[='" + compiled + "'] truncated" );
+                }
+            }
+            return new CompiledProperties( bb.flip() );
+        }
+    }
+
+    /**
+     * Load compiled properties from a class path resource.
+     * The resource {@code fileStr + }{@value #SUFFIX} compiled at build time is used if present,
+     * otherwise the properties resource is parsed and compiled in memory.
+     *
+     * @param cls     class from which location the resource loaded
+     * @param fileStr name of properties resource
+     * @return compiled properties
+     * @throws IOException           if failed to read
+     * @throws IllegalStateException if the resource is not readable
+     * @throws NullPointerException  if {@code cls}|{@code fileStr} is null
+     */
+    public static CompiledProperties fromResource( final Class<?> cls, final String fileStr ) throws IOException {
+        Objects.requireNonNull( cls );
+        Objects.requireNonNull( fileStr );
+        try ( InputStream is = cls.getResourceAsStream( fileStr + SUFFIX ) ) {
+            if ( null != is ) {
+                return new CompiledProperties( ByteBuffer.wrap( is.readAllBytes() ) );
+            }
+        }
+        return of( IOUtils.loadPropertiesFromResource( cls, fileStr ) );
+    }
+
+    /**
+     * Load compiled properties from a class path resource bundle.
+     * Unlike {@link #fromResource(Class, String)} the properties resource is read like
+     * {@link PropertyResourceBundle#PropertyResourceBundle(InputStream)}, that is UTF-8 with a fallback to ISO-8859-1.
+     * The resource {@code fileStr + }{@value #SUFFIX} must be compiled with {@link #compileBundle(Path, Path)}.
+     *
+     * @param cls     class from which location the resource loaded
+     * @param fileStr name of properties resource
+     * @return compiled properties
+     * @throws IOException           if failed to read
+     * @throws IllegalStateException if the resource is not readable
+     * @throws NullPointerException  if {@code cls}|{@code fileStr} is null
+     */
+    public static CompiledProperties fromBundleResource( final Class<?> cls, final String fileStr ) throws IOException {
+        Objects.requireNonNull( cls );
+        Objects.requireNonNull( fileStr );
+        try ( InputStream is = cls.getResourceAsStream( fileStr + SUFFIX ) ) {
+            if ( null != is ) {
+                return new CompiledProperties( ByteBuffer.wrap( is.readAllBytes() ) );
+            }
+        }
+        try ( InputStream is = cls.getResourceAsStream( fileStr ) ) {
+            if ( null == is ) {
+                throw new IllegalStateException( "ResourceBundle[='" + fileStr + "'] not readable" );
+            }
+            return of( bundleProperties( is ) );
+        }
+    }
+
+    /**
+     * Compile properties in memory.
+     *
+     * @param prop properties, only String keys and values are used
+     * @return compiled properties
+     * @throws NullPointerException if {@code prop} is null
+     */
+    public static CompiledProperties of( final Properties prop ) {
+        Objects.requireNonNull( prop );
+        try {
+            return new CompiledProperties( ByteBuffer.wrap( toBytes( prop, 0L, 0L ) ) );
+        } catch ( final IOException ioe ) {
+            // own layout
+            throw new AssertionError( ioe );
+        }
+    }
+
+    /**
+     * Compile a properties file, for instance at build time.
+     *
+     * @param source properties file
+     * @param target compiled file, replaced atomically
+     * @throws IOException          if {@code source} is not readable or failed to write
+     * @throws NullPointerException if {@code source}|{@code target} is null
+     */
+    public static void compile( final Path source, final Path target ) throws IOException {
+        Objects.requireNonNull( source );
+        Objects.requireNonNull( target );
+        final BasicFileAttributes attr = Files.readAttributes( source, BasicFileAttributes.class );
+        final byte[] bytes = toBytes( IOUtils.loadProperties( source ), attr.lastModifiedTime().toMillis(), attr.size() );
+        AtomicFiles.write( target, os -> os.write( bytes ), false );
+    }
+
+    /**
+     * Compile a resource bundle file, for instance at build time.
+     * The source is read like {@link PropertyResourceBundle#PropertyResourceBundle(InputStream)}.
+     *
+     * @param source properties file of a resource bundle
+     * @param target compiled file, replaced atomically
+     * @throws IOException          if {@code source} is not readable or failed to write
+     * @throws NullPointerException if {@code source}|{@code target} is null
+     * @see #fromBundleResource(Class, String)
+     */
+    public static void compileBundle( final Path source, final Path target ) throws IOException {
+        Objects.requireNonNull( source );
+        Objects.requireNonNull( target );
+        final BasicFileAttributes attr = Files.readAttributes( source, BasicFileAttributes.class );
+        final Properties prop;
+        try ( InputStream is = Files.newInputStream( source ) ) {
+            prop = bundleProperties( is );
+        }
+        final byte[] bytes = toBytes( prop, attr.lastModifiedTime().toMillis(), attr.size() );
+        AtomicFiles.write( target, os -> os.write( bytes ), false );
+    }
+
+    /**
+     * Return the value of key.
+     *
+     * @param key key
+     * @return value or {@code null} if not present
+     * @throws NullPointerException if {@code key} is null
+     */
+    public String get( final String key ) {
+        final int hash = key.hashCode();
+        final int mask = tableSize - 1;
+        byte[] utf8 = null;
+        for ( int slot = hash & mask; ; slot = ( slot + 1 ) & mask ) {
+            final int idx = buf.getInt( HEADER_SIZE + 4 * slot ) - 1;
+            if ( 0 > idx ) {
+                return null;
+            }
+            final int e = entryPos + ENTRY_SIZE * idx;
+            if ( hash != buf.getInt( e ) ) {
+                continue;
+            }
+            if ( null == utf8 ) {
+                utf8 = key.getBytes( StandardCharsets.UTF_8 );
+            }
+            if ( regionEquals( buf.getInt( e + 4 ), buf.getInt( e + 8 ), utf8 ) ) {
+                return value( idx );
+            }
+        }
+    }
+
+    /**
+     * Return the value of key or a default.
+     *
+     * @param key key
+     * @param def default value
+     * @return value or {@code def} if not present
+     * @throws NullPointerException if {@code key} is null
+     */
+    public String get( final String key, final String def ) {
+        final String value = get( key );
+        return null == value ? def : value;
+    }
+
+    /**
+     * Return number of properties.
+     *
+     * @return size
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Return all keys in sorted order.
+     *
+     * @return unmodifiable list of keys
+     */
+    public List<String> keys() {
+        final List<String> keys = new ArrayList<>( count );
+        for ( int i = 0; i < count; i++ ) {
+            final int e = entryPos + ENTRY_SIZE * i;
+            keys.add( decode( buf.getInt( e + 4 ), buf.getInt( e + 8 ) ) );
+        }
+        return Collections.unmodifiableList( keys );
+    }
+
+    /**
+     * Return a copy as properties.
+     *
+     * @return properties
+     */
+    public Properties toProperties() {
+        final Properties prop = new Properties();
+        final List<String> keys = keys();
+        for ( int i = 0; i < count; i++ ) {
+            prop.setProperty( keys.get( i ), value( i ) );
+        }
+        return prop;
+    }
+
+    /**
+     * Return a resource bundle view.
+     *
+     * @return resource bundle looking up this properties
+     */
+    public ResourceBundle toResourceBundle() {
+        return new Bundle();
+    }
+
+    private String value( final int idx ) {
+        String value = values[idx];
+        if ( null == value ) {
+            final int e = entryPos + ENTRY_SIZE * idx;
+            value = decode( buf.getInt( e + 12 ), buf.getInt( e + 16 ) );
+            values[idx] = value;
+        }
+        return value;
+    }
+
+    private String decode( final int off, final int len ) {
+        if ( buf.hasArray() ) {
+            return new String( buf.array(), buf.arrayOffset() + off, len, StandardCharsets.UTF_8 );
+        }
+        final byte[] bytes = new byte[len];
+        buf.get( off, bytes );
+        return new String( bytes, StandardCharsets.UTF_8 );
+    }
+
+    private boolean regionEquals( final int off, final int len, final byte[] utf8 ) {
+        if ( len != utf8.length ) {
+            return false;
+        }
+        for ( int i = 0; i < len; i++ ) {
+            if ( buf.get( off + i ) != utf8[i] ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // parse with the charset rules of resource bundles
+    private static Properties bundleProperties( final InputStream is ) throws IOException {
+        final PropertyResourceBundle bundle = new PropertyResourceBundle( is );
+        final Properties prop = new Properties();
+        for ( final String key : bundle.keySet() ) {
+            prop.setProperty( key, bundle.getString( key ) );
+        }
+        return prop;
+    }
+
+    private static byte[] toBytes( final Properties prop, final long lastModified, final long size ) {
+        final List<String> keys = new ArrayList<>( prop.stringPropertyNames() );
+        Collections.sort( keys );
+        final int n = keys.size();
+        final int tableSize = Integer.highestOneBit( Math.max( 2, 2 * n ) - 1 ) << 1;
+        final byte[][] keyBytes = new byte[n][];
+        final byte[][] valueBytes = new byte[n][];
+        long dataSize = 0L;
+        for ( int i = 0; i < n; i++ ) {
+            keyBytes[i] = keys.get( i ).getBytes( StandardCharsets.UTF_8 );
+            valueBytes[i] = prop.getProperty( keys.get( i ) ).getBytes( StandardCharsets.UTF_8 );
+            dataSize += keyBytes[i].length + valueBytes[i].length;
+        }
+        final int dataPos = HEADER_SIZE + 4 * tableSize + ENTRY_SIZE * n;
+        if ( Integer.MAX_VALUE < dataPos + dataSize ) {
+            throw new IllegalArgumentException( "Properties too large" );
+        }
+
+        final ByteBuffer bb = ByteBuffer.allocate( ( int ) ( dataPos + dataSize ) );
+        bb.putInt( MAGIC ).putInt( VERSION ).putLong( lastModified ).putLong( size ).putInt( n ).putInt( tableSize );
+        final int mask = tableSize - 1;
+        int data = dataPos;
+        for ( int i = 0; i < n; i++ ) {
+            final int hash = keys.get( i ).hashCode();
+            int slot = hash & mask;
+            while ( 0 != bb.getInt( HEADER_SIZE + 4 * slot ) ) {
+                slot = ( slot + 1 ) & mask;
+            }
+            bb.putInt( HEADER_SIZE + 4 * slot, i + 1 );
+
+            final int e = HEADER_SIZE + 4 * tableSize + ENTRY_SIZE * i;
+            bb.putInt( e, hash );
+            bb.putInt( e + 4, data ).putInt( e + 8, keyBytes[i].length );
+            bb.put( data, keyBytes[i] );
+            data += keyBytes[i].length;
+            bb.putInt( e + 12, data ).putInt( e + 16, valueBytes[i].length );
+            bb.put( data, valueBytes[i] );
+            data += valueBytes[i].length;
+        }
+        return bb.array();
+    }
+
+    // looks up without copying into a Hashtable
+    private final class Bundle extends ResourceBundle {
+
+        @Override
+        protected Object handleGetObject( final String key ) {
+            return get( key );
+        }
+
+        @Override
+        public Enumeration<String> getKeys() {
+            return Collections.enumeration( keys() );
+        }
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2025 Tim Langhammer.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.jpangolin.modules.io;
+
+import org.apache.commons.io.FilenameUtils;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Directory Scanner.
+ * <p>
+ *     Lists directories reading the attributes of each entry exactly once.
+ *     The result contains everything a file browser needs, so no further stat call like
+ *     {@link IOUtils#getFileNamePrefix(Path)} or {@link IOUtils#getFileNameSuffix(Path)} is required.
+ * </p>
+ * <p>
+ *     Symbolic links are resolved for the entry attributes but never descended into when walking.
+ * </p>
+ * <p>
+ *     A parallel walk runs on a pool of its own, so the blocking directory reads never occupy
+ *     the common pool.
+ * </p>
+ *
+ * @author jTzipi
+ */
+public final class DirectoryScanner {
+
+    // Logger
+    private static final org.slf4j.Logger LOG = LoggerFactory.getLogger( DirectoryScanner.class );
+
+    private DirectoryScanner() {
+        throw new AssertionError( "--__--" );
+    }
+
+    /**
+     * List the entries of a directory.
+     *
+     * @param dir directory
+     * @return entries in directory order
+     * @throws IOException          if {@code dir} is not a readable directory
+     * @throws NullPointerException if {@code dir} is null
+     */
+    public static List<FileEntry> scan( final Path dir ) throws IOException {
+        Objects.requireNonNull( dir );
+        final List<FileEntry> entries = new ArrayList<>();
+        scanDir( dir, entries, null );
+        return entries;
+    }
+
+    /**
+     * List the entries of a directory tree.
+     * The root itself is not part of the result.
+     * Subdirectories which are not readable are skipped.
+     *
+     * @param root     root directory
+     * @param maxDepth maximal depth, 1 lists only the root [1 .. ]
+     * @param parallel scan subdirectories in parallel
+     * @return entries, parents before children
+     * @throws IOException              if {@code root} is not a readable directory
+     * @throws NullPointerException     if {@code root} is null
+     * @throws IllegalArgumentException if {@code maxDepth} &lt; 1
+     */
+    public static List<FileEntry> walk( final Path root, final int maxDepth, final boolean parallel ) throws IOException {
+        Objects.requireNonNull( root );
+        if ( 1 > maxDepth ) {
+            throw new IllegalArgumentException( "max depth[=" + maxDepth + "] < 1" );
+        }
+        final List<FileEntry> entries = new ArrayList<>();
+        final List<Path> subDirs = new ArrayList<>();
+        scanDir( root, entries, subDirs );
+        if ( 1 == maxDepth ) {
+            return entries;
+        }
+
+        if ( parallel ) {
+            final List<WalkTask> tasks = new ArrayList<>( subDirs.size() );
+            subDirs.forEach( sub -> tasks.add( new WalkTask( sub, maxDepth - 1 ) ) );
+            // forks into the walk pool
+            walkPool().invoke( ForkJoinTask.adapt( () -> ForkJoinTask.invokeAll( tasks ) ) );
+            tasks.forEach( task -> entries.addAll( task.join() ) );
+        } else {
+            for ( final Path sub : subDirs ) {
+                walkSequential( sub, maxDepth - 1, entries );
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Return the pool for blocking directory walks and chunked file reads.
+     *
+     * @return pool of daemon threads
+     */
+    static ForkJoinPool walkPool() {
+        return WalkPoolHolder.POOL;
+    }
+
+    private static void walkSequential( final Path dir, final int depth, final List<FileEntry> entries ) {
+        final List<Path> subDirs = 1 < depth ? new ArrayList<>() : null;
+        if ( scanQuietly( dir, entries, subDirs ) && null != subDirs ) {
+            for ( final Path sub : subDirs ) {
+                walkSequential( sub, depth - 1, entries );
+            }
+        }
+    }
+
+    private static boolean scanQuietly( final Path dir, final List<FileEntry> entries, final List<Path> subDirs ) {
+        try {
+            scanDir( dir, entries, subDirs );
+            return true;
+        } catch ( final IOException ioe ) {
+            LOG.debug( "Skip unreadable dir[='{}']", dir, ioe );
+            return false;
+        }
+    }
+
+    /**
+     * Scan a single directory.
+     *
+     * @param dir     directory
+     * @param entries target for entries
+     * @param subDirs target for directories to descend into or {@code null}
+     * @throws IOException if failed to open or to read
+     */
+    private static void scanDir( final Path dir, final List<FileEntry> entries, final List<Path> subDirs ) throws IOException {
+        try ( DirectoryStream<Path> ds = Files.newDirectoryStream( dir ) ) {
+            for ( final Path path : ds ) {
+                final FileEntry entry = entryOf( path );
+                if ( null == entry ) {
+                    continue;
+                }
+                entries.add( entry );
+                if ( null != subDirs && entry.dir() && !entry.link() ) {
+                    subDirs.add( path );
+                }
+            }
+        } catch ( final DirectoryIteratorException die ) {
+            // the iterator wraps read errors unchecked
+            throw die.getCause();
+        }
+    }
+
+    private static FileEntry entryOf( final Path path ) {
+        try {
+            BasicFileAttributes attr = Files.readAttributes( path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS );
+            final boolean link = attr.isSymbolicLink();
+            if ( link ) {
+                try {
+                    attr = Files.readAttributes( path, BasicFileAttributes.class );
+                } catch ( final IOException ioe ) {
+                    // dangling link keeps link attributes
+                }
+            }
+            return FileEntry.of( path, attr, link );
+        } catch ( final IOException ioe ) {
+            // removed while scanning
+            LOG.debug( "Skip entry[='{}']", path, ioe );
+            return null;
+        }
+    }
+
+    /**
+     * Entry of a directory.
+     *
+     * @param path         path
+     * @param name         file name
+     * @param prefix       like {@link IOUtils#getFileNamePrefix(Path)}
+     * @param suffix       like {@link IOUtils#getFileNameSuffix(Path)}
+     * @param dir          is a directory
+     * @param link         is a symbolic link
+     * @param size         size in bytes
+     * @param lastModified last modified time in millis
+     */
+    public record FileEntry( Path path, String name, String prefix, String suffix, boolean dir, boolean link, long size, long lastModified ) {
+
+        static FileEntry of( final Path path, final BasicFileAttributes attr, final boolean link ) {
+            final Path fileName = path.getFileName();
+            final String name = null == fileName ? "" : fileName.toString();
+            final boolean dir = attr.isDirectory();
+            return new FileEntry( path,
+                    name,
+                    dir ? IOUtils._DIR_ : name,
+                    dir ? IOUtils._DIR_ : FilenameUtils.getExtension( name ),
+                    dir,
+                    link,
+                    attr.size(),
+                    attr.lastModifiedTime().toMillis() );
+        }
+
+        /**
+         * Return the formatted size.
+         *
+         * @param si standard unit
+         * @return formatted file size
+         * @see IOUtils#formatFileSize(long, boolean)
+         */
+        public String formatSize( final boolean si ) {
+            return IOUtils.formatFileSize( size, si );
+        }
+    }
+
+    // never serialized
+    @SuppressWarnings( "serial" )
+    private static final class WalkTask extends RecursiveTask<List<FileEntry>> {
+
+        private final Path dir;
+        private final int depth;
+
+        WalkTask( final Path dir, final int depth ) {
+            this.dir = dir;
+            this.depth = depth;
+        }
+
+        @Override
+        protected List<FileEntry> compute() {
+            final List<FileEntry> entries = new ArrayList<>();
+            final List<Path> subDirs = 1 < depth ? new ArrayList<>() : null;
+            if ( !scanQuietly( dir, entries, subDirs ) || null == subDirs || subDirs.isEmpty() ) {
+                return entries;
+            }
+            final List<WalkTask> tasks = new ArrayList<>( subDirs.size() );
+            subDirs.forEach( sub -> tasks.add( new WalkTask( sub, depth - 1 ) ) );
+            invokeAll( tasks );
+            tasks.forEach( task -> entries.addAll( task.join() ) );
+            return entries;
+        }
+    }
+
+    private static final class WalkPoolHolder {
+        private static final AtomicInteger COUNT = new AtomicInteger();
+        static final ForkJoinPool POOL = new ForkJoinPool( Runtime.getRuntime().availableProcessors(), pool -> {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread( pool );
+            thread.setName( "pango-walk-" + COUNT.getAndIncrement() );
+            thread.setDaemon( true );
+            return thread;
+        }, null, false );
+    }
+}
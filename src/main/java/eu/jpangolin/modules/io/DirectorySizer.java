@@ -0,0 +1,356 @@
+/*
+ * Copyright (c) 2025 Tim Langhammer.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.jpangolin.modules.io;
+
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Directory Sizer.
+ * <p>
+ *     Sums the size of directory trees. Subdirectories are summed in parallel with fork join work stealing.
+ * </p>
+ * <p>
+ *     The listing of each directory is cached with its last modified time.
+ *     A later run reads only the attributes of a directory whose last modified time did not change
+ *     and lists only changed directories again.
+ *     Note: the last modified time of a directory changes when entries are added, removed or renamed,
+ *     but not when a file is modified in place. Such a change is found after {@link #invalidate(Path)}.
+ *     The cache holds at most a fixed number of directories. If a listing exceeds it, the cache is cleared,
+ *     and the next run lists all directories again.
+ * </p>
+ * <p>
+ *     By default the scan runs on a pool of its own, shared with the parallel walks of {@link DirectoryScanner},
+ *     so the blocking directory reads never occupy the common pool.
+ * </p>
+ * <p>
+ *     Symbolic links are not followed and not counted.
+ * </p>
+ *
+ * @author jTzipi
+ */
+public final class DirectorySizer {
+
+    // Logger
+    private static final org.slf4j.Logger LOG = LoggerFactory.getLogger( DirectorySizer.class );
+    // minimal time between partial totals
+    private static final long REPORT_NANOS = TimeUnit.MILLISECONDS.toNanos( 100L );
+
+    /**
+     * Default maximal number of cached directories.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 100_000;
+
+    private final ForkJoinPool pool;
+    private final int maxEntries;
+    private final ConcurrentHashMap<Path, Node> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Directory Sizer using the walk pool and {@linkplain #DEFAULT_MAX_ENTRIES}.
+     */
+    public DirectorySizer() {
+        this( DirectoryScanner.walkPool() );
+    }
+
+    /**
+     * Directory Sizer with {@linkplain #DEFAULT_MAX_ENTRIES}.
+     *
+     * @param pool pool running the scan
+     * @throws NullPointerException if {@code pool} is null
+     */
+    public DirectorySizer( final ForkJoinPool pool ) {
+        this( pool, DEFAULT_MAX_ENTRIES );
+    }
+
+    /**
+     * Directory Sizer.
+     *
+     * @param pool       pool running the scan
+     * @param maxEntries maximal number of cached directories [1 .. ]
+     * @throws NullPointerException     if {@code pool} is null
+     * @throws IllegalArgumentException if {@code maxEntries} &lt; 1
+     */
+    public DirectorySizer( final ForkJoinPool pool, final int maxEntries ) {
+        if ( 1 > maxEntries ) {
+            throw new IllegalArgumentException( "max entries[=" + maxEntries + "] < 1" );
+        }
+        this.pool = Objects.requireNonNull( pool );
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Return the shared directory sizer.
+     *
+     * @return directory sizer
+     */
+    public static DirectorySizer getDefault() {
+        return Holder.DEFAULT;
+    }
+
+    /**
+     * Sum the size of a directory tree.
+     *
+     * @param dir directory
+     * @return size
+     * @throws IOException          if {@code dir} is not a readable directory
+     * @throws NullPointerException if {@code dir} is null
+     */
+    public Size size( final Path dir ) throws IOException {
+        return size( dir, null );
+    }
+
+    /**
+     * Sum the size of a directory tree reporting partial totals while running.
+     * The listener is called from the scanning threads, at most every 100 ms.
+     * Unreadable subdirectories are skipped.
+     *
+     * @param dir      directory
+     * @param listener listener of partial totals or {@code null}
+     * @return size
+     * @throws IOException          if {@code dir} is not a readable directory
+     * @throws NullPointerException if {@code dir} is null
+     */
+    public Size size( final Path dir, final Consumer<? super Size> listener ) throws IOException {
+        Objects.requireNonNull( dir );
+        final Path abs = dir.toAbsolutePath().normalize();
+        final Partial partial = null == listener ? null : new Partial( listener );
+        try {
+            return pool.invoke( new SizeTask( abs, partial, true ) );
+        } catch ( final UncheckedIOException uioe ) {
+            throw uioe.getCause();
+        }
+    }
+
+    /**
+     * Return the size of the last run without scanning.
+     *
+     * @param dir directory
+     * @return size or empty if never summed
+     * @throws NullPointerException if {@code dir} is null
+     */
+    public Optional<Size> getCached( final Path dir ) {
+        final Node node = cache.get( dir.toAbsolutePath().normalize() );
+        return null == node ? Optional.empty() : Optional.ofNullable( node.total() );
+    }
+
+    /**
+     * Forget the listings of a directory tree, so the next run lists it again.
+     *
+     * @param dir directory
+     * @throws NullPointerException if {@code dir} is null
+     */
+    public void invalidate( final Path dir ) {
+        final Path abs = dir.toAbsolutePath().normalize();
+        cache.keySet().removeIf( path -> path.startsWith( abs ) );
+    }
+
+    /**
+     * Forget all listings.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    private Node list( final Path dir, final long lastModified ) throws IOException {
+        final List<Path> subDirs = new ArrayList<>();
+        long bytes = 0L;
+        long files = 0L;
+        for ( final DirectoryScanner.FileEntry entry : DirectoryScanner.scan( dir ) ) {
+            if ( entry.link() ) {
+                continue;
+            }
+            if ( entry.dir() ) {
+                subDirs.add( entry.path() );
+            } else {
+                bytes += entry.size();
+                files++;
+            }
+        }
+        return new Node( lastModified, bytes, files, List.copyOf( subDirs ), null );
+    }
+
+    // drop cached subtrees of removed subdirectories
+    private void prune( final Node old, final Node now ) {
+        if ( null == old ) {
+            return;
+        }
+        final Set<Path> kept = new HashSet<>( now.subDirs() );
+        for ( final Path sub : old.subDirs() ) {
+            if ( !kept.contains( sub ) ) {
+                invalidate( sub );
+            }
+        }
+    }
+
+    /**
+     * Size of a directory tree.
+     *
+     * @param bytes bytes of all files
+     * @param files number of files
+     * @param dirs  number of directories, without the root
+     */
+    public record Size( long bytes, long files, long dirs ) {
+
+        /**
+         * Format the bytes.
+         *
+         * @param si standard unit
+         * @return formatted size
+         * @see IOUtils#formatFileSize(long, boolean)
+         */
+        public String format( final boolean si ) {
+            return IOUtils.formatFileSize( bytes, si );
+        }
+    }
+
+    /**
+     * Cached listing of a single directory.
+     *
+     * @param lastModified last modified time of directory
+     * @param bytes        bytes of the files in the directory
+     * @param files        files in the directory
+     * @param subDirs      subdirectories
+     * @param total        size of the tree of the last run or {@code null}
+     */
+    private record Node( long lastModified, long bytes, long files, List<Path> subDirs, Size total ) {
+
+        Node withTotal( final Size size ) {
+            return new Node( lastModified, bytes, files, subDirs, size );
+        }
+    }
+
+    // running totals
+    private static final class Partial {
+
+        private final Consumer<? super Size> listener;
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder files = new LongAdder();
+        private final LongAdder dirs = new LongAdder();
+        private final AtomicLong last = new AtomicLong( System.nanoTime() );
+
+        Partial( final Consumer<? super Size> listener ) {
+            this.listener = listener;
+        }
+
+        void add( final long dirBytes, final long dirFiles ) {
+            bytes.add( dirBytes );
+            files.add( dirFiles );
+            dirs.increment();
+            final long now = System.nanoTime();
+            final long prev = last.get();
+            if ( REPORT_NANOS <= now - prev && last.compareAndSet( prev, now ) ) {
+                try {
+                    listener.accept( new Size( bytes.sum(), files.sum(), dirs.sum() - 1L ) );
+                } catch ( final RuntimeException re ) {
+                    LOG.warn( "Size listener failed", re );
+                }
+            }
+        }
+    }
+
+    // never serialized
+    @SuppressWarnings( "serial" )
+    private final class SizeTask extends RecursiveTask<Size> {
+
+        private final Path dir;
+        private final Partial partial;
+        private final boolean root;
+
+        SizeTask( final Path dir, final Partial partial, final boolean root ) {
+            this.dir = dir;
+            this.partial = partial;
+            this.root = root;
+        }
+
+        @Override
+        protected Size compute() {
+            final Node node;
+            try {
+                node = node();
+            } catch ( final IOException ioe ) {
+                if ( root ) {
+                    throw new UncheckedIOException( ioe );
+                }
+                LOG.debug( "Skip unreadable dir[='{}']", dir, ioe );
+                cache.remove( dir );
+                return new Size( 0L, 0L, 0L );
+            }
+            if ( null != partial ) {
+                partial.add( node.bytes(), node.files() );
+            }
+
+            final List<SizeTask> tasks = new ArrayList<>( node.subDirs().size() );
+            node.subDirs().forEach( sub -> tasks.add( new SizeTask( sub, partial, false ) ) );
+            invokeAll( tasks );
+
+            long bytes = node.bytes();
+            long files = node.files();
+            long dirs = node.subDirs().size();
+            for ( final SizeTask task : tasks ) {
+                final Size sub = task.join();
+                bytes += sub.bytes();
+                files += sub.files();
+                dirs += sub.dirs();
+            }
+            final Size size = new Size( bytes, files, dirs );
+            cache.computeIfPresent( dir, ( path, cached ) -> cached.lastModified() == node.lastModified() ? cached.withTotal( size ) : cached );
+            return size;
+        }
+
+        private Node node() throws IOException {
+            final BasicFileAttributes attr = Files.readAttributes( dir, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS );
+            if ( !attr.isDirectory() ) {
+                throw new IOException( "Path[='" + dir + "'] is not a dir" );
+            }
+            final long lastModified = attr.lastModifiedTime().toMillis();
+            final Node cached = cache.get( dir );
+            if ( null != cached && cached.lastModified() == lastModified ) {
+                return cached;
+            }
+            final Node now = list( dir, lastModified );
+            if ( null == cache.put( dir, now ) && maxEntries < cache.size() ) {
+                LOG.debug( "Directory cache exceeds {} entries, cleared", maxEntries );
+                cache.clear();
+                return now;
+            }
+            prune( cached, now );
+            return now;
+        }
+    }
+
+    private static final class Holder {
+        static final DirectorySizer DEFAULT = new DirectorySizer();
+    }
+}
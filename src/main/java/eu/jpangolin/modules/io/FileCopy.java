@@ -0,0 +1,411 @@
+/*
+ * Copyright (c) 2025 Tim Langhammer.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.jpangolin.modules.io;
+
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * File Copy.
+ * <p>
+ *     Copies files channel to channel with {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)},
+ *     so the kernel can copy without moving the bytes through the heap.
+ *     Files from the parallel threshold on are copied in contiguous chunks at the same time.
+ * </p>
+ * <p>
+ *     A copy is written to a temporary file beside the target which is moved over the target when complete,
+ *     so a failed or cancelled copy never leaves a partial target.
+ *     The last modified time and POSIX permissions are copied too.
+ * </p>
+ * <p>
+ *     A synchronous copy is cancelled by interrupting the copying thread,
+ *     an asynchronous copy by cancelling its future.
+ * </p>
+ *
+ * @author jTzipi
+ */
+public final class FileCopy {
+
+    /**
+     * Default size from which a file is copied in parallel chunks (1 GiB).
+     */
+    public static final long DEFAULT_PARALLEL_THRESHOLD = 1024L * 1024L * 1024L;
+
+    // Logger
+    private static final org.slf4j.Logger LOG = LoggerFactory.getLogger( FileCopy.class );
+    // bytes per transfer call and so per progress report
+    private static final long SLICE = 16L * 1024L * 1024L;
+    // chunk borders are aligned to this
+    private static final long ALIGN = 1024L * 1024L;
+
+    private final Executor exe;
+    private final int parallelism;
+    private final long parallelThreshold;
+
+    /**
+     * File Copy using virtual threads.
+     *
+     * @param parallelism       maximal number of chunks copied at the same time [1 .. ]
+     * @param parallelThreshold file size from which a file is copied in chunks [1 .. ]
+     * @throws IllegalArgumentException if {@code parallelism} &lt; 1 or {@code parallelThreshold} &lt; 1
+     */
+    public FileCopy( final int parallelism, final long parallelThreshold ) {
+        this( VirtualThreadHolder.EXE, parallelism, parallelThreshold );
+    }
+
+    /**
+     * File Copy.
+     *
+     * @param exe               executor running chunks and asynchronous copies
+     * @param parallelism       maximal number of chunks copied at the same time [1 .. ]
+     * @param parallelThreshold file size from which a file is copied in chunks [1 .. ]
+     * @throws NullPointerException     if {@code exe} is null
+     * @throws IllegalArgumentException if {@code parallelism} &lt; 1 or {@code parallelThreshold} &lt; 1
+     */
+    public FileCopy( final Executor exe, final int parallelism, final long parallelThreshold ) {
+        if ( 1 > parallelism ) {
+            throw new IllegalArgumentException( "parallelism[=" + parallelism + "] < 1" );
+        }
+        if ( 1L > parallelThreshold ) {
+            throw new IllegalArgumentException( "parallel threshold[=" + parallelThreshold + "] < 1" );
+        }
+        this.exe = Objects.requireNonNull( exe );
+        this.parallelism = parallelism;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Return the shared file copy.
+     * Copies files of {@linkplain #DEFAULT_PARALLEL_THRESHOLD} and more with up to four chunks.
+     *
+     * @return file copy
+     */
+    public static FileCopy getDefault() {
+        return DefaultHolder.DEFAULT;
+    }
+
+    /**
+     * Copy a file.
+     *
+     * @param src      source file
+     * @param target   target file
+     * @param replace  replace an existing target
+     * @param listener progress listener or {@code null}
+     * @return bytes copied
+     * @throws IOException                if failed or interrupted
+     * @throws FileAlreadyExistsException if {@code target} exists and not {@code replace}
+     * @throws IllegalArgumentException   if {@code src} is a dir
+     * @throws NullPointerException       if {@code src}|{@code target} is null
+     */
+    public long copy( final Path src, final Path target, final boolean replace, final Consumer<? super Progress> listener ) throws IOException {
+        final Thread caller = Thread.currentThread();
+        return copy( src, target, replace, listener, caller::isInterrupted );
+    }
+
+    /**
+     * Copy a file asynchronously.
+     * Cancelling the returned future stops the copy and removes the partial copy.
+     *
+     * @param src      source file
+     * @param target   target file
+     * @param replace  replace an existing target
+     * @param listener progress listener or {@code null}
+     * @return future of the bytes copied
+     * @throws NullPointerException if {@code src}|{@code target} is null
+     * @see #copy(Path, Path, boolean, Consumer)
+     */
+    public CompletableFuture<Long> copyAsync( final Path src, final Path target, final boolean replace, final Consumer<? super Progress> listener ) {
+        Objects.requireNonNull( src );
+        Objects.requireNonNull( target );
+        final CompletableFuture<Long> cf = new CompletableFuture<>();
+        exe.execute( () -> {
+            try {
+                cf.complete( copy( src, target, replace, listener, cf::isCancelled ) );
+            } catch ( final IOException | RuntimeException e ) {
+                cf.completeExceptionally( e );
+            }
+        } );
+        return cf;
+    }
+
+    /**
+     * Move a file.
+     * On the same file store the file is renamed, otherwise copied and deleted.
+     * Without {@code replace} the file is hard linked to the target before the source is deleted,
+     * so a target created meanwhile is never replaced.
+     *
+     * @param src      source file
+     * @param target   target file
+     * @param replace  replace an existing target
+     * @param listener progress listener or {@code null}
+     * @return bytes moved
+     * @throws IOException                if failed or interrupted
+     * @throws FileAlreadyExistsException if {@code target} exists and not {@code replace}
+     * @throws IllegalArgumentException   if {@code src} is a dir
+     * @throws NullPointerException       if {@code src}|{@code target} is null
+     */
+    public long move( final Path src, final Path target, final boolean replace, final Consumer<? super Progress> listener ) throws IOException {
+        final BasicFileAttributes attr = check( src, target, replace );
+        if ( replace ) {
+            try {
+                // atomic move ignores other options and replaces
+                Files.move( src, target, StandardCopyOption.ATOMIC_MOVE );
+            } catch ( final AtomicMoveNotSupportedException amnse ) {
+                return moveByCopy( src, target, true, listener );
+            }
+        } else if ( AtomicFiles.link( src, target ) ) {
+            // fails if the target was created since the check
+            Files.delete( src );
+        } else if ( Files.getFileStore( src ).equals( Files.getFileStore( target.toAbsolutePath().getParent() ) ) ) {
+            Files.move( src, target );
+        } else {
+            return moveByCopy( src, target, false, listener );
+        }
+        if ( null != listener ) {
+            new Reporter( src, target, attr.size(), listener ).add( attr.size() );
+        }
+        return attr.size();
+    }
+
+    private long moveByCopy( final Path src, final Path target, final boolean replace, final Consumer<? super Progress> listener ) throws IOException {
+        LOG.debug( "Move '{}' by copy", src );
+        final long bytes = copy( src, target, replace, listener );
+        Files.delete( src );
+        return bytes;
+    }
+
+    /**
+     * Return the maximal number of chunks copied at the same time.
+     *
+     * @return parallelism
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Return the file size from which a file is copied in chunks.
+     *
+     * @return threshold in bytes
+     */
+    public long getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    private long copy( final Path src, final Path target, final boolean replace, final Consumer<? super Progress> listener,
+                       final BooleanSupplier cancelled ) throws IOException {
+        final BasicFileAttributes attr = check( src, target, replace );
+        final Path abs = target.toAbsolutePath();
+        final long size = attr.size();
+        final Reporter reporter = null == listener ? null : new Reporter( src, target, size, listener );
+
+        final Path tmp = AtomicFiles.createTemp( abs );
+        try {
+            if ( 1 < parallelism && parallelThreshold <= size ) {
+                copyChunks( src, tmp, size, reporter, cancelled );
+            } else {
+                copyRange( src, tmp, 0L, size, reporter, cancelled );
+            }
+            Files.setLastModifiedTime( tmp, attr.lastModifiedTime() );
+            AtomicFiles.copyPermissions( src, tmp );
+            if ( replace ) {
+                AtomicFiles.move( tmp, abs );
+            } else {
+                AtomicFiles.moveNew( tmp, abs );
+            }
+        } catch ( final IOException | RuntimeException e ) {
+            Files.deleteIfExists( tmp );
+            throw e;
+        }
+        return size;
+    }
+
+    private void copyChunks( final Path src, final Path dst, final long size, final Reporter reporter,
+                             final BooleanSupplier cancelled ) throws IOException {
+        final int chunks = ( int ) Math.min( parallelism, ( size + ALIGN - 1L ) / ALIGN );
+        if ( 2 > chunks ) {
+            copyRange( src, dst, 0L, size, reporter, cancelled );
+            return;
+        }
+        final long chunkSize = ( size / chunks + ALIGN - 1L ) / ALIGN * ALIGN;
+        // first failure stops the other chunks
+        final AtomicBoolean failed = new AtomicBoolean();
+        final BooleanSupplier stop = () -> failed.get() || cancelled.getAsBoolean();
+
+        final List<CompletableFuture<Void>> others = new ArrayList<>( chunks - 1 );
+        for ( long pos = chunkSize; pos < size; pos += chunkSize ) {
+            final long from = pos;
+            final long to = Math.min( size, pos + chunkSize );
+            others.add( CompletableFuture.runAsync( () -> {
+                try {
+                    copyRange( src, dst, from, to, reporter, stop );
+                } catch ( final IOException ioe ) {
+                    failed.set( true );
+                    throw new CompletionException( ioe );
+                } catch ( final RuntimeException re ) {
+                    failed.set( true );
+                    throw re;
+                }
+            }, exe ) );
+        }
+        // first chunk on this thread
+        try {
+            copyRange( src, dst, 0L, Math.min( size, chunkSize ), reporter, stop );
+        } catch ( final IOException | RuntimeException e ) {
+            failed.set( true );
+            // wait for the others to stop before the temporary file is deleted
+            CompletableFuture.allOf( others.toArray( CompletableFuture[]::new ) ).exceptionally( t -> null ).join();
+            throw e;
+        }
+        try {
+            CompletableFuture.allOf( others.toArray( CompletableFuture[]::new ) ).join();
+        } catch ( final CompletionException ce ) {
+            if ( ce.getCause() instanceof IOException ioe ) {
+                throw new IOException( ioe.getMessage(), ioe );
+            }
+            throw ce;
+        }
+    }
+
+    private static void copyRange( final Path src, final Path dst, final long from, final long to, final Reporter reporter,
+                                   final BooleanSupplier cancelled ) throws IOException {
+        try ( FileChannel in = FileChannel.open( src, StandardOpenOption.READ );
+              FileChannel out = FileChannel.open( dst, StandardOpenOption.WRITE ) ) {
+            out.position( from );
+            long pos = from;
+            while ( pos < to ) {
+                if ( cancelled.getAsBoolean() ) {
+                    throw new InterruptedIOException( "Copy of '" + src + "' cancelled" );
+                }
+                final long n = in.transferTo( pos, Math.min( SLICE, to - pos ), out );
+                if ( 0L >= n ) {
+                    throw new IOException( "Source[='" + src + "'] truncated while copying" );
+                }
+                pos += n;
+                if ( null != reporter ) {
+                    reporter.add( n );
+                }
+            }
+        }
+    }
+
+    private static BasicFileAttributes check( final Path src, final Path target, final boolean replace ) throws IOException {
+        Objects.requireNonNull( src );
+        Objects.requireNonNull( target );
+        final BasicFileAttributes attr = Files.readAttributes( src, BasicFileAttributes.class );
+        if ( attr.isDirectory() ) {
+            throw new IllegalArgumentException( "You try to copy dir[='" + src + "']" );
+        }
+        if ( Files.exists( target, LinkOption.NOFOLLOW_LINKS ) ) {
+            if ( !replace ) {
+                throw new FileAlreadyExistsException( target.toString() );
+            }
+            if ( Files.isSameFile( src, target ) ) {
+                throw new IOException( "Source and target[='" + target + "'] are the same file" );
+            }
+        }
+        return attr;
+    }
+
+    /**
+     * Progress of a copy.
+     *
+     * @param source      source
+     * @param target      target
+     * @param bytesCopied bytes copied so far
+     * @param totalBytes  size of source
+     */
+    public record Progress( Path source, Path target, long bytesCopied, long totalBytes ) {
+
+        /**
+         * Return the copied fraction.
+         *
+         * @return fraction [0 .. 1]
+         */
+        public double fraction() {
+            return 0L == totalBytes ? 1D : ( double ) bytesCopied / totalBytes;
+        }
+
+        /**
+         * Format like {@code "1.5 GiB / 4.0 GiB"}.
+         *
+         * @param si standard unit
+         * @return formatted progress
+         * @see IOUtils#formatFileSize(long, boolean)
+         */
+        public String format( final boolean si ) {
+            final StringBuilder sb = new StringBuilder( 32 );
+            IOUtils.appendFileSize( bytesCopied, si, sb ).append( " / " );
+            return IOUtils.appendFileSize( totalBytes, si, sb ).toString();
+        }
+    }
+
+    // reports in order, also from parallel chunks
+    private static final class Reporter {
+
+        private final Path src;
+        private final Path target;
+        private final long total;
+        private final Consumer<? super Progress> listener;
+        private long copied;
+
+        Reporter( final Path src, final Path target, final long total, final Consumer<? super Progress> listener ) {
+            this.src = src;
+            this.target = target;
+            this.total = total;
+            this.listener = listener;
+        }
+
+        synchronized void add( final long bytes ) {
+            copied += bytes;
+            try {
+                listener.accept( new Progress( src, target, copied, total ) );
+            } catch ( final RuntimeException re ) {
+                LOG.warn( "Progress listener failed for '{}'", src, re );
+            }
+        }
+    }
+
+    private static final class VirtualThreadHolder {
+        static final ExecutorService EXE = Executors.newThreadPerTaskExecutor( Thread.ofVirtual().name( "pango-copy-", 0L ).factory() );
+    }
+
+    private static final class DefaultHolder {
+        static final FileCopy DEFAULT = new FileCopy( 4, DEFAULT_PARALLEL_THRESHOLD );
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2025 Tim Langhammer.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.jpangolin.modules.io;
+
+import java.io.IOException;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * File Size Format.
+ * <p>
+ *     Formats a byte count like {@code "1.5 KiB"} or {@code "1.5 kB"} with integer arithmetic only.
+ *     The unit is found by bit length (binary) or a threshold table (SI) and the fraction is rounded half up.
+ *     Units reach up to exa bytes, so every {@code long} is supported.
+ * </p>
+ * <p>
+ *     The {@code append} methods write directly into the target without intermediate objects.
+ *     The default format matches the former {@code String.format("%.1f %sB")} output, except for values just
+ *     below a unit border which the floating point logarithm put into the next unit.
+ * </p>
+ * <p>
+ *     Instances are immutable and thread safe.
+ * </p>
+ *
+ * @author jTzipi
+ */
+public final class FileSizeFormat {
+
+    /**
+     * Maximal precision.
+     */
+    public static final int MAX_PRECISION = 9;
+
+    private static final char[] SI_UNITS = { 'k', 'M', 'G', 'T', 'P', 'E' };
+    private static final char[] BIN_UNITS = { 'K', 'M', 'G', 'T', 'P', 'E' };
+    // 1000^1 .. 1000^6
+    private static final long[] SI_DIVISORS = {
+            1_000L,
+            1_000_000L,
+            1_000_000_000L,
+            1_000_000_000_000L,
+            1_000_000_000_000_000L,
+            1_000_000_000_000_000_000L };
+    private static final long[] POW10 = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L };
+
+    // cached format for the default locale
+    private static volatile FileSizeFormat defaultFormat;
+
+    private final int precision;
+    private final Locale locale;
+    private final char decimalSeparator;
+    private final int zeroDigit;
+
+    /**
+     * File Size Format.
+     *
+     * @param precision number of fraction digits [0 .. {@linkplain #MAX_PRECISION}]
+     * @param locale    locale for decimal separator and digits
+     * @throws IllegalArgumentException if {@code precision} is out of range
+     * @throws NullPointerException     if {@code locale} is null
+     */
+    public FileSizeFormat( final int precision, final Locale locale ) {
+        if ( 0 > precision || MAX_PRECISION < precision ) {
+            throw new IllegalArgumentException( "precision[=" + precision + "] not in [0 .. " + MAX_PRECISION + "]" );
+        }
+        this.precision = precision;
+        this.locale = Objects.requireNonNull( locale );
+        final DecimalFormatSymbols dfs = DecimalFormatSymbols.getInstance( locale );
+        this.decimalSeparator = dfs.getDecimalSeparator();
+        this.zeroDigit = dfs.getZeroDigit();
+    }
+
+    /**
+     * Return the format with one fraction digit for the default format locale.
+     *
+     * @return default format
+     */
+    public static FileSizeFormat getDefault() {
+        final Locale loc = Locale.getDefault( Locale.Category.FORMAT );
+        FileSizeFormat fmt = defaultFormat;
+        if ( null == fmt || !fmt.locale.equals( loc ) ) {
+            fmt = new FileSizeFormat( 1, loc );
+            defaultFormat = fmt;
+        }
+        return fmt;
+    }
+
+    /**
+     * Format bytes.
+     *
+     * @param bytes byte count, &lt;= 0 is formatted as {@code "0 B"}
+     * @param si    standard unit (1000) or binary unit (1024)
+     * @return formatted file size
+     */
+    public String format( final long bytes, final boolean si ) {
+        return append( bytes, si, new StringBuilder( 16 ) ).toString();
+    }
+
+    /**
+     * Append formatted bytes.
+     *
+     * @param bytes byte count, &lt;= 0 is formatted as {@code "0 B"}
+     * @param si    standard unit (1000) or binary unit (1024)
+     * @param sb    target
+     * @return {@code sb}
+     * @throws NullPointerException if {@code sb} is null
+     */
+    public StringBuilder append( final long bytes, final boolean si, final StringBuilder sb ) {
+        try {
+            appendTo( bytes, si, sb );
+        } catch ( final IOException ioe ) {
+            // StringBuilder does not throw
+            throw new AssertionError( ioe );
+        }
+        return sb;
+    }
+
+    /**
+     * Append formatted bytes.
+     *
+     * @param bytes byte count, &lt;= 0 is formatted as {@code "0 B"}
+     * @param si    standard unit (1000) or binary unit (1024)
+     * @param out   target
+     * @param <A>   type of target
+     * @return {@code out}
+     * @throws IOException          if {@code out} failed
+     * @throws NullPointerException if {@code out} is null
+     */
+    public <A extends Appendable> A append( final long bytes, final boolean si, final A out ) throws IOException {
+        appendTo( bytes, si, out );
+        return out;
+    }
+
+    /**
+     * Return precision.
+     *
+     * @return number of fraction digits
+     */
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Return locale.
+     *
+     * @return locale
+     */
+    public Locale getLocale() {
+        return locale;
+    }
+
+    private void appendTo( final long bytes, final boolean si, final Appendable out ) throws IOException {
+        Objects.requireNonNull( out );
+        if ( 0L >= bytes ) {
+            out.append( "0 B" );
+            return;
+        }
+        if ( ( si ? 1000L : 1024L ) > bytes ) {
+            appendAscii( bytes, out );
+            out.append( " B" );
+            return;
+        }
+
+        final int exp = si ? siExponent( bytes ) : ( 63 - Long.numberOfLeadingZeros( bytes ) ) / 10;
+        long div = si ? SI_DIVISORS[exp - 1] : 1L << ( 10 * exp );
+        long whole = bytes / div;
+        long rem = bytes % div;
+
+        // keep rem * 10 in range
+        if ( div > Long.MAX_VALUE / 10L ) {
+            final long unit = si ? 1000L : 1024L;
+            rem /= unit;
+            div /= unit;
+        }
+        long frac = 0L;
+        for ( int i = 0; i < precision; i++ ) {
+            rem *= 10L;
+            frac = frac * 10L + rem / div;
+            rem %= div;
+        }
+        // half up
+        if ( rem >= div - rem ) {
+            frac++;
+            if ( POW10[precision] == frac ) {
+                frac = 0L;
+                whole++;
+            }
+        }
+
+        appendDigits( whole, 1, out );
+        if ( 0 < precision ) {
+            out.append( decimalSeparator );
+            appendDigits( frac, precision, out );
+        }
+        out.append( ' ' );
+        out.append( si ? SI_UNITS[exp - 1] : BIN_UNITS[exp - 1] );
+        if ( !si ) {
+            out.append( 'i' );
+        }
+        out.append( 'B' );
+    }
+
+    private static int siExponent( final long bytes ) {
+        int exp = SI_DIVISORS.length;
+        while ( SI_DIVISORS[exp - 1] > bytes ) {
+            exp--;
+        }
+        return exp;
+    }
+
+    // localized digits, at least minDigits
+    private void appendDigits( final long value, final int minDigits, final Appendable out ) throws IOException {
+        int digits = 1;
+        long pow = 1L;
+        while ( digits < 19 && pow * 10L <= value ) {
+            pow *= 10L;
+            digits++;
+        }
+        for ( int i = digits; i < minDigits; i++ ) {
+            out.append( ( char ) zeroDigit );
+        }
+        long rest = value;
+        while ( 0L < pow ) {
+            out.append( ( char ) ( zeroDigit + rest / pow ) );
+            rest %= pow;
+            pow /= 10L;
+        }
+    }
+
+    // value < 1024
+    private static void appendAscii( final long value, final Appendable out ) throws IOException {
+        if ( 1000L <= value ) {
+            out.append( ( char ) ( '0' + value / 1000L ) );
+        }
+        if ( 100L <= value ) {
+            out.append( ( char ) ( '0' + value / 100L % 10L ) );
+        }
+        if ( 10L <= value ) {
+            out.append( ( char ) ( '0' + value / 10L % 10L ) );
+        }
+        out.append( ( char ) ( '0' + value % 10L ) );
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2025 Tim Langhammer.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.jpangolin.modules.io;
+
+import org.slf4j.LoggerFactory;
+
+import javax.swing.filechooser.FileSystemView;
+import java.io.IOException;
+import java.nio.file.FileStore;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * File System Roots.
+ * <p>
+ *     Drive and root detection with NIO. The root directories of the default file system and their
+ *     file stores are read once and cached until {@link #refresh()}.
+ * </p>
+ * <p>
+ *     The Swing {@link FileSystemView} is only created, lazily, for platforms NIO can not answer.
+ * </p>
+ *
+ * @author jTzipi
+ */
+final class FileSystemRoots {
+
+    // Logger
+    private static final org.slf4j.Logger LOG = LoggerFactory.getLogger( FileSystemRoots.class );
+
+    private static volatile Table table;
+
+    private FileSystemRoots() {
+        throw new AssertionError( "--__--" );
+    }
+
+    /**
+     * Is the path a root directory of its file system.
+     *
+     * @param path path
+     * @return {@code true} if root
+     */
+    static boolean isRoot( final Path path ) {
+        if ( !isDefault( path ) ) {
+            return isForeignRoot( path );
+        }
+        if ( OS.OTHER == OS.getSystemOS() ) {
+            return FsvHolder.FSV.isFileSystemRoot( path.toFile() );
+        }
+        return table().roots().contains( normalize( path ) );
+    }
+
+    /**
+     * Is the path a drive.
+     * Only Windows knows drives.
+     *
+     * @param path path
+     * @return {@code true} if drive
+     */
+    static boolean isDrive( final Path path ) {
+        if ( !isDefault( path ) ) {
+            return false;
+        }
+        return switch ( OS.getSystemOS() ) {
+            case WINDOWS, DOS -> table().roots().contains( normalize( path ) );
+            case OTHER -> FsvHolder.FSV.isDrive( path.toFile() );
+            default -> false;
+        };
+    }
+
+    /**
+     * Is the path a computer node of a network.
+     * Only Windows knows computer nodes.
+     *
+     * @param path path
+     * @return {@code true} if computer node
+     */
+    static boolean isComputerNode( final Path path ) {
+        if ( !isDefault( path ) ) {
+            return false;
+        }
+        return switch ( OS.getSystemOS() ) {
+            case LINUX, MAC, SOLARIS -> false;
+            default -> FsvHolder.FSV.isComputerNode( path.toFile() );
+        };
+    }
+
+    /**
+     * Return the file stores of all root directories.
+     * A root without a readable file store, like an empty card reader, maps to an empty optional.
+     * Each file store is looked up once.
+     *
+     * @return unmodifiable map of root to file store
+     */
+    static Map<Path, Optional<FileStore>> stores() {
+        final Table tab = table();
+        final Map<Path, Optional<FileStore>> stores = new LinkedHashMap<>();
+        for ( final Path root : tab.roots() ) {
+            stores.put( root, tab.stores().computeIfAbsent( root, FileSystemRoots::storeOf ) );
+        }
+        return Collections.unmodifiableMap( stores );
+    }
+
+    /**
+     * Read the root directories again.
+     */
+    static void refresh() {
+        table = null;
+    }
+
+    private static Table table() {
+        Table tab = table;
+        if ( null == tab ) {
+            tab = read();
+            table = tab;
+        }
+        return tab;
+    }
+
+    private static Table read() {
+        final Set<Path> roots = new LinkedHashSet<>();
+        for ( final Path root : FileSystems.getDefault().getRootDirectories() ) {
+            roots.add( normalize( root ) );
+        }
+        return new Table( Collections.unmodifiableSet( roots ), new ConcurrentHashMap<>() );
+    }
+
+    private static Optional<FileStore> storeOf( final Path root ) {
+        try {
+            return Optional.of( Files.getFileStore( root ) );
+        } catch ( final IOException ioe ) {
+            LOG.debug( "No file store for root[='{}']", root );
+            return Optional.empty();
+        }
+    }
+
+    private static boolean isDefault( final Path path ) {
+        return FileSystems.getDefault() == path.getFileSystem();
+    }
+
+    private static boolean isForeignRoot( final Path path ) {
+        final Path abs = normalize( path );
+        for ( final Path root : path.getFileSystem().getRootDirectories() ) {
+            if ( root.equals( abs ) ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Path normalize( final Path path ) {
+        return path.toAbsolutePath().normalize();
+    }
+
+    // file stores are looked up lazily since a removable drive may block
+    private record Table( Set<Path> roots, ConcurrentHashMap<Path, Optional<FileStore>> stores ) {
+    }
+
+    private static final class FsvHolder {
+        static final FileSystemView FSV = FileSystemView.getFileSystemView();
+    }
+}
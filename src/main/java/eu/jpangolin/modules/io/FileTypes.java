@@ -0,0 +1,588 @@
+/*
+ * Copyright (c) 2025 Tim Langhammer.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.jpangolin.modules.io;
+
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * File Types.
+ * <p>
+ *     Detects the type of a file from its content instead of its name.
+ *     At most {@value #HEADER_SIZE} bytes are read with a positioned channel read and matched against a table of magic numbers
+ *     for common image, font, archive and document formats. Only a tar archive needs a second read of five bytes
+ *     at offset {@value #TAR_MAGIC_OFFSET}. Files without magic number are classified as text or binary.
+ * </p>
+ * <p>
+ *     Short magic numbers of printable ASCII like {@code true} or {@code BZh} also start ordinary text.
+ *     They are confirmed by the structure following them, like the table directory of a font.
+ *     Without such a check a header which is text as a whole is classified as text.
+ * </p>
+ * <p>
+ *     Results are cached by absolute path together with last modified time and size,
+ *     so a changed file is read again.
+ *     The cache is bounded and drops the least recently used entries.
+ * </p>
+ *
+ * @author jTzipi
+ */
+public final class FileTypes {
+
+    /**
+     * Maximal number of header bytes read.
+     */
+    public static final int HEADER_SIZE = 64;
+    /**
+     * Default maximal number of cached entries.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 4096;
+
+    // Logger
+    private static final org.slf4j.Logger LOG = LoggerFactory.getLogger( FileTypes.class );
+    // 'ustar' of a POSIX tar header
+    private static final int TAR_MAGIC_OFFSET = 257;
+    private static final byte[] TAR_MAGIC = ascii( "ustar" );
+    // fonts have a few dozen tables
+    private static final int MAX_SFNT_TABLES = 128;
+    private static final int MAX_COLLECTION_FONTS = 1024;
+    // sfnt version of a font or collection in a WOFF container
+    private static final int SFNT_TRUETYPE = 0x00010000;
+    private static final int SFNT_TRUE = 0x74727565;
+    private static final int SFNT_OPENTYPE = 0x4F54544F;
+    private static final int SFNT_COLLECTION = 0x74746366;
+    // bzip2 block header and end of stream, the digits of pi and sqrt(pi)
+    private static final byte[] BZIP2_BLOCK = bytes( 0x31, 0x41, 0x59, 0x26, 0x53, 0x59 );
+    private static final byte[] BZIP2_END = bytes( 0x17, 0x72, 0x45, 0x38, 0x50, 0x90 );
+
+    // checked in order
+    private static final List<Magic> MAGICS = List.of(
+            Magic.of( FileType.PNG, bytes( 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A ) ),
+            Magic.of( FileType.JPEG, bytes( 0xFF, 0xD8, 0xFF ) ),
+            Magic.of( FileType.GIF, ascii( "GIF87a" ) ),
+            Magic.of( FileType.GIF, ascii( "GIF89a" ) ),
+            Magic.of( FileType.WEBP, ascii( "RIFF" ), 8, ascii( "WEBP" ) ),
+            Magic.of( FileType.TIFF, bytes( 'I', 'I', 0x2A, 0x00 ) ),
+            Magic.of( FileType.TIFF, bytes( 'M', 'M', 0x00, 0x2A ) ),
+            // reserved fields are zero
+            Magic.of( FileType.BMP, ascii( "BM" ), 6, bytes( 0, 0, 0, 0 ) ),
+            Magic.of( FileType.ICO, bytes( 0x00, 0x00, 0x01, 0x00 ) ),
+            Magic.of( FileType.TRUETYPE, bytes( 0x00, 0x01, 0x00, 0x00 ), FileTypes::isSfnt ),
+            Magic.of( FileType.TRUETYPE, ascii( "true" ), FileTypes::isSfnt ),
+            Magic.of( FileType.OPENTYPE, ascii( "OTTO" ), FileTypes::isSfnt ),
+            Magic.of( FileType.TRUETYPE_COLLECTION, ascii( "ttcf" ), FileTypes::isCollection ),
+            Magic.of( FileType.WOFF, ascii( "wOFF" ), FileTypes::isWoff ),
+            Magic.of( FileType.WOFF2, ascii( "wOF2" ), FileTypes::isWoff ),
+            Magic.of( FileType.ZIP, bytes( 'P', 'K', 0x03, 0x04 ) ),
+            Magic.of( FileType.ZIP, bytes( 'P', 'K', 0x05, 0x06 ) ),
+            Magic.of( FileType.GZIP, bytes( 0x1F, 0x8B ) ),
+            Magic.of( FileType.BZIP2, ascii( "BZh" ), FileTypes::isBzip2 ),
+            Magic.of( FileType.XZ, bytes( 0xFD, '7', 'z', 'X', 'Z', 0x00 ) ),
+            Magic.of( FileType.SEVEN_ZIP, bytes( '7', 'z', 0xBC, 0xAF, 0x27, 0x1C ) ),
+            Magic.of( FileType.PDF, ascii( "%PDF-" ), FileTypes::isPdf ),
+            Magic.of( FileType.TEXT, bytes( 0xEF, 0xBB, 0xBF ) ),
+            Magic.of( FileType.TEXT, bytes( 0xFE, 0xFF ) ),
+            Magic.of( FileType.TEXT, bytes( 0xFF, 0xFE ) ) );
+
+    private final int maxEntries;
+    // access ordered, guarded by itself
+    private final LinkedHashMap<Path, Entry> cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * File Types.
+     *
+     * @param maxEntries maximal number of cached entries [0 .. ]
+     * @throws IllegalArgumentException if {@code maxEntries} &lt; 0
+     */
+    public FileTypes( final int maxEntries ) {
+        if ( 0 > maxEntries ) {
+            throw new IllegalArgumentException( "max entries[=" + maxEntries + "] < 0" );
+        }
+        this.maxEntries = maxEntries;
+        this.cache = new LinkedHashMap<>( 64, 0.75F, true ) {
+            @Override
+            protected boolean removeEldestEntry( final Map.Entry<Path, Entry> eldest ) {
+                return size() > FileTypes.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Return the shared file types with {@linkplain #DEFAULT_MAX_ENTRIES}.
+     *
+     * @return file types
+     */
+    public static FileTypes getDefault() {
+        return Holder.DEFAULT;
+    }
+
+    /**
+     * Detect the type of a file.
+     *
+     * @param path path to file
+     * @return file type
+     * @throws IOException              if {@code path} is not readable
+     * @throws IllegalArgumentException if {@code path} is dir
+     * @throws NullPointerException     if {@code path} is null
+     */
+    public FileType detect( final Path path ) throws IOException {
+        Objects.requireNonNull( path );
+        final Path abs = path.toAbsolutePath().normalize();
+        final BasicFileAttributes attr = Files.readAttributes( abs, BasicFileAttributes.class );
+        if ( attr.isDirectory() ) {
+            throw new IllegalArgumentException( "Path[='" + path + "'] is a dir" );
+        }
+        return detect( abs, attr.lastModifiedTime().toMillis(), attr.size() );
+    }
+
+    /**
+     * Detect the type of all files of a directory.
+     * The attributes are read once by {@link DirectoryScanner} and uncached files are read in parallel
+     * by the {@linkplain BatchLoader#getDefault() default batch loader}.
+     * Subdirectories and unreadable files are not part of the result.
+     *
+     * @param dir directory
+     * @return unmodifiable map of file to type in directory order
+     * @throws IOException          if {@code dir} is not a readable directory
+     * @throws NullPointerException if {@code dir} is null
+     */
+    public Map<Path, FileType> detectAll( final Path dir ) throws IOException {
+        Objects.requireNonNull( dir );
+        final List<DirectoryScanner.FileEntry> files = new ArrayList<>();
+        for ( final DirectoryScanner.FileEntry entry : DirectoryScanner.scan( dir.toAbsolutePath().normalize() ) ) {
+            if ( !entry.dir() ) {
+                files.add( entry );
+            }
+        }
+
+        final Map<Path, FileType> types = new LinkedHashMap<>();
+        final Map<Path, DirectoryScanner.FileEntry> missing = new LinkedHashMap<>();
+        for ( final DirectoryScanner.FileEntry entry : files ) {
+            final FileType type = lookup( entry.path(), entry.lastModified(), entry.size() );
+            // keep directory order
+            types.put( entry.path(), type );
+            if ( null == type ) {
+                missing.put( entry.path(), entry );
+            }
+        }
+        if ( !missing.isEmpty() ) {
+            final List<CompletableFuture<BatchLoader.Result<FileType>>> futures = BatchLoader.getDefault().submit( missing.keySet(), path -> {
+                final DirectoryScanner.FileEntry entry = missing.get( path );
+                return detect( path, entry.lastModified(), entry.size() );
+            } );
+            for ( final CompletableFuture<BatchLoader.Result<FileType>> future : futures ) {
+                final BatchLoader.Result<FileType> result = future.join();
+                if ( result.isSuccess() ) {
+                    types.put( result.path(), result.value() );
+                } else {
+                    LOG.debug( "Skip unreadable file[='{}']", result.path(), result.error() );
+                    types.remove( result.path() );
+                }
+            }
+        }
+        return Collections.unmodifiableMap( types );
+    }
+
+    /**
+     * Detect the type from the first bytes of a file.
+     *
+     * @param header header bytes
+     * @param length number of valid bytes in {@code header}
+     * @return file type, never {@linkplain FileType#TAR} since its magic number is beyond the header
+     * @throws NullPointerException      if {@code header} is null
+     * @throws IndexOutOfBoundsException if {@code length} is not in [0 .. header.length]
+     */
+    public static FileType of( final byte[] header, final int length ) {
+        Objects.checkFromIndexSize( 0, length, header.length );
+        if ( 0 == length ) {
+            return FileType.EMPTY;
+        }
+        final FileType type = matchMagic( header, length );
+        if ( null != type ) {
+            return type;
+        }
+        return isText( header, length ) ? FileType.TEXT : FileType.BINARY;
+    }
+
+    /**
+     * Remove the entry of a file.
+     *
+     * @param path path to file
+     * @throws NullPointerException if {@code path} is null
+     */
+    public void invalidate( final Path path ) {
+        final Path abs = Objects.requireNonNull( path ).toAbsolutePath().normalize();
+        synchronized ( cache ) {
+            cache.remove( abs );
+        }
+    }
+
+    /**
+     * Remove all entries.
+     */
+    public void clear() {
+        synchronized ( cache ) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Return number of cached entries.
+     *
+     * @return entries
+     */
+    public int size() {
+        synchronized ( cache ) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * Return number of detections answered from the cache.
+     *
+     * @return hits
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Return number of detections which read the file.
+     *
+     * @return misses
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    private FileType detect( final Path abs, final long lastModified, final long size ) throws IOException {
+        FileType type = lookup( abs, lastModified, size );
+        if ( null == type ) {
+            type = sniff( abs, size );
+            synchronized ( cache ) {
+                cache.put( abs, new Entry( lastModified, size, type ) );
+            }
+        }
+        return type;
+    }
+
+    private FileType lookup( final Path abs, final long lastModified, final long size ) {
+        final Entry entry;
+        synchronized ( cache ) {
+            entry = cache.get( abs );
+        }
+        if ( null != entry && entry.lastModified() == lastModified && entry.size() == size ) {
+            hits.increment();
+            return entry.type();
+        }
+        return null;
+    }
+
+    private FileType sniff( final Path abs, final long size ) throws IOException {
+        misses.increment();
+        if ( 0L == size ) {
+            return FileType.EMPTY;
+        }
+        try ( FileChannel fc = FileChannel.open( abs, StandardOpenOption.READ ) ) {
+            final byte[] header = new byte[( int ) Math.min( HEADER_SIZE, size )];
+            final int len = read( fc, header, 0L );
+            final FileType type = of( header, len );
+            if ( FileType.BINARY == type && TAR_MAGIC_OFFSET + TAR_MAGIC.length <= size ) {
+                final byte[] magic = new byte[TAR_MAGIC.length];
+                if ( magic.length == read( fc, magic, TAR_MAGIC_OFFSET ) && matches( magic, magic.length, 0, TAR_MAGIC ) ) {
+                    return FileType.TAR;
+                }
+            }
+            return type;
+        }
+    }
+
+    // positioned read until full or end of file
+    private static int read( final FileChannel fc, final byte[] dst, final long pos ) throws IOException {
+        final ByteBuffer buf = ByteBuffer.wrap( dst );
+        while ( buf.hasRemaining() ) {
+            if ( 0 > fc.read( buf, pos + buf.position() ) ) {
+                break;
+            }
+        }
+        return buf.position();
+    }
+
+    private static FileType matchMagic( final byte[] header, final int length ) {
+        for ( final Magic magic : MAGICS ) {
+            if ( magic.matches( header, length ) ) {
+                return magic.type();
+            }
+        }
+        return null;
+    }
+
+    private static boolean matches( final byte[] header, final int length, final int offset, final byte[] pattern ) {
+        if ( offset + pattern.length > length ) {
+            return false;
+        }
+        for ( int i = 0; i < pattern.length; i++ ) {
+            if ( header[offset + i] != pattern[i] ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // table directory: table count and the binary search range derived from it
+    private static boolean isSfnt( final byte[] header, final int length ) {
+        if ( 12 > length ) {
+            return false;
+        }
+        final int numTables = u16( header, 4 );
+        return 0 < numTables && MAX_SFNT_TABLES >= numTables && u16( header, 6 ) == 16 * Integer.highestOneBit( numTables );
+    }
+
+    // version 1.0 or 2.0 and font count
+    private static boolean isCollection( final byte[] header, final int length ) {
+        if ( 12 > length ) {
+            return false;
+        }
+        final int major = u16( header, 4 );
+        final long numFonts = u32( header, 8 );
+        return ( 1 == major || 2 == major ) && 0 == u16( header, 6 ) && 0L < numFonts && MAX_COLLECTION_FONTS >= numFonts;
+    }
+
+    // sfnt version of the wrapped font
+    private static boolean isWoff( final byte[] header, final int length ) {
+        if ( 8 > length ) {
+            return false;
+        }
+        final long flavor = u32( header, 4 );
+        return SFNT_TRUETYPE == flavor || SFNT_OPENTYPE == flavor || SFNT_TRUE == flavor || SFNT_COLLECTION == flavor;
+    }
+
+    // block size '1' .. '9' and a block or the end of stream
+    private static boolean isBzip2( final byte[] header, final int length ) {
+        return 10 <= length && '1' <= header[3] && '9' >= header[3]
+                && ( matches( header, length, 4, BZIP2_BLOCK ) || matches( header, length, 4, BZIP2_END ) );
+    }
+
+    // version 'd.d'
+    private static boolean isPdf( final byte[] header, final int length ) {
+        return 8 <= length && isDigit( header[5] ) && '.' == header[6] && isDigit( header[7] );
+    }
+
+    private static boolean isDigit( final byte b ) {
+        return '0' <= b && '9' >= b;
+    }
+
+    private static int u16( final byte[] header, final int offset ) {
+        return ( header[offset] & 0xFF ) << 8 | header[offset + 1] & 0xFF;
+    }
+
+    private static long u32( final byte[] header, final int offset ) {
+        return ( long ) u16( header, offset ) << 16 | u16( header, offset + 2 );
+    }
+
+    private static boolean isPrintable( final byte[] pattern ) {
+        for ( final byte b : pattern ) {
+            if ( 0x20 > b || 0x7F == b ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // no NUL, no control chars except whitespace and ESC, well-formed UTF-8 but maybe cut at the end
+    private static boolean isText( final byte[] header, final int length ) {
+        int i = 0;
+        while ( i < length ) {
+            final int b = header[i] & 0xFF;
+            if ( 0x80 > b ) {
+                if ( 0x20 > b && '\t' != b && '\n' != b && '\r' != b && '\f' != b && 0x1B != b || 0x7F == b ) {
+                    return false;
+                }
+                i++;
+                continue;
+            }
+            final int follow;
+            if ( 0xC2 <= b && 0xDF >= b ) {
+                follow = 1;
+            } else if ( 0xE0 <= b && 0xEF >= b ) {
+                follow = 2;
+            } else if ( 0xF0 <= b && 0xF4 >= b ) {
+                follow = 3;
+            } else {
+                return false;
+            }
+            for ( int k = 1; k <= follow && i + k < length; k++ ) {
+                if ( 0x80 != ( header[i + k] & 0xC0 ) ) {
+                    return false;
+                }
+            }
+            i += follow + 1;
+        }
+        return true;
+    }
+
+    private static byte[] bytes( final int... values ) {
+        final byte[] b = new byte[values.length];
+        for ( int i = 0; i < values.length; i++ ) {
+            b[i] = ( byte ) values[i];
+        }
+        return b;
+    }
+
+    private static byte[] ascii( final String str ) {
+        return str.getBytes( StandardCharsets.US_ASCII );
+    }
+
+    /**
+     * Kind of file.
+     */
+    public enum Kind {
+        /** Image. */
+        IMAGE,
+        /** Font. */
+        FONT,
+        /** Archive or compressed file. */
+        ARCHIVE,
+        /** Document. */
+        DOCUMENT,
+        /** Text. */
+        TEXT,
+        /** Unknown binary. */
+        BINARY,
+        /** Empty file. */
+        EMPTY
+    }
+
+    /**
+     * Type of file.
+     */
+    public enum FileType {
+        PNG( Kind.IMAGE, "image/png" ),
+        JPEG( Kind.IMAGE, "image/jpeg" ),
+        GIF( Kind.IMAGE, "image/gif" ),
+        WEBP( Kind.IMAGE, "image/webp" ),
+        TIFF( Kind.IMAGE, "image/tiff" ),
+        BMP( Kind.IMAGE, "image/bmp" ),
+        ICO( Kind.IMAGE, "image/vnd.microsoft.icon" ),
+        TRUETYPE( Kind.FONT, "font/ttf" ),
+        OPENTYPE( Kind.FONT, "font/otf" ),
+        TRUETYPE_COLLECTION( Kind.FONT, "font/collection" ),
+        WOFF( Kind.FONT, "font/woff" ),
+        WOFF2( Kind.FONT, "font/woff2" ),
+        ZIP( Kind.ARCHIVE, "application/zip" ),
+        GZIP( Kind.ARCHIVE, "application/gzip" ),
+        BZIP2( Kind.ARCHIVE, "application/x-bzip2" ),
+        XZ( Kind.ARCHIVE, "application/x-xz" ),
+        SEVEN_ZIP( Kind.ARCHIVE, "application/x-7z-compressed" ),
+        TAR( Kind.ARCHIVE, "application/x-tar" ),
+        PDF( Kind.DOCUMENT, "application/pdf" ),
+        TEXT( Kind.TEXT, "text/plain" ),
+        BINARY( Kind.BINARY, "application/octet-stream" ),
+        EMPTY( Kind.EMPTY, "application/octet-stream" );
+
+        private final Kind kind;
+        private final String mimeType;
+
+        FileType( final Kind kind, final String mimeType ) {
+            this.kind = kind;
+            this.mimeType = mimeType;
+        }
+
+        /**
+         * Return kind.
+         *
+         * @return kind
+         */
+        public Kind getKind() {
+            return kind;
+        }
+
+        /**
+         * Return MIME type.
+         *
+         * @return MIME type
+         */
+        public String getMimeType() {
+            return mimeType;
+        }
+    }
+
+    /**
+     * Check of the structure following a magic number.
+     */
+    @FunctionalInterface
+    private interface Check {
+        boolean test( byte[] header, int length );
+    }
+
+    /**
+     * Magic number, optionally with a second pattern and a check of the structure.
+     *
+     * @param type     type
+     * @param pattern  pattern at offset 0
+     * @param offset2  offset of second pattern
+     * @param pattern2 second pattern or empty
+     * @param check    check of the structure or {@code null}. Without check a printable pattern must not start text.
+     */
+    private record Magic( FileType type, byte[] pattern, int offset2, byte[] pattern2, Check check ) {
+
+        static Magic of( final FileType type, final byte[] pattern ) {
+            return new Magic( type, pattern, 0, new byte[0], null );
+        }
+
+        static Magic of( final FileType type, final byte[] pattern, final Check check ) {
+            return new Magic( type, pattern, 0, new byte[0], check );
+        }
+
+        static Magic of( final FileType type, final byte[] pattern, final int offset2, final byte[] pattern2 ) {
+            return new Magic( type, pattern, offset2, pattern2, null );
+        }
+
+        boolean matches( final byte[] header, final int length ) {
+            if ( !FileTypes.matches( header, length, 0, pattern ) || !FileTypes.matches( header, length, offset2, pattern2 ) ) {
+                return false;
+            }
+            if ( null != check ) {
+                return check.test( header, length );
+            }
+            return !( isPrintable( pattern ) && isPrintable( pattern2 ) && isText( header, length ) );
+        }
+    }
+
+    private record Entry( long lastModified, long size, FileType type ) {
+    }
+
+    private static final class Holder {
+        static final FileTypes DEFAULT = new FileTypes( DEFAULT_MAX_ENTRIES );
+    }
+}
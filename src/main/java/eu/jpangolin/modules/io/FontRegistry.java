@@ -0,0 +1,399 @@
+/*
+ * Copyright (c) 2025 Tim Langhammer.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.jpangolin.modules.io;
+
+import javafx.scene.text.Font;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Font Registry.
+ * <p>
+ *     Caches parsed JavaFX fonts per source and size.
+ *     A source is either a path, which is cached together with its last modified time and size,
+ *     or a class path resource.
+ * </p>
+ * <p>
+ *     Path fonts are bounded by entry count and the least recently used are evicted.
+ *     A changed file replaces its entry. Resource fonts are kept per class loader, which is held weakly,
+ *     so the fonts of an unloaded plugin are dropped with it.
+ * </p>
+ * <p>
+ *     Failures are cached too, so a broken font is not parsed and logged again on every request.
+ *     A failed path is tried again once the file changed.
+ * </p>
+ * <p>
+ *     Fonts can be loaded ahead of time with {@link #warmUp(Collection)}.
+ * </p>
+ *
+ * @author jTzipi
+ */
+public final class FontRegistry {
+
+    // Logger
+    private static final org.slf4j.Logger LOG = LoggerFactory.getLogger( FontRegistry.class );
+
+    /**
+     * Default maximal number of cached path fonts.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 256;
+
+    // key of the boot class loader
+    private static final Object BOOT_LOADER = new Object();
+
+    private final int maxEntries;
+    // access ordered, guarded by itself
+    private final LinkedHashMap<PathKey, PathEntry> byPath;
+    private final Map<Object, ConcurrentHashMap<ResourceKey, CompletableFuture<Font>>> byLoader = Collections.synchronizedMap( new WeakHashMap<>() );
+
+    /**
+     * Font Registry.
+     *
+     * @param maxEntries maximal number of cached path fonts [1 .. ]
+     * @throws IllegalArgumentException if {@code maxEntries} &lt; 1
+     */
+    public FontRegistry( final int maxEntries ) {
+        if ( 1 > maxEntries ) {
+            throw new IllegalArgumentException( "max entries[=" + maxEntries + "] < 1" );
+        }
+        this.maxEntries = maxEntries;
+        this.byPath = new LinkedHashMap<>( 16, 0.75F, true ) {
+            @Override
+            protected boolean removeEldestEntry( final Map.Entry<PathKey, PathEntry> eldest ) {
+                return size() > FontRegistry.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Font Registry with {@linkplain #DEFAULT_MAX_ENTRIES}.
+     */
+    public FontRegistry() {
+        this( DEFAULT_MAX_ENTRIES );
+    }
+
+    /**
+     * Return the shared font registry.
+     *
+     * @return font registry
+     */
+    public static FontRegistry getDefault() {
+        return Holder.DEFAULT;
+    }
+
+    /**
+     * Load a font from path.
+     *
+     * @param path path to font
+     * @param size size
+     * @return font or {@code null} if the file is not a font
+     * @throws IOException          if {@code path} is not readable or failed to load now or earlier
+     * @throws NullPointerException if {@code path} is null
+     */
+    public Font getFont( final Path path, final double size ) throws IOException {
+        Objects.requireNonNull( path );
+        return await( pathFont( path, size ) );
+    }
+
+    /**
+     * Load a font from path or return the system default font.
+     * A failure is logged only once.
+     *
+     * @param path path to font
+     * @param size size
+     * @return font or system default font
+     * @throws NullPointerException if {@code path} is null
+     */
+    public Font getFontOrDefault( final Path path, final double size ) {
+        Objects.requireNonNull( path );
+        Font font;
+        try {
+            font = getFont( path, size );
+        } catch ( final IOException ioe ) {
+            font = null;
+        }
+        return null == font ? Font.getDefault() : font;
+    }
+
+    /**
+     * Load a font from resource.
+     *
+     * @param cls         class
+     * @param fileNameStr file name
+     * @param size        size
+     * @return font or {@code null} if the resource is not a font
+     * @throws IOException           if failed to load now or earlier
+     * @throws IllegalStateException if {@code fileNameStr} is not found
+     * @throws NullPointerException  if {@code cls}|{@code fileNameStr} is null
+     */
+    public Font getFontFromResource( final Class<?> cls, final String fileNameStr, final double size ) throws IOException {
+        Objects.requireNonNull( cls );
+        Objects.requireNonNull( fileNameStr );
+        return await( resourceFont( cls, fileNameStr, size ) );
+    }
+
+    /**
+     * Load fonts on a background thread.
+     * Failures are cached and logged but do not fail the returned future.
+     *
+     * @param specs fonts to load
+     * @return future completing when all fonts are loaded
+     * @throws NullPointerException if {@code specs} is null
+     */
+    public CompletableFuture<Void> warmUp( final Collection<? extends FontSpec> specs ) {
+        Objects.requireNonNull( specs );
+        final ExecutorService exe = Executors.newSingleThreadExecutor( r -> {
+            final Thread thread = new Thread( r, "pango-font-warm-up" );
+            thread.setDaemon( true );
+            return thread;
+        } );
+        final CompletableFuture<Void> cf = warmUp( specs, exe );
+        exe.shutdown();
+        return cf;
+    }
+
+    /**
+     * Load fonts with an executor.
+     * Failures are cached and logged but do not fail the returned future.
+     *
+     * @param specs fonts to load
+     * @param exe   executor
+     * @return future completing when all fonts are loaded
+     * @throws NullPointerException if {@code specs}|{@code exe} is null
+     */
+    public CompletableFuture<Void> warmUp( final Collection<? extends FontSpec> specs, final Executor exe ) {
+        Objects.requireNonNull( exe );
+        final List<FontSpec> copy = List.copyOf( specs );
+
+        return CompletableFuture.runAsync( () -> {
+            for ( final FontSpec spec : copy ) {
+                try {
+                    switch ( spec ) {
+                        case PathFont pf -> getFont( pf.path(), pf.size() );
+                        case ResourceFont rf -> getFontFromResource( rf.cls(), rf.fileNameStr(), rf.size() );
+                    }
+                } catch ( final IOException | RuntimeException e ) {
+                    LOG.debug( "Warm up of font {} failed", spec, e );
+                }
+            }
+            LOG.debug( "Warm up of {} font(s) done", copy.size() );
+        }, exe );
+    }
+
+    /**
+     * Remove all fonts and failures.
+     */
+    public void clear() {
+        synchronized ( byPath ) {
+            byPath.clear();
+        }
+        byLoader.clear();
+    }
+
+    /**
+     * Return number of cached fonts and failures.
+     *
+     * @return size
+     */
+    public int size() {
+        int size;
+        synchronized ( byPath ) {
+            size = byPath.size();
+        }
+        synchronized ( byLoader ) {
+            for ( final ConcurrentHashMap<ResourceKey, CompletableFuture<Font>> fonts : byLoader.values() ) {
+                size += fonts.size();
+            }
+        }
+        return size;
+    }
+
+    private CompletableFuture<Font> pathFont( final Path path, final double size ) {
+        final Path abs = path.toAbsolutePath().normalize();
+        long lastModified = -1L;
+        long fileSize = -1L;
+        try {
+            final BasicFileAttributes attr = Files.readAttributes( abs, BasicFileAttributes.class );
+            if ( attr.isRegularFile() && Files.isReadable( abs ) ) {
+                lastModified = attr.lastModifiedTime().toMillis();
+                fileSize = attr.size();
+            }
+        } catch ( final NoSuchFileException nsfe ) {
+            // not existing
+        } catch ( final IOException ioe ) {
+            LOG.debug( "Failed to read attributes of font [='{}']", path, ioe );
+        }
+
+        final PathKey key = new PathKey( abs, size );
+        final CompletableFuture<Font> own = new CompletableFuture<>();
+        synchronized ( byPath ) {
+            final PathEntry entry = byPath.get( key );
+            if ( null != entry && entry.lastModified() == lastModified && entry.fileSize() == fileSize ) {
+                return entry.font();
+            }
+            // replaces a stale entry of the same file
+            byPath.put( key, new PathEntry( lastModified, fileSize, own ) );
+        }
+        final boolean readable = 0L <= lastModified;
+        complete( own, abs, () -> {
+            if ( !readable ) {
+                throw new IOException( "Path [='" + abs + "'] is not readable" );
+            }
+            try ( final InputStream is = Files.newInputStream( abs ) ) {
+                return Font.loadFont( is, size );
+            }
+        } );
+        return own;
+    }
+
+    private CompletableFuture<Font> resourceFont( final Class<?> cls, final String fileNameStr, final double size ) {
+        final ClassLoader cl = cls.getClassLoader();
+        final ConcurrentHashMap<ResourceKey, CompletableFuture<Font>> fonts = byLoader.computeIfAbsent( null == cl ? BOOT_LOADER : cl,
+                loader -> new ConcurrentHashMap<>() );
+        final ResourceKey key = new ResourceKey( ResourceCache.resolve( cls, fileNameStr ), size );
+        CompletableFuture<Font> cf = fonts.get( key );
+        if ( null != cf ) {
+            return cf;
+        }
+        final CompletableFuture<Font> own = new CompletableFuture<>();
+        cf = fonts.putIfAbsent( key, own );
+        if ( null != cf ) {
+            return cf;
+        }
+        // the class is used for loading only and not kept
+        complete( own, key.name(), () -> {
+            try ( final InputStream is = cls.getResourceAsStream( fileNameStr ) ) {
+                if ( null == is ) {
+                    throw new IllegalStateException( "Font InputStream is null" );
+                }
+                return Font.loadFont( is, size );
+            }
+        } );
+        return own;
+    }
+
+    private static void complete( final CompletableFuture<Font> own, final Object source, final FontLoader loader ) {
+        try {
+            own.complete( loader.load() );
+        } catch ( final IOException | RuntimeException e ) {
+            LOG.info( "Failed to load font [='{}']", source );
+            own.completeExceptionally( e );
+        }
+    }
+
+    private static Font await( final CompletableFuture<Font> cf ) throws IOException {
+        try {
+            return cf.get();
+        } catch ( final InterruptedException ie ) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException( "Interrupted while loading font" );
+        } catch ( final ExecutionException ee ) {
+            final Throwable cause = ee.getCause();
+            if ( cause instanceof IOException ioe ) {
+                throw new IOException( ioe.getMessage(), ioe );
+            }
+            if ( cause instanceof IllegalStateException ise ) {
+                throw new IllegalStateException( ise.getMessage(), ise );
+            }
+            throw new IOException( "Failed to load font", cause );
+        }
+    }
+
+    /**
+     * A font to warm up.
+     */
+    public sealed interface FontSpec permits PathFont, ResourceFont {
+    }
+
+    /**
+     * Font loaded from path.
+     *
+     * @param path path to font
+     * @param size size
+     */
+    public record PathFont( Path path, double size ) implements FontSpec {
+
+        /**
+         * Font loaded from path.
+         *
+         * @throws NullPointerException if {@code path} is null
+         */
+        public PathFont {
+            Objects.requireNonNull( path );
+        }
+    }
+
+    /**
+     * Font loaded from resource.
+     *
+     * @param cls         class
+     * @param fileNameStr file name
+     * @param size        size
+     */
+    public record ResourceFont( Class<?> cls, String fileNameStr, double size ) implements FontSpec {
+
+        /**
+         * Font loaded from resource.
+         *
+         * @throws NullPointerException if {@code cls}|{@code fileNameStr} is null
+         */
+        public ResourceFont {
+            Objects.requireNonNull( cls );
+            Objects.requireNonNull( fileNameStr );
+        }
+    }
+
+    @FunctionalInterface
+    private interface FontLoader {
+        Font load() throws IOException;
+    }
+
+    private record PathKey( Path path, double size ) {
+    }
+
+    // time and size are -1 for unreadable paths
+    private record PathEntry( long lastModified, long fileSize, CompletableFuture<Font> font ) {
+    }
+
+    // resolved resource name
+    private record ResourceKey( String name, double size ) {
+    }
+
+    private static final class Holder {
+        static final FontRegistry DEFAULT = new FontRegistry();
+    }
+}
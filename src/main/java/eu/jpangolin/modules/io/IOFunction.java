@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2025 Tim Langhammer.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.jpangolin.modules.io;
+
+import java.io.IOException;
+
+/**
+ * Function which may fail with an {@link IOException}.
+ *
+ * @param <T> type of input
+ * @param <R> type of result
+ * @author jTzipi
+ */
+@FunctionalInterface
+public interface IOFunction<T, R> {
+
+    /**
+     * Apply this function.
+     *
+     * @param t input
+     * @return result
+     * @throws IOException if failed
+     */
+    R apply( T t ) throws IOException;
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2025 Tim Langhammer.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.jpangolin.modules.io;
+
+/**
+ * Metrics hook for the loads and writes of {@link IOUtils}.
+ * <p>
+ *     Called on the thread doing the I/O after each operation, so an implementation must be fast and thread safe.
+ *     If no hook is installed and the Flight Recorder event is disabled nothing is measured at all.
+ * </p>
+ *
+ * @author jTzipi
+ * @see IOUtils#setMetrics(IOMetrics)
+ */
+@FunctionalInterface
+public interface IOMetrics {
+
+    /**
+     * Record an operation.
+     *
+     * @param operation     name of the operation like {@code "loadProperties"}
+     * @param target        path or resource
+     * @param bytes         bytes read or written or -1 if unknown
+     * @param durationNanos duration in nanoseconds
+     * @param failure       exception if failed or {@code null}
+     */
+    void record( String operation, String target, long bytes, long durationNanos, Throwable failure );
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2025 Tim Langhammer.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.jpangolin.modules.io;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event of a single load or write of {@link IOUtils}.
+ * <p>
+ *     Enable it with {@code -XX:StartFlightRecording} and the setting {@code eu.jpangolin.io.Operation#enabled=true}.
+ *     Custom events are enabled by default.
+ * </p>
+ *
+ * @author jTzipi
+ */
+@Name( IOOperationEvent.NAME )
+@Label( "I/O Operation" )
+@Category( { "PangoIO" } )
+@Description( "Load or write of a file or resource by IOUtils" )
+final class IOOperationEvent extends Event {
+
+    /**
+     * Event name.
+     */
+    static final String NAME = "eu.jpangolin.io.Operation";
+
+    @Label( "Operation" )
+    String operation;
+
+    @Label( "Target" )
+    @Description( "Path or resource" )
+    String target;
+
+    @Label( "Bytes" )
+    @DataAmount
+    long bytes;
+
+    @Label( "Success" )
+    boolean success;
+
+    @Label( "Failure" )
+    @Description( "Class of the exception if failed" )
+    String failure;
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2025 Tim Langhammer.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.jpangolin.modules.io;
+
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+
+/**
+ * Trace of a single I/O operation.
+ * <p>
+ *     Feeds the {@link IOOperationEvent} and the installed {@link IOMetrics}.
+ *     If both are off {@link #begin(String, Path)} returns a shared no-op trace, so an untraced operation only costs a volatile read and the enabled check of the event.
+ * </p>
+ * Usage:
+ * <pre>{@code
+ * final IOTrace trace = IOTrace.begin( "loadProperties", path );
+ * try {
+ *     ...
+ * } catch ( final IOException | RuntimeException e ) {
+ *     trace.fail( e );
+ *     throw e;
+ * } finally {
+ *     trace.end();
+ * }
+ * }</pre>
+ *
+ * @author jTzipi
+ */
+class IOTrace {
+
+    // Logger
+    private static final org.slf4j.Logger LOG = LoggerFactory.getLogger( IOTrace.class );
+
+    private static final IOTrace NOOP = new IOTrace();
+    // isEnabled() reads the current setting of the event type
+    private static final IOOperationEvent PROBE = new IOOperationEvent();
+
+    private static volatile IOMetrics metrics;
+
+    IOTrace() {
+    }
+
+    /**
+     * Install the metrics hook.
+     *
+     * @param hook hook or {@code null} to remove
+     */
+    static void setMetrics( final IOMetrics hook ) {
+        metrics = hook;
+    }
+
+    /**
+     * Return the metrics hook.
+     *
+     * @return hook or {@code null}
+     */
+    static IOMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Begin the trace of a path operation.
+     * Bytes stay -1 unless the operation sets them.
+     *
+     * @param operation operation
+     * @param path      path
+     * @return trace
+     */
+    static IOTrace begin( final String operation, final Path path ) {
+        final IOMetrics hook = metrics;
+        if ( null == hook && !PROBE.isEnabled() ) {
+            return NOOP;
+        }
+        return new Active( operation, path, null, null, hook );
+    }
+
+    /**
+     * Begin the trace of a resource operation.
+     *
+     * @param operation operation
+     * @param cls       class to load from
+     * @param resStr    resource name
+     * @return trace
+     */
+    static IOTrace begin( final String operation, final Class<?> cls, final String resStr ) {
+        final IOMetrics hook = metrics;
+        if ( null == hook && !PROBE.isEnabled() ) {
+            return NOOP;
+        }
+        return new Active( operation, null, cls, resStr, hook );
+    }
+
+    /**
+     * Set bytes read or written.
+     *
+     * @param bytes bytes
+     */
+    void bytes( final long bytes ) {
+    }
+
+    /**
+     * Mark the operation failed.
+     *
+     * @param failure cause
+     */
+    void fail( final Throwable failure ) {
+    }
+
+    /**
+     * End the operation.
+     */
+    void end() {
+    }
+
+    private static final class Active extends IOTrace {
+
+        private final String operation;
+        private final Path path;
+        private final Class<?> cls;
+        private final String resStr;
+        private final IOMetrics hook;
+        private final IOOperationEvent event;
+        private final long start;
+        private long bytes = -1L;
+        private Throwable failure;
+
+        Active( final String operation, final Path path, final Class<?> cls, final String resStr, final IOMetrics hook ) {
+            this.operation = operation;
+            this.path = path;
+            this.cls = cls;
+            this.resStr = resStr;
+            this.hook = hook;
+            final IOOperationEvent evt = new IOOperationEvent();
+            this.event = evt.isEnabled() ? evt : null;
+            if ( null != event ) {
+                event.begin();
+            }
+            this.start = System.nanoTime();
+        }
+
+        @Override
+        void bytes( final long bytes ) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        void fail( final Throwable failure ) {
+            this.failure = failure;
+        }
+
+        @Override
+        void end() {
+            final long duration = System.nanoTime() - start;
+            final String target = null != path ? path.toString() : cls.getName() + ":" + resStr;
+            if ( null != event ) {
+                event.end();
+                if ( event.shouldCommit() ) {
+                    event.operation = operation;
+                    event.target = target;
+                    event.bytes = bytes;
+                    event.success = null == failure;
+                    event.failure = null == failure ? null : failure.getClass().getName();
+                    event.commit();
+                }
+            }
+            if ( null != hook ) {
+                try {
+                    hook.record( operation, target, bytes, duration, failure );
+                } catch ( final RuntimeException re ) {
+                    LOG.warn( "Metrics failed for '{}'", operation, re );
+                }
+            }
+        }
+
+    }
+}
@@ -16,24 +16,26 @@
 
 package eu.jpangolin.modules.io;
 
-import javafx.scene.text.Font;
 import org.apache.commons.io.file.PathUtils;
 
 import org.slf4j.LoggerFactory;
 
 import javax.imageio.ImageIO;
-import javax.swing.filechooser.FileSystemView;
 
-import java.io.BufferedWriter;
-import java.io.File;
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Reader;
+
+import java.nio.charset.Charset;
 
 import java.nio.file.Files;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.ToLongFunction;
 
 /**
  * IOUtils.
@@ -46,8 +48,6 @@ public final class IOUtils {
 
     // Logger
     private static final org.slf4j.Logger LOG = LoggerFactory.getLogger(IOUtils.class);
-    // File System View for File system dependent things
-    private static final FileSystemView FSV = FileSystemView.getFileSystemView();
 
     public static final double FONT_MIN_SIZE = 11.0D;
     /**
@@ -78,15 +78,84 @@ public final class IOUtils {
         Objects.requireNonNull(resourceFileStr);
 
         ResourceBundle resBu;
+        final IOTrace trace = IOTrace.begin( "loadResourceBundle", cls, resourceFileStr );
         try ( final InputStream resIS = cls.getResourceAsStream( resourceFileStr ) ) {
             if ( null == resIS ) {
                 throw new IllegalStateException( "ResourceBundle[='" + resourceFileStr + "'] not readable" );
             }
             resBu = new PropertyResourceBundle( resIS );
 
+        } catch ( final IOException | RuntimeException e ) {
+            trace.fail( e );
+            throw e;
+        } finally {
+            trace.end();
         }
         return resBu;
     }
+
+    /**
+     * Read resource bundle from its compiled form.
+     * The resource compiled at build time is used if present, otherwise the bundle is parsed and compiled in memory.
+     * Like {@link #loadResourceBundle(Class, String)} the bundle is read as UTF-8.
+     *
+     * @param cls             class from which location the resource loaded
+     * @param resourceFileStr name of resource
+     * @return resource bundle
+     * @throws IOException           if ioe
+     * @throws NullPointerException  if {@code cls}|{@code resourceFileStr} is null
+     * @throws IllegalStateException if resource is not readable
+     * @see CompiledProperties#fromBundleResource(Class, String)
+     */
+    public static ResourceBundle loadCompiledResourceBundle( final Class<?> cls, final String resourceFileStr ) throws IOException {
+        Objects.requireNonNull( cls );
+        Objects.requireNonNull( resourceFileStr );
+        final IOTrace trace = IOTrace.begin( "loadCompiledResourceBundle", cls, resourceFileStr );
+        try {
+            return CompiledProperties.fromBundleResource( cls, resourceFileStr ).toResourceBundle();
+        } catch ( final IOException | RuntimeException e ) {
+            trace.fail( e );
+            throw e;
+        } finally {
+            trace.end();
+        }
+    }
+
+    /**
+     * Read resource bundle using the shared resource cache.
+     * The bundle is parsed once per class loader.
+     *
+     * @param cls             class from which location the resource loaded
+     * @param resourceFileStr name of resource
+     * @return shared resource bundle
+     * @throws IOException           if ioe
+     * @throws NullPointerException  if {@code cls}|{@code resourceFileStr} is null
+     * @throws IllegalStateException if resource is not readable
+     * @see #getResourceCache()
+     */
+    public static ResourceBundle loadResourceBundleCached( final Class<?> cls, final String resourceFileStr ) throws IOException {
+        Objects.requireNonNull( cls );
+        Objects.requireNonNull( resourceFileStr );
+        final IOTrace trace = IOTrace.begin( "loadResourceBundleCached", cls, resourceFileStr );
+        try {
+            return ResourceCache.getDefault().getResourceBundle( cls, resourceFileStr );
+        } catch ( final IOException | RuntimeException e ) {
+            trace.fail( e );
+            throw e;
+        } finally {
+            trace.end();
+        }
+    }
+
+    /**
+     * Return the shared cache for class path resources.
+     *
+     * @return resource cache
+     */
+    public static ResourceCache getResourceCache() {
+
+        return ResourceCache.getDefault();
+    }
     /**
      * Return home dir of user.
      *
@@ -106,34 +175,68 @@ public final class IOUtils {
 
         return Paths.get( OS.readSysProp().getOrDefault( "user.dir", "." ) );
     }
+    /**
+     * Return the profile of this platform.
+     *
+     * @return platform profile
+     * @see PlatformProfile
+     */
+    public static PlatformProfile getPlatformProfile() {
+
+        return PlatformProfile.get();
+    }
+
+    /**
+     * Install a metrics hook called after each load and write of this class.
+     * <p>
+     *     Each operation is also recorded as Flight Recorder event {@code eu.jpangolin.io.Operation}.
+     *     Without hook and recording the operations are not measured.
+     * </p>
+     *
+     * @param metrics hook or {@code null} to remove
+     */
+    public static void setMetrics( final IOMetrics metrics ) {
+
+        IOTrace.setMetrics( metrics );
+    }
+
+    /**
+     * Return the installed metrics hook.
+     *
+     * @return hook or {@code null}
+     */
+    public static IOMetrics getMetrics() {
+
+        return IOTrace.getMetrics();
+    }
+
     /**
      * Format bytes.
+     * <p>
+     *     Formats with one fraction digit for the default locale, from bytes up to exa bytes.
+     * </p>
      *
      * @param bytes byte
      * @param si    standard unit
      * @return formatted file size
+     * @see FileSizeFormat
      */
     public static String formatFileSize( final long bytes, final boolean si ) {
-        // no formatting
-        if ( 0 >= bytes ) {
-            LOG.info("Format File Size byte {} < 0!",bytes);
-            return "0 B";
-        }
-        final int unit = si ? 1000 : 1024;
-        // if no need to format
-        if ( unit > bytes ) {
-            return bytes + " B";
-        }
-
-        final String unitSymbol = si ? "kMGT" : "KMGT";
-
-        final int exp = ( int ) ( Math.log( bytes ) / Math.log( unit ) );
-
-        final double ri = bytes / Math.pow( unit, exp );
-
+        return FileSizeFormat.getDefault().format( bytes, si );
+    }
 
-        final String pre = unitSymbol.charAt( exp - 1 ) + ( si ? "" : "i" );
-        return String.format( "%.1f %sB", ri, pre );
+    /**
+     * Append formatted bytes without creating intermediate strings.
+     *
+     * @param bytes byte
+     * @param si    standard unit
+     * @param sb    target
+     * @return {@code sb}
+     * @throws NullPointerException if {@code sb} is null
+     * @see FileSizeFormat
+     */
+    public static StringBuilder appendFileSize( final long bytes, final boolean si, final StringBuilder sb ) {
+        return FileSizeFormat.getDefault().append( bytes, si, sb );
     }
 
     /**
@@ -143,6 +246,7 @@ public final class IOUtils {
      * @return prefix of a file or {@code null} if failed or {@linkplain #_DIR_} if a directory
      * @throws NullPointerException if {@code path} is null
      * @see PathUtils#getFileNameString(Path)
+     * @see DirectoryScanner
      */
     public static String getFileNamePrefix( final Path path )  {
         Objects.requireNonNull(path);
@@ -161,6 +265,8 @@ public final class IOUtils {
      * @return the suffix of the file if some exist or '' or {@linkplain #_DIR_} if a directory
      * @throws NullPointerException if {@code path} is null
      * @see PathUtils#getExtension(Path) 
+     * @see DirectoryScanner
+     * @see #getFileType(Path)
      */
     public static String getFileNameSuffix( final Path path ) {
         Objects.requireNonNull(path);
@@ -170,19 +276,35 @@ public final class IOUtils {
         return PathUtils.getExtension(path);
     }
 
+    /**
+     * Detect the path's file type from its content.
+     * Only a small header is read and the result is cached.
+     *
+     * @param path path to file
+     * @return file type
+     * @throws IOException              if {@code path} is not readable
+     * @throws IllegalArgumentException if {@code path} is dir
+     * @throws NullPointerException     if {@code path} is null
+     * @see FileTypes
+     */
+    public static FileTypes.FileType getFileType( final Path path ) throws IOException {
+        return FileTypes.getDefault().detect( path );
+    }
+
 
 
     /* ------------------------ File System View related ----------------------------------*/
 
     /**
      * Is the path donating to a file system drive.
+     * Only Windows has drives.
      * @param path path to file
      * @return {@code true} if the {@code path} is a system drive
      * @throws NullPointerException if {@code path} is null
      */
     public static boolean isPathToDrive(final Path path) {
 
-        return FSV.isDrive(tof(path));
+        return FileSystemRoots.isDrive( Objects.requireNonNull( path ) );
     }
     /**
      * Is the path donating to the file system root.
@@ -191,7 +313,7 @@ public final class IOUtils {
      * @throws NullPointerException if {@code path} is null
      */
     public static boolean isPathToSystemRoot(final Path path) {
-        return FSV.isFileSystemRoot(tof(path));
+        return FileSystemRoots.isRoot( Objects.requireNonNull( path ) );
     }
     /**
      * is the path donating to a "system node".s
@@ -200,7 +322,41 @@ public final class IOUtils {
      * @throws NullPointerException if {@code path} is null
      */
     public static boolean isPathToFileSystemNode(final Path path ) {
-        return FSV.isComputerNode(tof(path));
+        return FileSystemRoots.isComputerNode( Objects.requireNonNull( path ) );
+    }
+
+    /**
+     * Return the file store of each root directory.
+     * The roots are read once, see {@link #refreshFileSystemRoots()}.
+     *
+     * @return unmodifiable map of root to file store or empty if the root has no readable file store
+     */
+    public static Map<Path, Optional<java.nio.file.FileStore>> getRootFileStores() {
+        return FileSystemRoots.stores();
+    }
+
+    /**
+     * Read the root directories again, for instance after a drive was attached.
+     */
+    public static void refreshFileSystemRoots() {
+        FileSystemRoots.refresh();
+    }
+
+    /* -------------------------------------- Watch --------------------------------------- */
+
+    /**
+     * Watch a file or directory with the shared watch hub.
+     * Bursts of events are coalesced and the listener is called on a virtual thread.
+     *
+     * @param path     file or directory
+     * @param listener listener
+     * @return registration, close it to stop watching
+     * @throws IOException          if the (parent) directory is not watchable
+     * @throws NullPointerException if {@code path}|{@code listener} is null
+     * @see WatchHub#getDefault()
+     */
+    public static WatchHub.Registration watch( final Path path, final java.util.function.Consumer<? super WatchHub.Change> listener ) throws IOException {
+        return WatchHub.getDefault().watch( path, listener );
     }
 
     /* -------------------------------------- Loading Images/Fonts/Resources --------------------------------------- */
@@ -215,11 +371,82 @@ public final class IOUtils {
      */
     public static java.awt.image.BufferedImage loadBufferedImage( final Path path ) throws IOException {
 
+        Objects.requireNonNull( path );
+        final IOTrace trace = IOTrace.begin( "loadBufferedImage", path );
+        if ( !Files.isReadable( path ) ) {
+            throw refused( trace, new IOException( "Path[='" + path + "'] is not readable" ) );
+        }
+        try {
+            return ImageIO.read( path.toFile() );
+        } catch ( final IOException | RuntimeException e ) {
+            trace.fail( e );
+            throw e;
+        } finally {
+            trace.end();
+        }
+    }
+
+    /**
+     * Try to load a file as a BufferedImage decoding only the pixels needed for a target size.
+     * The image is subsampled by the largest integer factor keeping it at least as large as the target size,
+     * so the result may need a final scale by the caller.
+     *
+     * @param path         path to file
+     * @param targetWidth  target width or &lt;= 0 if only the height matters
+     * @param targetHeight target height or &lt;= 0 if only the width matters
+     * @return buffered image
+     * @throws IOException          if file is not readable or failed to read as image
+     * @throws NullPointerException if  {@code path} is null
+     */
+    public static java.awt.image.BufferedImage loadBufferedImage( final Path path, final int targetWidth, final int targetHeight ) throws IOException {
+        return loadBufferedImage( path, null, targetWidth, targetHeight );
+    }
+
+    /**
+     * Try to load a region of a file as a BufferedImage decoding only the pixels needed for a target size.
+     *
+     * @param path         path to file
+     * @param region       region of the source image or {@code null} for the whole image
+     * @param targetWidth  target width or &lt;= 0 if only the height matters
+     * @param targetHeight target height or &lt;= 0 if only the width matters
+     * @return buffered image
+     * @throws IOException              if file is not readable or failed to read as image
+     * @throws IllegalArgumentException if {@code region} is outside the image
+     * @throws NullPointerException     if  {@code path} is null
+     * @see #loadBufferedImage(Path, int, int)
+     */
+    public static java.awt.image.BufferedImage loadBufferedImage( final Path path, final java.awt.Rectangle region, final int targetWidth, final int targetHeight ) throws IOException {
+
+        Objects.requireNonNull( path );
+        final IOTrace trace = IOTrace.begin( "loadBufferedImage", path );
+        if ( !Files.isReadable( path ) ) {
+            throw refused( trace, new IOException( "Path[='" + path + "'] is not readable" ) );
+        }
+        try {
+            return ImageDecoder.decode( path, region, targetWidth, targetHeight );
+        } catch ( final IOException | RuntimeException e ) {
+            trace.fail( e );
+            throw e;
+        } finally {
+            trace.end();
+        }
+    }
+
+    /**
+     * Read the dimension of an image without decoding it.
+     *
+     * @param path path to image
+     * @return dimension of image
+     * @throws IOException          if file is not readable or not an image
+     * @throws NullPointerException if  {@code path} is null
+     */
+    public static java.awt.Dimension probeImageSize( final Path path ) throws IOException {
+
         Objects.requireNonNull( path );
         if ( !Files.isReadable( path ) ) {
             throw new IOException( "Path[='" + path + "'] is not readable" );
         }
-        return ImageIO.read( path.toFile() );
+        return ImageDecoder.probe( path );
     }
 
     /**
@@ -235,15 +462,49 @@ public final class IOUtils {
     public static java.awt.image.BufferedImage loadBufferedImageFromResource( final Class<?> cls, final String fileNameStr ) throws IOException {
         Objects.requireNonNull( cls );
         Objects.requireNonNull( fileNameStr );
+        final IOTrace trace = IOTrace.begin( "loadBufferedImageFromResource", cls, fileNameStr );
         try( InputStream is = cls.getResourceAsStream( fileNameStr ) ) {
             if( null == is ) {
                 throw new IllegalStateException("file [='"+fileNameStr+"'] not found for class [='"+cls+"']");
             }
             return ImageIO.read( is );
+        } catch ( final IOException | RuntimeException e ) {
+            trace.fail( e );
+            throw e;
+        } finally {
+            trace.end();
         }
 
     }
 
+    /**
+     * Try to load an image via resources using the shared resource cache.
+     * <p>
+     *     Note: the returned image is shared and must not be modified.
+     * </p>
+     *
+     * @param cls class
+     * @param fileNameStr file
+     * @return buffered image
+     * @throws IOException Failed or not an image
+     * @throws IllegalStateException if {@code fileNameStr} is not readable hence the stream is null
+     * @throws NullPointerException if {@code cls} | {@code fileNameStr}
+     * @see #getResourceCache()
+     */
+    public static java.awt.image.BufferedImage loadBufferedImageFromResourceCached( final Class<?> cls, final String fileNameStr ) throws IOException {
+        Objects.requireNonNull( cls );
+        Objects.requireNonNull( fileNameStr );
+        final IOTrace trace = IOTrace.begin( "loadBufferedImageFromResourceCached", cls, fileNameStr );
+        try {
+            return ResourceCache.getDefault().getBufferedImage( cls, fileNameStr );
+        } catch ( final IOException | RuntimeException e ) {
+            trace.fail( e );
+            throw e;
+        } finally {
+            trace.end();
+        }
+    }
+
     /**
      * Try to load a file as a javafx image.
      *
@@ -256,17 +517,174 @@ public final class IOUtils {
 
         Objects.requireNonNull( path, "Path is null" );
 
+        final IOTrace trace = IOTrace.begin( "loadJavaFXImage", path );
         if ( !Files.isReadable( path ) ) {
-            throw new IOException( "Path[='" + path + "'] is not readable" );
+            throw refused( trace, new IOException( "Path[='" + path + "'] is not readable" ) );
         }
 
         try ( InputStream fis = Files.newInputStream( path ) ) {
             return new javafx.scene.image.Image( fis );
+        } catch ( final IOException | RuntimeException e ) {
+            trace.fail( e );
+            throw e;
+        } finally {
+            trace.end();
+        }
+    }
+
+    /**
+     * Try to load a file as a javafx image scaled while decoding.
+     * Only the requested size is held in memory.
+     *
+     * @param path            path to image
+     * @param requestedWidth  requested width or &lt;= 0 for the image width
+     * @param requestedHeight requested height or &lt;= 0 for the image height
+     * @param preserveRatio   preserve aspect ratio
+     * @param smooth          use a better quality filter
+     * @return image
+     * @throws IOException          failed to read file
+     * @throws NullPointerException if {@code path} is null
+     */
+    public static javafx.scene.image.Image loadJavaFXImage( final Path path, final double requestedWidth, final double requestedHeight,
+                                                           final boolean preserveRatio, final boolean smooth ) throws IOException {
+
+        Objects.requireNonNull( path, "Path is null" );
+
+        final IOTrace trace = IOTrace.begin( "loadJavaFXImage", path );
+        if ( !Files.isReadable( path ) ) {
+            throw refused( trace, new IOException( "Path[='" + path + "'] is not readable" ) );
+        }
+
+        try ( InputStream fis = Files.newInputStream( path ) ) {
+            return new javafx.scene.image.Image( fis, Math.max( 0D, requestedWidth ), Math.max( 0D, requestedHeight ), preserveRatio, smooth );
+        } catch ( final IOException | RuntimeException e ) {
+            trace.fail( e );
+            throw e;
+        } finally {
+            trace.end();
+        }
+    }
+
+    /**
+     * Load a file once into pixels shared by a BufferedImage and a javafx image.
+     * The image is subsampled while decoding so that it is not smaller than the target size.
+     * Close the result to return the pixels to the {@linkplain PixelPool#getDefault() default pool}.
+     *
+     * @param path         path to image
+     * @param targetWidth  target width or &lt;= 0 for no constraint
+     * @param targetHeight target height or &lt;= 0 for no constraint
+     * @return pixel image
+     * @throws IOException          if file is not readable or failed to read as image
+     * @throws NullPointerException if {@code path} is null
+     * @see PixelImage
+     */
+    public static PixelImage loadPixelImage( final Path path, final int targetWidth, final int targetHeight ) throws IOException {
+        Objects.requireNonNull( path );
+        final IOTrace trace = IOTrace.begin( "loadPixelImage", path );
+        try {
+            return PixelImage.load( path, targetWidth, targetHeight, PixelPool.getDefault() );
+        } catch ( final IOException | RuntimeException e ) {
+            trace.fail( e );
+            throw e;
+        } finally {
+            trace.end();
+        }
+    }
+
+    /**
+     * Try to load a file as a BufferedImage using the shared image cache.
+     * <p>
+     *     Note: the returned image is shared and must not be modified.
+     * </p>
+     *
+     * @param path path to file
+     * @return buffered image
+     * @throws IOException          if file is not readable or failed to read as image
+     * @throws NullPointerException if {@code path} is null
+     * @see #getBufferedImageCache()
+     */
+    public static java.awt.image.BufferedImage loadBufferedImageCached( final Path path ) throws IOException {
+        Objects.requireNonNull( path );
+        final IOTrace trace = IOTrace.begin( "loadBufferedImageCached", path );
+        try {
+            return ImageCacheHolder.AWT.get( path );
+        } catch ( final IOException | RuntimeException e ) {
+            trace.fail( e );
+            throw e;
+        } finally {
+            trace.end();
         }
     }
 
+    /**
+     * Try to load a file as a javafx image using the shared image cache.
+     *
+     * @param path path to image
+     * @return image
+     * @throws IOException          failed to read file
+     * @throws NullPointerException if {@code path} is null
+     * @see #getJavaFXImageCache()
+     */
+    public static javafx.scene.image.Image loadJavaFXImageCached( final Path path ) throws IOException {
+        Objects.requireNonNull( path );
+        final IOTrace trace = IOTrace.begin( "loadJavaFXImageCached", path );
+        try {
+            return ImageCacheHolder.FX.get( path );
+        } catch ( final IOException | RuntimeException e ) {
+            trace.fail( e );
+            throw e;
+        } finally {
+            trace.end();
+        }
+    }
+
+    /**
+     * Load many files as BufferedImage concurrently.
+     * A file which is not readable or not an image is reported as failed result.
+     *
+     * @param paths paths to images
+     * @return results in the order of their completion
+     * @throws NullPointerException if {@code paths} is null
+     * @see BatchLoader#getDefault()
+     */
+    public static java.util.stream.Stream<BatchLoader.Result<java.awt.image.BufferedImage>> loadBufferedImages( final Collection<Path> paths ) {
+        return BatchLoader.getDefault().stream( paths, IOUtils::loadBufferedImage );
+    }
+
+    /**
+     * Load many files as javafx image concurrently.
+     * A file which is not readable or not an image is reported as failed result.
+     *
+     * @param paths paths to images
+     * @return results in the order of their completion
+     * @throws NullPointerException if {@code paths} is null
+     * @see BatchLoader#getDefault()
+     */
+    public static java.util.stream.Stream<BatchLoader.Result<javafx.scene.image.Image>> loadJavaFXImages( final Collection<Path> paths ) {
+        return BatchLoader.getDefault().stream( paths, IOUtils::loadJavaFXImageChecked );
+    }
+
+    /**
+     * Return the shared cache for buffered images.
+     *
+     * @return image cache
+     */
+    public static ImageCache<java.awt.image.BufferedImage> getBufferedImageCache() {
+        return ImageCacheHolder.AWT;
+    }
+
+    /**
+     * Return the shared cache for javafx images.
+     *
+     * @return image cache
+     */
+    public static ImageCache<javafx.scene.image.Image> getJavaFXImageCache() {
+        return ImageCacheHolder.FX;
+    }
+
     /**
      * Load a JavaFX font from path.
+     * Fonts and failures are cached by the {@linkplain FontRegistry#getDefault() shared font registry}.
      *
      * @param path path
      * @param size size
@@ -277,24 +695,20 @@ public final class IOUtils {
     public static javafx.scene.text.Font loadFont( final Path path, final double size ) throws IOException {
 
         Objects.requireNonNull( path );
-        // Error
-        if ( !Files.isReadable( path ) ) {
-            throw new IOException( "Path [='" + path + "'] is not readable" );
-        }
-
-        // try
-        final javafx.scene.text.Font font;
-        try ( final InputStream io = Files.newInputStream( path ) ) {
-
-            font = javafx.scene.text.Font.loadFont( io, size );
+        final IOTrace trace = IOTrace.begin( "loadFont", path );
+        try {
+            return FontRegistry.getDefault().getFont( path, size );
+        } catch ( final IOException | RuntimeException e ) {
+            trace.fail( e );
+            throw e;
+        } finally {
+            trace.end();
         }
-
-        return font;
-
     }
 
     /**
      * Try to load a JavaFX font or return default system font.
+     * A failure is only logged the first time.
      *
      * @param path path to font
      * @param fontSize font size
@@ -305,19 +719,22 @@ public final class IOUtils {
 
         Objects.requireNonNull( path );
         fontSize = Math.max(fontSize, FONT_MIN_SIZE);
-        Font font;
+
+        final IOTrace trace = IOTrace.begin( "loadFontSafe", path );
         try {
-            font = loadFont( path, fontSize );
-        } catch ( final IOException ioe ) {
-            LOG.info( "Failed to load font for path[='{}']",path );
-            font = javafx.scene.text.Font.getDefault();
+            return FontRegistry.getDefault().getFontOrDefault( path, fontSize );
+        } catch ( final RuntimeException re ) {
+            trace.fail( re );
+            throw re;
+        } finally {
+            trace.end();
         }
-        return font;
     }
 
 
     /**
      * Load a font from resource.
+     * Fonts and failures are cached by the {@linkplain FontRegistry#getDefault() shared font registry}.
      * @param cls class
      * @param fileNameStr file name
      * @param fontSize font size [{@linkplain #FONT_MIN_SIZE} .. ]
@@ -333,14 +750,275 @@ public final class IOUtils {
         Objects.requireNonNull( fileNameStr );
         fontSize = Math.max( fontSize, FONT_MIN_SIZE );
 
-        try( InputStream is = cls.getResourceAsStream( fileNameStr ) ) {
-            if( null == is ) {
-                throw new IllegalStateException("Font InputStream is null");
-            }
+        final IOTrace trace = IOTrace.begin( "loadFontFromResource", cls, fileNameStr );
+        try {
+            return FontRegistry.getDefault().getFontFromResource( cls, fileNameStr, fontSize );
+        } catch ( final IOException | RuntimeException e ) {
+            trace.fail( e );
+            throw e;
+        } finally {
+            trace.end();
+        }
+    }
+    /* -------------------------------------- Large Files --------------------------------------- */
+
+    /**
+     * Map a file read only into memory.
+     * The returned file must be closed to release the mappings.
+     *
+     * @param path path to file
+     * @return mapped file
+     * @throws IOException              if {@code path} is not readable
+     * @throws NullPointerException     if {@code path} is null
+     * @throws IllegalArgumentException if {@code path} is dir
+     * @see MappedFile
+     */
+    public static MappedFile mapFile( final Path path ) throws IOException {
+
+        Objects.requireNonNull( path );
+        if ( !Files.isReadable( path ) ) {
+            throw new IOException( "Path[='" + path + "'] not readable" );
+        }
+        if ( Files.isDirectory( path ) ) {
+            throw new IllegalArgumentException( "You try to map dir[='" + path + "']" );
+        }
+        return MappedFile.open( path );
+    }
+
+    /**
+     * Index the lines of a text file for random access.
+     * The returned index must be closed to release the file.
+     *
+     * @param path path to text file
+     * @param cs   charset encoding {@code '\n'} as one byte
+     * @return line index
+     * @throws IOException              if {@code path} is not readable
+     * @throws NullPointerException     if {@code path}|{@code cs} is null
+     * @throws IllegalArgumentException if {@code path} is dir or {@code cs} is not supported
+     * @see LineIndex
+     */
+    public static LineIndex indexLines( final Path path, final Charset cs ) throws IOException {
+
+        Objects.requireNonNull( path );
+        final IOTrace trace = IOTrace.begin( "indexLines", path );
+        if ( Files.isDirectory( path ) ) {
+            throw refused( trace, new IllegalArgumentException( "You try to index dir[='" + path + "']" ) );
+        }
+        try {
+            return LineIndex.build( path, cs, LineIndex.DEFAULT_STRIDE );
+        } catch ( final IOException | RuntimeException e ) {
+            trace.fail( e );
+            throw e;
+        } finally {
+            trace.end();
+        }
+    }
+
+    /* -------------------------------------- Copy --------------------------------------- */
+
+    /**
+     * Copy a file without moving the bytes through the heap.
+     * Large files are copied in parallel chunks.
+     *
+     * @param src     source file
+     * @param target  target file
+     * @param replace replace an existing target
+     * @return bytes copied
+     * @throws IOException              if failed or interrupted or {@code target} exists and not {@code replace}
+     * @throws IllegalArgumentException if {@code src} is dir
+     * @throws NullPointerException     if {@code src}|{@code target} is null
+     * @see FileCopy
+     */
+    public static long copyFile( final Path src, final Path target, final boolean replace ) throws IOException {
+
+        Objects.requireNonNull( src );
+        Objects.requireNonNull( target );
+        final IOTrace trace = IOTrace.begin( "copyFile", target );
+        try {
+            final long bytes = FileCopy.getDefault().copy( src, target, replace, null );
+            trace.bytes( bytes );
+            return bytes;
+        } catch ( final IOException | RuntimeException e ) {
+            trace.fail( e );
+            throw e;
+        } finally {
+            trace.end();
+        }
+    }
+
+    /**
+     * Move a file.
+     * On the same file store the file is renamed, otherwise copied and deleted.
+     *
+     * @param src     source file
+     * @param target  target file
+     * @param replace replace an existing target
+     * @return bytes moved
+     * @throws IOException              if failed or interrupted or {@code target} exists and not {@code replace}
+     * @throws IllegalArgumentException if {@code src} is dir
+     * @throws NullPointerException     if {@code src}|{@code target} is null
+     * @see FileCopy
+     */
+    public static long moveFile( final Path src, final Path target, final boolean replace ) throws IOException {
+
+        Objects.requireNonNull( src );
+        Objects.requireNonNull( target );
+        final IOTrace trace = IOTrace.begin( "moveFile", target );
+        try {
+            return FileCopy.getDefault().move( src, target, replace, null );
+        } catch ( final IOException | RuntimeException e ) {
+            trace.fail( e );
+            throw e;
+        } finally {
+            trace.end();
+        }
+    }
+
+    /* -------------------------------------- Archive --------------------------------------- */
+
+    /**
+     * Extract a zip or tar archive.
+     *
+     * @param archive   archive
+     * @param targetDir target directory
+     * @param replace   replace existing files
+     * @return entries and bytes extracted
+     * @throws IOException              if failed or an entry is outside of {@code targetDir}
+     * @throws IllegalArgumentException if the format of {@code archive} is unknown
+     * @throws NullPointerException     if {@code archive}|{@code targetDir} is null
+     * @see Archives
+     */
+    public static Archives.Progress extractArchive( final Path archive, final Path targetDir, final boolean replace ) throws IOException {
+
+        Objects.requireNonNull( archive );
+        Objects.requireNonNull( targetDir );
+        final IOTrace trace = IOTrace.begin( "extractArchive", archive );
+        try {
+            final Archives.Progress progress = Archives.extract( archive, targetDir, replace, null );
+            trace.bytes( progress.bytes() );
+            return progress;
+        } catch ( final IOException | RuntimeException e ) {
+            trace.fail( e );
+            throw e;
+        } finally {
+            trace.end();
+        }
+    }
+
+    /**
+     * Create an archive of a directory tree.
+     *
+     * @param sourceDir directory to archive
+     * @param archive   archive to write, the format is chosen by name
+     * @return entries and bytes archived
+     * @throws IOException              if failed
+     * @throws IllegalArgumentException if the format of {@code archive} is unknown
+     * @throws NullPointerException     if {@code sourceDir}|{@code archive} is null
+     * @see Archives
+     */
+    public static Archives.Progress writeArchive( final Path sourceDir, final Path archive ) throws IOException {
+
+        Objects.requireNonNull( sourceDir );
+        Objects.requireNonNull( archive );
+        final IOTrace trace = IOTrace.begin( "writeArchive", archive );
+        try {
+            return Archives.create( sourceDir, archive, Archives.Format.of( archive ) );
+        } catch ( final IOException | RuntimeException e ) {
+            trace.fail( e );
+            throw e;
+        } finally {
+            trace.end();
+        }
+    }
+
+    /* -------------------------------------- Checksum --------------------------------------- */
+
+    /**
+     * Hash a file.
+     *
+     * @param path path to file
+     * @param alg  algorithm
+     * @return digest as lower case hex
+     * @throws IOException              if {@code path} is not readable
+     * @throws IllegalArgumentException if {@code path} is dir
+     * @throws NullPointerException     if {@code path}|{@code alg} is null
+     * @see Checksums
+     */
+    public static String checksum( final Path path, final Checksums.Algorithm alg ) throws IOException {
 
-            return javafx.scene.text.Font.loadFont( is, fontSize );
+        Objects.requireNonNull( path );
+        Objects.requireNonNull( alg );
+        final IOTrace trace = IOTrace.begin( "checksum", path );
+        try {
+            return Checksums.hash( path, alg );
+        } catch ( final IOException | RuntimeException e ) {
+            trace.fail( e );
+            throw e;
+        } finally {
+            trace.end();
         }
     }
+
+    /* -------------------------------------- Async --------------------------------------- */
+
+    /**
+     * Read all bytes of a file without blocking the caller.
+     *
+     * @param path path to file
+     * @return future of content
+     * @throws NullPointerException if {@code path} is null
+     * @see AsyncIO#getDefault()
+     */
+    public static CompletableFuture<byte[]> readAllAsync( final Path path ) {
+        Objects.requireNonNull( path );
+        return traced( IOTrace.begin( "readAllAsync", path ), AsyncIO.getDefault().readAllBytes( path ), data -> data.length );
+    }
+
+    /**
+     * Write bytes atomically without blocking the caller.
+     *
+     * @param path path to file
+     * @param data content, must not be modified until the future completed
+     * @return future completed after the write
+     * @throws NullPointerException if {@code path}|{@code data} is null
+     * @see AsyncIO#getDefault()
+     */
+    public static CompletableFuture<Void> writeAllAsync( final Path path, final byte[] data ) {
+        Objects.requireNonNull( path );
+        Objects.requireNonNull( data );
+        final IOTrace trace = IOTrace.begin( "writeAllAsync", path );
+        trace.bytes( data.length );
+        return traced( trace, AsyncIO.getDefault().write( path, data, false ) );
+    }
+
+    /**
+     * Load properties without blocking the caller.
+     *
+     * @param path path to properties
+     * @return future of properties
+     * @throws NullPointerException if {@code path} is null
+     * @see #loadProperties(Path)
+     */
+    public static CompletableFuture<Properties> loadPropertiesAsync( final Path path ) {
+        Objects.requireNonNull( path );
+        return traced( IOTrace.begin( "loadPropertiesAsync", path ), AsyncIO.getDefault().loadProperties( path ) );
+    }
+
+    /**
+     * Write properties atomically without blocking the caller.
+     *
+     * @param path       path to properties
+     * @param prop       properties, copied before return
+     * @param commentStr comment (optional)
+     * @return future completed after the write
+     * @throws NullPointerException if {@code path}|{@code prop} is null
+     * @see #writeProperties(Path, Properties, String)
+     */
+    public static CompletableFuture<Void> writePropertiesAsync( final Path path, final Properties prop, final String commentStr ) {
+        Objects.requireNonNull( path );
+        return traced( IOTrace.begin( "writePropertiesAsync", path ), AsyncIO.getDefault().writeProperties( path, prop, commentStr, false ) );
+    }
+
     /* -------------------------------------- Loading Properties --------------------------------------- */
     /**
      * Load Properties from path.
@@ -354,13 +1032,14 @@ public final class IOUtils {
     public static void loadProperties( final Path pathToProp, Properties prop ) throws IOException {
 
         Objects.requireNonNull( pathToProp );
+        final IOTrace trace = IOTrace.begin( "loadProperties", pathToProp );
         //
         if ( !Files.isReadable( pathToProp ) ) {
-            throw new IOException( "Path[='" + pathToProp + "'] not readable" );
+            throw refused( trace, new IOException( "Path[='" + pathToProp + "'] not readable" ) );
         }
         // If no file throw
         if ( Files.isDirectory( pathToProp ) ) {
-            throw new IllegalArgumentException( "You try to read properties from dir[='" + pathToProp + "']" );
+            throw refused( trace, new IllegalArgumentException( "You try to read properties from dir[='" + pathToProp + "']" ) );
         }
         //
         if ( null == prop ) {
@@ -369,6 +1048,11 @@ public final class IOUtils {
 
         try ( final InputStream inStream = Files.newInputStream( pathToProp ) ) {
             prop.load( inStream );
+        } catch ( final IOException | RuntimeException e ) {
+            trace.fail( e );
+            throw e;
+        } finally {
+            trace.end();
         }
 
     }
@@ -391,6 +1075,29 @@ public final class IOUtils {
         return prop;
     }
 
+    /**
+     * Load properties through a compiled file cached beside them.
+     * The compiled file is written on first load and whenever the properties file changed.
+     *
+     * @param path path to properties
+     * @return compiled properties
+     * @throws IOException          if {@code path} !readable
+     * @throws NullPointerException if {@code path} is null
+     * @see CompiledProperties#load(Path)
+     */
+    public static CompiledProperties loadCompiledProperties( final Path path ) throws IOException {
+        Objects.requireNonNull( path );
+        final IOTrace trace = IOTrace.begin( "loadCompiledProperties", path );
+        try {
+            return CompiledProperties.load( path );
+        } catch ( final IOException | RuntimeException e ) {
+            trace.fail( e );
+            throw e;
+        } finally {
+            trace.end();
+        }
+    }
+
     /**
      * Read a '.properties'-file as a resource located file.
      *
@@ -425,6 +1132,7 @@ public final class IOUtils {
         Objects.requireNonNull( properties );
 
         LOG.info( "try to load '{}' from '{}'", fileStr, cls.getSimpleName() );
+        final IOTrace trace = IOTrace.begin( "loadPropertiesFromResource", cls, fileStr );
         try ( InputStream is = cls.getResourceAsStream( fileStr ) ) {
 
             if ( null == is ) {
@@ -432,14 +1140,46 @@ public final class IOUtils {
             }
             properties.load( is );
 
+        } catch ( final IOException | RuntimeException e ) {
+            trace.fail( e );
+            throw e;
+        } finally {
+            trace.end();
         }
         LOG.info( "'{}' loaded Okay!", fileStr );
 
 
     }
 
+    /**
+     * Read a '.properties'-file as a resource located file using the shared resource cache.
+     * The file is parsed once per class loader, each call returns a copy.
+     *
+     * @param cls     cls
+     * @param fileStr file name
+     * @return properties
+     * @throws IOException           if file not readable
+     * @throws IllegalStateException if stream is null
+     * @throws NullPointerException  if {@code cls}|{@code fileStr} is null
+     * @see #getResourceCache()
+     */
+    public static Properties loadPropertiesFromResourceCached( final Class<?> cls, final String fileStr ) throws IOException {
+        Objects.requireNonNull( cls );
+        Objects.requireNonNull( fileStr );
+        final IOTrace trace = IOTrace.begin( "loadPropertiesFromResourceCached", cls, fileStr );
+        try {
+            return ResourceCache.getDefault().getProperties( cls, fileStr );
+        } catch ( final IOException | RuntimeException e ) {
+            trace.fail( e );
+            throw e;
+        } finally {
+            trace.end();
+        }
+    }
+
     /**
      * Load a resource as a string wrapped in an StringBuilder.
+     * The resource is decoded with the default charset and line endings are normalized like {@link Scanner#nextLine()}.
      *
      * @param cls           cls to load from
      * @param fileStr       file name
@@ -447,61 +1187,275 @@ public final class IOUtils {
      * @return String Builder with file content
      * @throws IOException          fail to load
      * @throws NullPointerException if {@code cls}|{@code fileStr}
+     * @see #loadResourceString(Class, String, Charset)
      */
     public static StringBuilder loadResourceString( final Class<?> cls, String fileStr, boolean appendNewLine ) throws IOException {
         Objects.requireNonNull( cls, "class is null" );
         Objects.requireNonNull( fileStr, "File is null!" );
-        StringBuilder sb = new StringBuilder();
 
-        try ( InputStream resIs = cls.getResourceAsStream( fileStr ) ) {
-            if ( null == resIs ) {
-                throw new IOException( "InputStream for resource '" + fileStr + "' can not created!Was null!" );
+        final Charset cs = Charset.defaultCharset();
+        final IOTrace trace = IOTrace.begin( "loadResourceString", cls, fileStr );
+        try {
+            final TextReader.Resource res = TextReader.open( cls, fileStr );
+            trace.bytes( res.length() );
+            try ( Reader reader = TextReader.reader( res.in(), cs ) ) {
+                final StringBuilder sb = new StringBuilder( TextReader.capacityFor( res.length(), cs ) );
+                TextReader.copyLines( reader, sb, appendNewLine );
+                return sb;
+            }
+        } catch ( final IOException | RuntimeException e ) {
+            trace.fail( e );
+            throw e;
+        } finally {
+            trace.end();
+        }
+    }
+
+    /**
+     * Load a resource as a string.
+     * The content is returned verbatim.
+     *
+     * @param cls     cls to load from
+     * @param fileStr file name
+     * @param cs      charset of resource
+     * @return content of resource
+     * @throws IOException          fail to load
+     * @throws NullPointerException if {@code cls}|{@code fileStr}|{@code cs}
+     */
+    public static String loadResourceString( final Class<?> cls, final String fileStr, final Charset cs ) throws IOException {
+        Objects.requireNonNull( cls, "class is null" );
+        Objects.requireNonNull( fileStr, "File is null!" );
+        Objects.requireNonNull( cs );
+
+        final IOTrace trace = IOTrace.begin( "loadResourceString", cls, fileStr );
+        try {
+            final TextReader.Resource res = TextReader.open( cls, fileStr );
+            trace.bytes( res.length() );
+            try ( Reader reader = TextReader.reader( res.in(), cs ) ) {
+                final StringBuilder sb = new StringBuilder( TextReader.capacityFor( res.length(), cs ) );
+                TextReader.copy( reader, sb );
+                return sb.toString();
             }
+        } catch ( final IOException | RuntimeException e ) {
+            trace.fail( e );
+            throw e;
+        } finally {
+            trace.end();
+        }
+    }
+
+    /**
+     * Load a resource as a string using the shared resource cache.
+     * The content is returned verbatim.
+     *
+     * @param cls     cls to load from
+     * @param fileStr file name
+     * @param cs      charset of resource
+     * @return content of resource
+     * @throws IOException          fail to load
+     * @throws NullPointerException if {@code cls}|{@code fileStr}|{@code cs}
+     * @see #getResourceCache()
+     */
+    public static String loadResourceStringCached( final Class<?> cls, final String fileStr, final Charset cs ) throws IOException {
+        Objects.requireNonNull( cls, "class is null" );
+        Objects.requireNonNull( fileStr, "File is null!" );
+        Objects.requireNonNull( cs );
+        final IOTrace trace = IOTrace.begin( "loadResourceStringCached", cls, fileStr );
+        try {
+            return ResourceCache.getDefault().getString( cls, fileStr, cs );
+        } catch ( final IOException | RuntimeException e ) {
+            trace.fail( e );
+            throw e;
+        } finally {
+            trace.end();
+        }
+    }
 
-            try (Scanner scan = new Scanner(resIs)) {
-                while (scan.hasNextLine()) {
-                    sb.append(scan.nextLine());
-                    if (appendNewLine) {
-                        sb.append('\n');
-                    }
-                }
+    /**
+     * Read a resource verbatim into an appendable.
+     *
+     * @param cls     cls to load from
+     * @param fileStr file name
+     * @param cs      charset of resource
+     * @param out     target
+     * @return number of chars read
+     * @throws IOException          fail to load or append
+     * @throws NullPointerException if {@code cls}|{@code fileStr}|{@code cs}|{@code out}
+     */
+    public static long readResource( final Class<?> cls, final String fileStr, final Charset cs, final Appendable out ) throws IOException {
+        Objects.requireNonNull( cls, "class is null" );
+        Objects.requireNonNull( fileStr, "File is null!" );
+        Objects.requireNonNull( cs );
+        Objects.requireNonNull( out );
+
+        final IOTrace trace = IOTrace.begin( "readResource", cls, fileStr );
+        try {
+            final TextReader.Resource res = TextReader.open( cls, fileStr );
+            trace.bytes( res.length() );
+            try ( Reader reader = TextReader.reader( res.in(), cs ) ) {
+                return TextReader.copy( reader, out );
             }
+        } catch ( final IOException | RuntimeException e ) {
+            trace.fail( e );
+            throw e;
+        } finally {
+            trace.end();
         }
+    }
 
-        return sb;
+    /**
+     * Read the lines of a resource lazily.
+     * The returned stream must be closed.
+     *
+     * @param cls     cls to load from
+     * @param fileStr file name
+     * @param cs      charset of resource
+     * @return lines of resource
+     * @throws IOException          fail to open
+     * @throws NullPointerException if {@code cls}|{@code fileStr}|{@code cs}
+     * @see BufferedReader#lines()
+     */
+    public static java.util.stream.Stream<String> lines( final Class<?> cls, final String fileStr, final Charset cs ) throws IOException {
+        Objects.requireNonNull( cls, "class is null" );
+        Objects.requireNonNull( fileStr, "File is null!" );
+        Objects.requireNonNull( cs );
+
+        final BufferedReader br = new BufferedReader( TextReader.reader( TextReader.open( cls, fileStr ).in(), cs ), TextReader.BUFFER_SIZE );
+        return br.lines().onClose( () -> {
+            try {
+                br.close();
+            } catch ( final IOException ioe ) {
+                throw new java.io.UncheckedIOException( ioe );
+            }
+        } );
     }
 
     /**
      * Write global JaMeLime properties file.
+     * The properties are written to a temporary file which is then moved over {@code path},
+     * so a crash never leaves a half written file.
      *
      * @param path Path to write
      * @param prop    properties
      * @param commentStr comment (optional)
      * @throws IOException          io
      * @throws NullPointerException if {@code path}|{@code prop} is null
+     * @see PropertiesWriter
      */
     public static void writeProperties(Path path, Properties prop, String commentStr ) throws IOException {
+        writeProperties( path, prop, commentStr, false );
+    }
+
+    /**
+     * Write properties file atomically.
+     *
+     * @param path Path to write
+     * @param prop    properties
+     * @param commentStr comment (optional)
+     * @param fsync force the file to disk before return
+     * @throws IOException          io
+     * @throws NullPointerException if {@code path}|{@code prop} is null
+     * @see #writeProperties(Path, Properties, String)
+     */
+    public static void writeProperties( final Path path, final Properties prop, final String commentStr, final boolean fsync ) throws IOException {
         Objects.requireNonNull( path );
         Objects.requireNonNull( prop );
-
-        if ( null == commentStr ) {
-            commentStr = "<Auto Generated Comment!>";
-        }
-
-        try ( BufferedWriter bw = Files.newBufferedWriter( path ) ) {
-            prop.store( bw, commentStr );
+        final IOTrace trace = IOTrace.begin( "writeProperties", path );
+        try {
+            storeProperties( path, prop, commentStr, fsync );
+        } catch ( final IOException | RuntimeException e ) {
+            trace.fail( e );
+            throw e;
+        } finally {
+            trace.end();
         }
 
         LOG.info( "Wrote to '{}' okay!!", path );
     }
+
     /**
-     * Converts a path to a file.
-     * @param path path to file
-     * @return file equivalent of {@code path}
-     * @throws NullPointerException if {@code path} is null
+     * Write properties file atomically without logging.
+     *
+     * @param path Path to write
+     * @param prop    properties
+     * @param commentStr comment (optional)
+     * @param fsync force the file to disk before return
+     * @throws IOException          io
+     * @throws NullPointerException if {@code path}|{@code prop} is null
+     */
+    static void storeProperties( final Path path, final Properties prop, final String commentStr, final boolean fsync ) throws IOException {
+        Objects.requireNonNull( path );
+        Objects.requireNonNull( prop );
+
+        final String comment = null == commentStr ? "<Auto Generated Comment!>" : commentStr;
+
+        AtomicFiles.writeText( path, bw -> prop.store( bw, comment ), fsync );
+    }
+
+    /**
+     * Fail and end a trace for a load refused before it started.
+     *
+     * @param trace trace
+     * @param e     cause
+     * @param <E>   type of cause
+     * @return {@code e} to throw
      */
-    private static File tof(final Path path ) {
+    private static <E extends Exception> E refused( final IOTrace trace, final E e ) {
+        trace.fail( e );
+        trace.end();
+        return e;
+    }
+
+    /**
+     * End a trace when the future completes.
+     *
+     * @param trace trace
+     * @param cf    future
+     * @param <T>   type of result
+     * @return {@code cf}
+     */
+    private static <T> CompletableFuture<T> traced( final IOTrace trace, final CompletableFuture<T> cf ) {
+        return traced( trace, cf, null );
+    }
+
+    private static <T> CompletableFuture<T> traced( final IOTrace trace, final CompletableFuture<T> cf,
+                                                                        final ToLongFunction<? super T> bytes ) {
+        cf.whenComplete( ( value, failure ) -> {
+            if ( null != failure ) {
+                trace.fail( failure );
+            } else if ( null != bytes ) {
+                trace.bytes( bytes.applyAsLong( value ) );
+            }
+            trace.end();
+        } );
+        return cf;
+    }
+
+    /**
+     * Load a javafx image and fail if the image is broken.
+     * @param path path to image
+     * @return image
+     * @throws IOException failed to read file or not an image
+     */
+    private static javafx.scene.image.Image loadJavaFXImageChecked( final Path path ) throws IOException {
+        final javafx.scene.image.Image img = loadJavaFXImage( path );
+        if ( img.isError() ) {
+            throw new IOException( "Path[='" + path + "'] is not a readable image", img.getException() );
+        }
+        return img;
+    }
+
+    /**
+     * Lazy holder of the shared image caches.
+     */
+    private static final class ImageCacheHolder {
+
+        static final ImageCache<java.awt.image.BufferedImage> AWT = new ImageCache<>( ImageCache.DEFAULT_MAX_BYTES,
+                img -> ( long ) img.getWidth() * img.getHeight() * Math.max( 1, img.getColorModel().getPixelSize() / 8 ),
+                IOUtils::loadBufferedImage );
 
-        return Objects.requireNonNull( path ).toFile();
+        static final ImageCache<javafx.scene.image.Image> FX = new ImageCache<>( ImageCache.DEFAULT_MAX_BYTES,
+                img -> ( long ) img.getWidth() * ( long ) img.getHeight() * 4L,
+                IOUtils::loadJavaFXImageChecked );
     }
 }
\ No newline at end of file
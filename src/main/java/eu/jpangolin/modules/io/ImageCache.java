@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) 2025 Tim Langhammer.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.jpangolin.modules.io;
+
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Image Cache.
+ * <p>
+ *     A thread safe cache for decoded images.
+ *     Entries are keyed by the absolute path of the image together with its last modified time and size,
+ *     so a changed file is loaded again and the stale entry is dropped.
+ * </p>
+ * <p>
+ *     The cache is bounded by the <u>decoded</u> pixel bytes of all entries and not by the entry count.
+ *     If the bound is exceeded the least recently used entries are evicted.
+ *     Concurrent requests for the same key are loading the image only once.
+ * </p>
+ * <p>
+ *     Note: cached images are shared. Callers must not modify them.
+ * </p>
+ *
+ * @param <T> type of image
+ * @author jTzipi
+ */
+public final class ImageCache<T> {
+
+    /**
+     * Default maximal pixel bytes of a cache (64 MiB).
+     */
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024L * 1024L;
+
+    // Logger
+    private static final org.slf4j.Logger LOG = LoggerFactory.getLogger( ImageCache.class );
+
+    private final long maxBytes;
+    private final ToLongFunction<? super T> weigher;
+    private final IOFunction<? super Path, ? extends T> loader;
+
+    // access ordered, guarded by itself
+    private final LinkedHashMap<Key, Entry<T>> lru = new LinkedHashMap<>( 64, 0.75F, true );
+    // latest key per path, guarded by lru
+    private final Map<Path, Key> keyByPath = new HashMap<>();
+    // loads in progress
+    private final ConcurrentHashMap<Key, CompletableFuture<T>> inFlight = new ConcurrentHashMap<>();
+    // current pixel bytes, guarded by lru
+    private long curBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+
+    /**
+     * Image Cache.
+     *
+     * @param maxBytes maximal decoded pixel bytes [1 .. ]
+     * @param weigher  computes the decoded pixel bytes of an image
+     * @param loader   loads an image from path
+     * @throws IllegalArgumentException if {@code maxBytes} &lt; 1
+     * @throws NullPointerException     if {@code weigher}|{@code loader} is null
+     */
+    public ImageCache( final long maxBytes, final ToLongFunction<? super T> weigher, final IOFunction<? super Path, ? extends T> loader ) {
+        if ( 1L > maxBytes ) {
+            throw new IllegalArgumentException( "max bytes[=" + maxBytes + "] < 1" );
+        }
+        this.maxBytes = maxBytes;
+        this.weigher = Objects.requireNonNull( weigher );
+        this.loader = Objects.requireNonNull( loader );
+    }
+
+    /**
+     * Return the image for path.
+     * If the image is not cached or the file changed since it was cached, it is loaded.
+     *
+     * @param path path to image
+     * @return image
+     * @throws IOException          if {@code path} is not readable or failed to decode
+     * @throws NullPointerException if {@code path} is null
+     */
+    public T get( final Path path ) throws IOException {
+        Objects.requireNonNull( path );
+
+        final Key key = keyOf( path );
+        T img = lookup( key );
+        if ( null != img ) {
+            hits.increment();
+            return img;
+        }
+
+        final CompletableFuture<T> own = new CompletableFuture<>();
+        final CompletableFuture<T> other = inFlight.putIfAbsent( key, own );
+        if ( null != other ) {
+            // some other thread is loading
+            hits.increment();
+            return await( other, path );
+        }
+
+        try {
+            // maybe finished between lookup and put
+            img = lookup( key );
+            if ( null == img ) {
+                misses.increment();
+                img = loader.apply( key.path() );
+                if ( null == img ) {
+                    throw new IOException( "Path[='" + path + "'] is not a readable image" );
+                }
+                put( key, img );
+            }
+            own.complete( img );
+            return img;
+        } catch ( final IOException | RuntimeException e ) {
+            loadFailures.increment();
+            own.completeExceptionally( e );
+            throw e;
+        } finally {
+            inFlight.remove( key, own );
+        }
+    }
+
+    /**
+     * Remove the image of path.
+     *
+     * @param path path to image
+     * @throws NullPointerException if {@code path} is null
+     */
+    public void invalidate( final Path path ) {
+        final Path abs = Objects.requireNonNull( path ).toAbsolutePath().normalize();
+        synchronized ( lru ) {
+            final Key key = keyByPath.remove( abs );
+            if ( null != key ) {
+                remove( key );
+            }
+        }
+    }
+
+    /**
+     * Remove all images.
+     */
+    public void clear() {
+        synchronized ( lru ) {
+            lru.clear();
+            keyByPath.clear();
+            curBytes = 0L;
+        }
+    }
+
+    /**
+     * Return the maximal pixel bytes.
+     *
+     * @return max bytes
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Return a snapshot of the statistics.
+     *
+     * @return statistic
+     */
+    public Stats stats() {
+        final int size;
+        final long bytes;
+        synchronized ( lru ) {
+            size = lru.size();
+            bytes = curBytes;
+        }
+        return new Stats( hits.sum(), misses.sum(), evictions.sum(), loadFailures.sum(), size, bytes );
+    }
+
+    private T lookup( final Key key ) {
+        synchronized ( lru ) {
+            final Entry<T> entry = lru.get( key );
+            return null == entry ? null : entry.img();
+        }
+    }
+
+    private void put( final Key key, final T img ) {
+        final long weight = Math.max( 1L, weigher.applyAsLong( img ) );
+        if ( weight > maxBytes ) {
+            LOG.debug( "Image[='{}'] with {} bytes exceeds cache size", key.path(), weight );
+            return;
+        }
+        synchronized ( lru ) {
+            // stale version of the same file
+            final Key old = keyByPath.put( key.path(), key );
+            if ( null != old && !old.equals( key ) ) {
+                remove( old );
+            }
+            final Entry<T> prev = lru.put( key, new Entry<>( img, weight ) );
+            if ( null != prev ) {
+                curBytes -= prev.weight();
+            }
+            curBytes += weight;
+
+            final Iterator<Map.Entry<Key, Entry<T>>> it = lru.entrySet().iterator();
+            while ( curBytes > maxBytes && it.hasNext() ) {
+                final Map.Entry<Key, Entry<T>> eldest = it.next();
+                if ( eldest.getKey().equals( key ) ) {
+                    continue;
+                }
+                it.remove();
+                keyByPath.remove( eldest.getKey().path(), eldest.getKey() );
+                curBytes -= eldest.getValue().weight();
+                evictions.increment();
+            }
+        }
+    }
+
+    // guarded by lru
+    private void remove( final Key key ) {
+        final Entry<T> entry = lru.remove( key );
+        if ( null != entry ) {
+            curBytes -= entry.weight();
+        }
+    }
+
+    private static Key keyOf( final Path path ) throws IOException {
+        final BasicFileAttributes attr;
+        try {
+            attr = Files.readAttributes( path, BasicFileAttributes.class );
+        } catch ( final IOException ioe ) {
+            throw new IOException( "Path[='" + path + "'] is not readable", ioe );
+        }
+        if ( attr.isDirectory() ) {
+            throw new IOException( "Path[='" + path + "'] is a directory" );
+        }
+        return new Key( path.toAbsolutePath().normalize(), attr.lastModifiedTime().toMillis(), attr.size() );
+    }
+
+    private static <T> T await( final CompletableFuture<T> future, final Path path ) throws IOException {
+        try {
+            return future.get();
+        } catch ( final InterruptedException ie ) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException( "Interrupted while waiting for image[='" + path + "']" );
+        } catch ( final ExecutionException ee ) {
+            final Throwable cause = ee.getCause();
+            if ( cause instanceof RuntimeException re ) {
+                throw re;
+            }
+            throw new IOException( "Failed to load image[='" + path + "']", cause );
+        }
+    }
+
+    /**
+     * Statistic of an image cache.
+     *
+     * @param hits         number of requests served from the cache or an other load in progress
+     * @param misses       number of loads
+     * @param evictions    number of entries evicted because of size
+     * @param loadFailures number of failed loads
+     * @param size         current number of entries
+     * @param bytes        current decoded pixel bytes
+     */
+    public record Stats( long hits, long misses, long evictions, long loadFailures, int size, long bytes ) {
+
+        /**
+         * Ratio of hits to all requests.
+         *
+         * @return hit ratio [0 .. 1]
+         */
+        public double hitRatio() {
+            final long total = hits + misses;
+            return 0L == total ? 0D : ( double ) hits / total;
+        }
+    }
+
+    private record Key( Path path, long lastModified, long size ) {
+    }
+
+    private record Entry<T>( T img, long weight ) {
+    }
+}
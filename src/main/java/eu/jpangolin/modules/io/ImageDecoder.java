@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2025 Tim Langhammer.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.jpangolin.modules.io;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Dimension;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Image Decoder.
+ * <p>
+ *     Decodes only the pixels needed with {@link ImageReadParam} source region and subsampling,
+ *     and reads image dimensions from the header only.
+ * </p>
+ *
+ * @author jTzipi
+ */
+final class ImageDecoder {
+
+    private ImageDecoder() {
+        throw new AssertionError( "--__--" );
+    }
+
+    /**
+     * Read the dimension of the first image without decoding pixels.
+     *
+     * @param path path to image
+     * @return dimension
+     * @throws IOException if not readable or no decoder found
+     */
+    static Dimension probe( final Path path ) throws IOException {
+        try ( ImageInputStream iis = open( path ) ) {
+            final ImageReader reader = readerFor( iis, path );
+            try {
+                reader.setInput( iis, true, true );
+                return new Dimension( reader.getWidth( 0 ), reader.getHeight( 0 ) );
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Decode the first image subsampled so that it is not smaller than the target size.
+     *
+     * @param path         path to image
+     * @param region       source region or {@code null} for the whole image
+     * @param targetWidth  target width or &lt;= 0 for no constraint
+     * @param targetHeight target height or &lt;= 0 for no constraint
+     * @return decoded image
+     * @throws IOException if not readable or no decoder found
+     */
+    static BufferedImage decode( final Path path, final Rectangle region, final int targetWidth, final int targetHeight ) throws IOException {
+        return decode( path, region, targetWidth, targetHeight, null );
+    }
+
+    /**
+     * Decode the first image subsampled so that it is not smaller than the target size,
+     * into a destination of one of the image types offered by the decoder if possible.
+     *
+     * @param path         path to image
+     * @param region       source region or {@code null} for the whole image
+     * @param targetWidth  target width or &lt;= 0 for no constraint
+     * @param targetHeight target height or &lt;= 0 for no constraint
+     * @param destination  creates the destination or {@code null} to let the decoder allocate it
+     * @return decoded image, the destination if one was created
+     * @throws IOException if not readable or no decoder found
+     */
+    static BufferedImage decode( final Path path, final Rectangle region, final int targetWidth, final int targetHeight,
+                                 final Destination destination ) throws IOException {
+        try ( ImageInputStream iis = open( path ) ) {
+            final ImageReader reader = readerFor( iis, path );
+            try {
+                reader.setInput( iis, true, true );
+                final Rectangle src = new Rectangle( 0, 0, reader.getWidth( 0 ), reader.getHeight( 0 ) );
+                if ( null != region ) {
+                    src.setBounds( src.intersection( region ) );
+                    if ( src.isEmpty() ) {
+                        throw new IllegalArgumentException( "Region " + region + " is outside of image[='" + path + "']" );
+                    }
+                }
+
+                final ImageReadParam param = reader.getDefaultReadParam();
+                if ( null != region ) {
+                    param.setSourceRegion( src );
+                }
+                final int sub = subsampling( src.width, src.height, targetWidth, targetHeight );
+                if ( 1 < sub ) {
+                    param.setSourceSubsampling( sub, sub, 0, 0 );
+                }
+                if ( null != destination ) {
+                    // size of the subsampled region
+                    final int width = ( src.width + sub - 1 ) / sub;
+                    final int height = ( src.height + sub - 1 ) / sub;
+                    for ( final int type : imageTypes( reader ) ) {
+                        final BufferedImage dst = destination.create( type, width, height );
+                        if ( null != dst ) {
+                            param.setDestination( dst );
+                            break;
+                        }
+                    }
+                }
+                return reader.read( 0, param );
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Compute the largest subsampling keeping the image at least target size.
+     *
+     * @param width        source width
+     * @param height       source height
+     * @param targetWidth  target width or &lt;= 0 for no constraint
+     * @param targetHeight target height or &lt;= 0 for no constraint
+     * @return subsampling [1 .. ]
+     */
+    static int subsampling( final int width, final int height, final int targetWidth, final int targetHeight ) {
+        final int sx = 0 >= targetWidth ? Integer.MAX_VALUE : width / targetWidth;
+        final int sy = 0 >= targetHeight ? Integer.MAX_VALUE : height / targetHeight;
+        final int sub = Math.min( sx, sy );
+        return Integer.MAX_VALUE == sub ? 1 : Math.max( 1, sub );
+    }
+
+    /**
+     * Creates the destination of a decode.
+     */
+    @FunctionalInterface
+    interface Destination {
+
+        /**
+         * Create a destination.
+         *
+         * @param imageType type offered by the decoder like {@linkplain BufferedImage#TYPE_INT_RGB}
+         * @param width     width of the decoded image
+         * @param height    height of the decoded image
+         * @return image of {@code imageType} and size or {@code null} if the type is not supported
+         */
+        BufferedImage create( int imageType, int width, int height );
+    }
+
+    // types the decoder can write into
+    private static List<Integer> imageTypes( final ImageReader reader ) throws IOException {
+        final List<Integer> types = new ArrayList<>();
+        final Iterator<ImageTypeSpecifier> it = reader.getImageTypes( 0 );
+        while ( it.hasNext() ) {
+            types.add( it.next().getBufferedImageType() );
+        }
+        // the JPEG decoder converts color images into any RGB destination, though it offers byte layouts only
+        if ( types.contains( BufferedImage.TYPE_3BYTE_BGR ) && !types.contains( BufferedImage.TYPE_INT_RGB )
+                && "jpeg".equalsIgnoreCase( reader.getFormatName() ) ) {
+            types.add( BufferedImage.TYPE_INT_RGB );
+        }
+        return types;
+    }
+
+    private static ImageInputStream open( final Path path ) throws IOException {
+        final ImageInputStream iis = ImageIO.createImageInputStream( path.toFile() );
+        if ( null == iis ) {
+            throw new IOException( "Path[='" + path + "'] is not readable" );
+        }
+        return iis;
+    }
+
+    private static ImageReader readerFor( final ImageInputStream iis, final Path path ) throws IOException {
+        final Iterator<ImageReader> readers = ImageIO.getImageReaders( iis );
+        if ( !readers.hasNext() ) {
+            throw new IOException( "No image decoder for path[='" + path + "']" );
+        }
+        return readers.next();
+    }
+}
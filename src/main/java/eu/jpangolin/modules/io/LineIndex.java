@@ -0,0 +1,406 @@
+/*
+ * Copyright (c) 2025 Tim Langhammer.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.jpangolin.modules.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.IntStream;
+
+/**
+ * Line Index.
+ * <p>
+ *     Sparse index of line start offsets for random access into large text files.
+ *     The file is scanned once for newlines in chunks of {@linkplain #CHUNK_SIZE} in parallel on a {@link MappedFile}.
+ *     About every {@code stride}-th line start is kept in primitive arrays, so reading line N looks up the nearest
+ *     entry with a binary search, seeks to it and skips less than {@code stride} lines.
+ * </p>
+ * <p>
+ *     Lines end with {@code '\n'}, a preceding {@code '\r'} is removed. The charset must encode {@code '\n'} as the single
+ *     byte {@code 0x0A}, like UTF-8 or ISO-8859-1.
+ * </p>
+ * <p>
+ *     {@link #refresh()} extends the index if the file grew, for instance a log file written to, and scans only the new bytes.
+ *     A file which got smaller is indexed again.
+ * </p>
+ *
+ * @author jTzipi
+ */
+public final class LineIndex implements AutoCloseable {
+
+    /**
+     * Default number of lines between two index entries.
+     */
+    public static final int DEFAULT_STRIDE = 1024;
+    /**
+     * Size of a chunk scanned in parallel (16 MiB).
+     * Divides {@linkplain MappedFile#DEFAULT_WINDOW_SIZE}, so a chunk never crosses a mapping.
+     */
+    public static final int CHUNK_SIZE = 16 * 1024 * 1024;
+
+    private static final long NEWLINES = 0x0A0A0A0A0A0A0A0AL;
+    private static final long LOW7 = 0x7F7F7F7F7F7F7F7FL;
+
+    private final Path path;
+    private final Charset cs;
+    private final int stride;
+    private final FileChannel fc;
+
+    // guarded by this
+    private long[] lines = new long[16];
+    private long[] offsets = new long[16];
+    private int entries;
+    private long newlines;
+    private long lastLineStart;
+    private long indexedSize;
+
+    private LineIndex( final Path path, final Charset cs, final int stride, final FileChannel fc ) {
+        this.path = path;
+        this.cs = cs;
+        this.stride = stride;
+        this.fc = fc;
+        reset();
+    }
+
+    /**
+     * Index a file with UTF-8 and {@linkplain #DEFAULT_STRIDE}.
+     *
+     * @param path path to text file
+     * @return line index
+     * @throws IOException          if {@code path} is not readable
+     * @throws NullPointerException if {@code path} is null
+     */
+    public static LineIndex build( final Path path ) throws IOException {
+        return build( path, StandardCharsets.UTF_8, DEFAULT_STRIDE );
+    }
+
+    /**
+     * Index a file.
+     *
+     * @param path   path to text file
+     * @param cs     charset
+     * @param stride lines between two index entries [1 .. ]
+     * @return line index
+     * @throws IOException              if {@code path} is not readable
+     * @throws NullPointerException     if {@code path}|{@code cs} is null
+     * @throws IllegalArgumentException if {@code stride} &lt; 1 or {@code cs} does not encode {@code '\n'} as one byte
+     */
+    public static LineIndex build( final Path path, final Charset cs, final int stride ) throws IOException {
+        Objects.requireNonNull( path );
+        Objects.requireNonNull( cs );
+        if ( 1 > stride ) {
+            throw new IllegalArgumentException( "stride[=" + stride + "] < 1" );
+        }
+        if ( !Arrays.equals( new byte[]{ '\n' }, "\n".getBytes( cs ) ) ) {
+            throw new IllegalArgumentException( "Charset[=" + cs + "] does not encode '\\n' as one byte" );
+        }
+        final FileChannel fc = FileChannel.open( path, StandardOpenOption.READ );
+        try {
+            final LineIndex li = new LineIndex( path, cs, stride, fc );
+            li.refresh();
+            return li;
+        } catch ( final IOException | RuntimeException e ) {
+            fc.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Extend the index to the current size of the file.
+     * If the file got smaller it is indexed again.
+     *
+     * @return {@code true} if the index changed
+     * @throws IOException if failed to read
+     */
+    public synchronized boolean refresh() throws IOException {
+        final long size = fc.size();
+        if ( size == indexedSize ) {
+            return false;
+        }
+        if ( size < indexedSize ) {
+            reset();
+        }
+        scan( indexedSize, size );
+        return true;
+    }
+
+    /**
+     * Read lines.
+     *
+     * @param from  first line [0 .. line count]
+     * @param count maximal number of lines [0 .. ]
+     * @return lines, fewer than {@code count} at the end of the index
+     * @throws IOException               if failed to read
+     * @throws IndexOutOfBoundsException if {@code from} is out of bounds
+     * @throws IllegalArgumentException  if {@code count} &lt; 0
+     */
+    public List<String> readLines( final long from, final int count ) throws IOException {
+        if ( 0 > count ) {
+            throw new IllegalArgumentException( "count[=" + count + "] < 0" );
+        }
+        final long start;
+        final long end;
+        long skip;
+        synchronized ( this ) {
+            Objects.checkIndex( from, getLineCount() + 1L );
+            final int e = entryOf( from );
+            start = offsets[e];
+            skip = from - lines[e];
+            end = indexedSize;
+        }
+
+        final List<String> result = new ArrayList<>( Math.min( count, 1024 ) );
+        if ( 0 == count ) {
+            return result;
+        }
+        final ByteBuffer buf = ByteBuffer.allocate( PlatformProfile.get().bufferSize() );
+        final ByteArrayOutputStream line = new ByteArrayOutputStream( 256 );
+        long pos = start;
+        while ( pos < end ) {
+            buf.clear().limit( ( int ) Math.min( buf.capacity(), end - pos ) );
+            final int n = fc.read( buf, pos );
+            if ( 0 > n ) {
+                break;
+            }
+            final byte[] arr = buf.array();
+            int i = 0;
+            if ( 0L < skip ) {
+                while ( i < n && 0L < skip ) {
+                    if ( '\n' == arr[i++] ) {
+                        skip--;
+                    }
+                }
+            }
+            int lineStart = i;
+            for ( ; i < n; i++ ) {
+                if ( '\n' == arr[i] ) {
+                    line.write( arr, lineStart, i - lineStart );
+                    result.add( decode( line ) );
+                    line.reset();
+                    if ( result.size() == count ) {
+                        return result;
+                    }
+                    lineStart = i + 1;
+                }
+            }
+            line.write( arr, lineStart, n - lineStart );
+            pos += n;
+        }
+        // last line without newline
+        if ( 0L == skip && 0 < line.size() ) {
+            result.add( decode( line ) );
+        }
+        return result;
+    }
+
+    /**
+     * Return number of lines.
+     * A last line without newline counts.
+     *
+     * @return lines
+     */
+    public synchronized long getLineCount() {
+        return newlines + ( indexedSize > lastLineStart ? 1L : 0L );
+    }
+
+    /**
+     * Return number of bytes indexed.
+     *
+     * @return indexed size
+     */
+    public synchronized long getIndexedSize() {
+        return indexedSize;
+    }
+
+    /**
+     * Return number of index entries.
+     *
+     * @return entries
+     */
+    public synchronized int getEntryCount() {
+        return entries;
+    }
+
+    /**
+     * Return path.
+     *
+     * @return path to text file
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Close the file.
+     *
+     * @throws IOException if failed to close
+     */
+    @Override
+    public void close() throws IOException {
+        fc.close();
+    }
+
+    // guarded by this
+    private void reset() {
+        entries = 0;
+        newlines = 0L;
+        lastLineStart = 0L;
+        indexedSize = 0L;
+        add( 0L, 0L );
+    }
+
+    // guarded by this
+    private void scan( final long from, final long to ) throws IOException {
+        // first entry of the scan continues the stride of the lines before
+        final int first = ( int ) ( ( stride - ( newlines + 1L ) % stride ) % stride );
+        final Chunk[] chunks;
+        if ( to - from < PlatformProfile.get().mmapThreshold() ) {
+            final ByteBuffer buf = ByteBuffer.allocate( ( int ) ( to - from ) );
+            while ( buf.hasRemaining() ) {
+                if ( 0 > fc.read( buf, from + buf.position() ) ) {
+                    break;
+                }
+            }
+            chunks = new Chunk[]{ scan( buf.flip(), from, first ) };
+        } else {
+            try ( MappedFile mf = MappedFile.open( path ) ) {
+                final long end = Math.min( to, mf.size() );
+                final long firstChunk = from / CHUNK_SIZE;
+                final int count = ( int ) ( ( end + CHUNK_SIZE - 1L ) / CHUNK_SIZE - firstChunk );
+                // page faults block, so keep them off the common pool
+                chunks = DirectoryScanner.walkPool().invoke( ForkJoinTask.adapt( () -> IntStream.range( 0, count ).parallel()
+                        .mapToObj( i -> {
+                            final long pos = Math.max( from, ( firstChunk + i ) * CHUNK_SIZE );
+                            final long len = Math.min( end, ( firstChunk + i + 1L ) * CHUNK_SIZE ) - pos;
+                            return mf.withSlice( pos, ( int ) len, bb -> scan( bb, pos, 0 == i ? first : 0 ) );
+                        } )
+                        .toArray( Chunk[]::new ) ) );
+            }
+        }
+
+        long end = from;
+        for ( final Chunk chunk : chunks ) {
+            for ( int j = 0; j < chunk.sampleCount(); j++ ) {
+                add( newlines + chunk.first() + ( long ) j * stride + 1L, chunk.samples()[j] );
+            }
+            newlines += chunk.newlines();
+            if ( 0L <= chunk.lastLineStart() ) {
+                lastLineStart = chunk.lastLineStart();
+            }
+            end = chunk.end();
+        }
+        indexedSize = end;
+    }
+
+    // newlines of a region, sampling line starts from the first-th newline on every stride-th
+    private Chunk scan( final ByteBuffer bb, final long filePos, final int first ) {
+        final ByteBuffer buf = bb.duplicate().order( ByteOrder.LITTLE_ENDIAN );
+        final int len = buf.limit();
+        final Sampler sampler = new Sampler( filePos, first );
+        int i = 0;
+        for ( ; i + 8 <= len; i += 8 ) {
+            final long w = buf.getLong( i ) ^ NEWLINES;
+            // high bit set for each zero byte, that is each newline
+            long t = ~( ( ( w & LOW7 ) + LOW7 ) | w | LOW7 );
+            while ( 0L != t ) {
+                sampler.newline( i + ( Long.numberOfTrailingZeros( t ) >>> 3 ) );
+                t &= t - 1L;
+            }
+        }
+        for ( ; i < len; i++ ) {
+            if ( '\n' == buf.get( i ) ) {
+                sampler.newline( i );
+            }
+        }
+        return new Chunk( sampler.newlines, sampler.lastLineStart, sampler.samples, sampler.count, first, filePos + len );
+    }
+
+    // guarded by this
+    private void add( final long line, final long offset ) {
+        if ( entries == lines.length ) {
+            lines = Arrays.copyOf( lines, 2 * entries );
+            offsets = Arrays.copyOf( offsets, 2 * entries );
+        }
+        lines[entries] = line;
+        offsets[entries] = offset;
+        entries++;
+    }
+
+    // guarded by this; last entry with line <= the given line
+    private int entryOf( final long line ) {
+        final int idx = Arrays.binarySearch( lines, 0, entries, line );
+        return 0 <= idx ? idx : -idx - 2;
+    }
+
+    private String decode( final ByteArrayOutputStream line ) {
+        final String str = line.toString( cs );
+        return str.endsWith( "\r" ) ? str.substring( 0, str.length() - 1 ) : str;
+    }
+
+    /**
+     * Scanned region.
+     *
+     * @param newlines      number of newlines
+     * @param lastLineStart offset after the last newline or -1 if none
+     * @param samples       offsets of sampled line starts
+     * @param sampleCount   number of samples
+     * @param first         local index of the first sampled newline
+     * @param end           end offset of region
+     */
+    private record Chunk( long newlines, long lastLineStart, long[] samples, int sampleCount, int first, long end ) {
+    }
+
+    private final class Sampler {
+
+        private final long filePos;
+        private long[] samples = new long[8];
+        private int count;
+        private long newlines;
+        private long lastLineStart = -1L;
+        private int until;
+
+        Sampler( final long filePos, final int first ) {
+            this.filePos = filePos;
+            this.until = first;
+        }
+
+        void newline( final int idx ) {
+            newlines++;
+            lastLineStart = filePos + idx + 1L;
+            if ( 0 == until ) {
+                if ( count == samples.length ) {
+                    samples = Arrays.copyOf( samples, 2 * count );
+                }
+                samples[count++] = lastLineStart;
+                until = stride - 1;
+            } else {
+                until--;
+            }
+        }
+    }
+}
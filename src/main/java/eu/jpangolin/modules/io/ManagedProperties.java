@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2025 Tim Langhammer.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.jpangolin.modules.io;
+
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Managed Properties.
+ * <p>
+ *     Holds the content of a properties file as an immutable snapshot.
+ *     Reads are served from the current snapshot and take no lock.
+ * </p>
+ * <p>
+ *     The file is watched by the {@linkplain WatchHub#getDefault() shared watch hub} and parsed again only if its
+ *     last modified time or size changed.
+ *     Listeners receive the difference between the old and the new snapshot.
+ * </p>
+ *
+ * @author jTzipi
+ */
+public final class ManagedProperties implements AutoCloseable {
+
+    // Logger
+    private static final org.slf4j.Logger LOG = LoggerFactory.getLogger( ManagedProperties.class );
+
+    private final Path path;
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    private final List<Consumer<? super Diff>> listeners = new CopyOnWriteArrayList<>();
+    private volatile WatchHub.Registration registration;
+
+    private ManagedProperties( final Path path ) throws IOException {
+        this.path = path;
+        this.current.set( read( path ) );
+    }
+
+    /**
+     * Load properties and watch the file for changes.
+     *
+     * @param path path to properties
+     * @return managed properties
+     * @throws IOException              if {@code path} !readable
+     * @throws NullPointerException     if {@code path} is null
+     * @throws IllegalArgumentException if {@code path} is dir
+     */
+    public static ManagedProperties open( final Path path ) throws IOException {
+        Objects.requireNonNull( path );
+        final ManagedProperties mp = new ManagedProperties( path.toAbsolutePath().normalize() );
+        mp.registration = WatchHub.getDefault().watch( mp.path, mp::changed );
+        return mp;
+    }
+
+    /**
+     * Return the value of key.
+     *
+     * @param key key
+     * @return value or {@code null} if not present
+     * @throws NullPointerException if {@code key} is null
+     */
+    public String get( final String key ) {
+        return current.get().values().get( Objects.requireNonNull( key ) );
+    }
+
+    /**
+     * Return the value of key or a default.
+     *
+     * @param key key
+     * @param def default value
+     * @return value or {@code def} if not present
+     * @throws NullPointerException if {@code key} is null
+     */
+    public String get( final String key, final String def ) {
+        final String value = get( key );
+        return null == value ? def : value;
+    }
+
+    /**
+     * Return the current snapshot.
+     *
+     * @return immutable map of all properties
+     */
+    public Map<String, String> snapshot() {
+        return current.get().values();
+    }
+
+    /**
+     * Return a copy of the current snapshot as properties.
+     *
+     * @return properties
+     */
+    public Properties toProperties() {
+        final Properties prop = new Properties();
+        prop.putAll( snapshot() );
+        return prop;
+    }
+
+    /**
+     * Return path.
+     *
+     * @return path to properties
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Add a listener called with the difference after each change.
+     * Listeners are called on a virtual thread of the watch hub.
+     *
+     * @param listener listener
+     * @throws NullPointerException if {@code listener} is null
+     */
+    public void addListener( final Consumer<? super Diff> listener ) {
+        listeners.add( Objects.requireNonNull( listener ) );
+    }
+
+    /**
+     * Remove a listener.
+     *
+     * @param listener listener
+     */
+    public void removeListener( final Consumer<? super Diff> listener ) {
+        listeners.remove( listener );
+    }
+
+    /**
+     * Parse the file again if it changed.
+     *
+     * @return {@code true} if the snapshot changed
+     * @throws IOException if {@code path} !readable
+     */
+    public boolean reload() throws IOException {
+        final Snapshot old = current.get();
+        final BasicFileAttributes attr = Files.readAttributes( path, BasicFileAttributes.class );
+        if ( old.lastModified() == attr.lastModifiedTime().toMillis() && old.size() == attr.size() ) {
+            return false;
+        }
+        final Snapshot now = read( path );
+        if ( !current.compareAndSet( old, now ) ) {
+            // concurrent reload won
+            return false;
+        }
+        final Diff diff = Diff.of( old.values(), now.values() );
+        if ( diff.isEmpty() ) {
+            return false;
+        }
+        LOG.debug( "Properties[='{}'] changed: {}", path, diff );
+        for ( final Consumer<? super Diff> listener : listeners ) {
+            try {
+                listener.accept( diff );
+            } catch ( final RuntimeException re ) {
+                LOG.warn( "Listener of properties[='{}'] failed", path, re );
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stop watching the file.
+     */
+    @Override
+    public void close() {
+        final WatchHub.Registration reg = registration;
+        if ( null != reg ) {
+            reg.close();
+            LOG.debug( "Stop watching properties[='{}']", path );
+        }
+    }
+
+    private void changed( final WatchHub.Change change ) {
+        // a delete is followed by a create when replaced
+        if ( WatchHub.Kind.DELETED != change.kind() ) {
+            reloadQuietly();
+        }
+    }
+
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch ( final NoSuchFileException nsfe ) {
+            // replaced right now; next event will follow
+        } catch ( final IOException | RuntimeException e ) {
+            LOG.warn( "Failed to reload properties[='{}']", path, e );
+        }
+    }
+
+    private static Snapshot read( final Path path ) throws IOException {
+        final BasicFileAttributes attr = Files.readAttributes( path, BasicFileAttributes.class );
+        final Properties prop = IOUtils.loadProperties( path );
+        final Map<String, String> values = new HashMap<>( prop.size() * 2 );
+        for ( final String key : prop.stringPropertyNames() ) {
+            values.put( key, prop.getProperty( key ) );
+        }
+        return new Snapshot( Map.copyOf( values ), attr.lastModifiedTime().toMillis(), attr.size() );
+    }
+
+    /**
+     * Difference of two snapshots.
+     *
+     * @param added   new keys with value
+     * @param removed removed keys with old value
+     * @param changed changed keys with new value
+     */
+    public record Diff( Map<String, String> added, Map<String, String> removed, Map<String, String> changed ) {
+
+        static Diff of( final Map<String, String> old, final Map<String, String> now ) {
+            final Map<String, String> added = new HashMap<>();
+            final Map<String, String> changed = new HashMap<>();
+            final Map<String, String> removed = new HashMap<>();
+            now.forEach( ( k, v ) -> {
+                final String prev = old.get( k );
+                if ( null == prev ) {
+                    added.put( k, v );
+                } else if ( !prev.equals( v ) ) {
+                    changed.put( k, v );
+                }
+            } );
+            old.forEach( ( k, v ) -> {
+                if ( !now.containsKey( k ) ) {
+                    removed.put( k, v );
+                }
+            } );
+            return new Diff( Map.copyOf( added ), Map.copyOf( removed ), Map.copyOf( changed ) );
+        }
+
+        /**
+         * Is there no difference.
+         *
+         * @return {@code true} if nothing changed
+         */
+        public boolean isEmpty() {
+            return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+        }
+    }
+
+    private record Snapshot( Map<String, String> values, long lastModified, long size ) {
+    }
+}
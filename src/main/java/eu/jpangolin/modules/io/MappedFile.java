@@ -0,0 +1,433 @@
+/*
+ * Copyright (c) 2025 Tim Langhammer.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.jpangolin.modules.io;
+
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Mapped File.
+ * <p>
+ *     Read only memory mapped access to a file of any size.
+ *     The file is mapped lazily in windows of fixed size, so files larger than 2 GiB are supported.
+ *     Reads are served from the mapping without copying to heap arrays.
+ * </p>
+ * <p>
+ *     Mappings are released eagerly on {@link #close()}, since reading an unmapped region may crash the VM.
+ *     Reads of this class in flight on other threads are waited for: the last of them releases the mappings.
+ *     Once a view escaped by {@link #slice(long, int)} or {@link #getWindow(int)} the mappings are
+ *     only dropped on close and left to the garbage collector, which unmaps them when no view is reachable.
+ *     Views must not be used after close. Prefer {@link #withSlice(long, int, Function)}, which keeps
+ *     eager release.
+ * </p>
+ * <p>
+ *     The size of the file is fixed at open.
+ * </p>
+ *
+ * @author jTzipi
+ */
+public final class MappedFile implements AutoCloseable {
+
+    /**
+     * Default window size (64 MiB).
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    // Logger
+    private static final org.slf4j.Logger LOG = LoggerFactory.getLogger( MappedFile.class );
+
+    private final Path path;
+    private final FileChannel fc;
+    private final long size;
+    private final int windowSize;
+    private final AtomicReferenceArray<MappedByteBuffer> windows;
+    // reads in flight
+    private final AtomicInteger readers = new AtomicInteger();
+    private volatile boolean closed;
+    // a view was handed out, unmapping is left to the garbage collector
+    private volatile boolean escaped;
+
+    private MappedFile( final Path path, final FileChannel fc, final int windowSize ) throws IOException {
+        this.path = path;
+        this.fc = fc;
+        this.size = fc.size();
+        this.windowSize = windowSize;
+        this.windows = new AtomicReferenceArray<>( ( int ) ( ( size + windowSize - 1L ) / windowSize ) );
+    }
+
+    /**
+     * Open a file with the default window size.
+     *
+     * @param path path to file
+     * @return mapped file
+     * @throws IOException          if not readable
+     * @throws NullPointerException if {@code path} is null
+     */
+    public static MappedFile open( final Path path ) throws IOException {
+        return open( path, DEFAULT_WINDOW_SIZE );
+    }
+
+    /**
+     * Open a file.
+     *
+     * @param path       path to file
+     * @param windowSize size of a single mapping [1 .. ]
+     * @return mapped file
+     * @throws IOException              if not readable
+     * @throws NullPointerException     if {@code path} is null
+     * @throws IllegalArgumentException if {@code windowSize} &lt; 1
+     */
+    public static MappedFile open( final Path path, final int windowSize ) throws IOException {
+        Objects.requireNonNull( path );
+        if ( 1 > windowSize ) {
+            throw new IllegalArgumentException( "window size[=" + windowSize + "] < 1" );
+        }
+        final FileChannel fc = FileChannel.open( path, StandardOpenOption.READ );
+        try {
+            return new MappedFile( path, fc, windowSize );
+        } catch ( final IOException | RuntimeException e ) {
+            fc.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Return size of file.
+     *
+     * @return size in bytes
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Return window size.
+     *
+     * @return size of a single mapping
+     */
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * Return path.
+     *
+     * @return path to file
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Read a byte.
+     *
+     * @param pos position [0 .. size)
+     * @return byte at position
+     * @throws IndexOutOfBoundsException if {@code pos} is out of bounds
+     * @throws IllegalStateException     if closed
+     * @throws UncheckedIOException      if failed to map
+     */
+    public byte get( final long pos ) {
+        Objects.checkIndex( pos, size );
+        enter();
+        try {
+            return window( ( int ) ( pos / windowSize ) ).get( ( int ) ( pos % windowSize ) );
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Read bytes into a buffer.
+     * Reads until {@code dst} is full or the end of file is reached.
+     *
+     * @param pos position [0 .. size]
+     * @param dst target buffer
+     * @return number of bytes read or -1 if {@code pos} is the end of file
+     * @throws IndexOutOfBoundsException if {@code pos} is out of bounds
+     * @throws IllegalStateException     if closed
+     * @throws UncheckedIOException      if failed to map
+     */
+    public int read( long pos, final ByteBuffer dst ) {
+        Objects.requireNonNull( dst );
+        Objects.checkIndex( pos, size + 1L );
+        if ( size == pos ) {
+            return -1;
+        }
+        int total = 0;
+        enter();
+        try {
+            while ( dst.hasRemaining() && pos < size ) {
+                final MappedByteBuffer win = window( ( int ) ( pos / windowSize ) );
+                final int off = ( int ) ( pos % windowSize );
+                final int len = Math.min( dst.remaining(), win.capacity() - off );
+                dst.put( dst.position(), win, off, len );
+                dst.position( dst.position() + len );
+                pos += len;
+                total += len;
+            }
+        } finally {
+            exit();
+        }
+        return total;
+    }
+
+    /**
+     * Return a read only view of a region.
+     * If the region lies in a single window no new mapping is created.
+     *
+     * @param pos position [0 .. size]
+     * @param len length [0 .. size - pos]
+     * @return read only view
+     * @throws IndexOutOfBoundsException if the region is out of bounds
+     * @throws IllegalStateException     if closed
+     * @throws UncheckedIOException      if failed to map
+     */
+    public ByteBuffer slice( final long pos, final int len ) {
+        Objects.checkFromIndexSize( pos, len, size );
+        if ( 0 == len ) {
+            return ByteBuffer.allocate( 0 ).asReadOnlyBuffer();
+        }
+        enter();
+        try {
+            escaped = true;
+            return sliceOf( pos, len ).asReadOnlyBuffer();
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Apply a function to a read only view of a region.
+     * The view is valid during the call only and must not escape it.
+     * Unlike {@link #slice(long, int)} this keeps the eager release of mappings on close.
+     *
+     * @param pos position [0 .. size]
+     * @param len length [0 .. size - pos]
+     * @param fn  function
+     * @param <R> type of result
+     * @return result of {@code fn}
+     * @throws NullPointerException      if {@code fn} is null
+     * @throws IndexOutOfBoundsException if the region is out of bounds
+     * @throws IllegalStateException     if closed
+     * @throws UncheckedIOException      if failed to map
+     */
+    public <R> R withSlice( final long pos, final int len, final Function<? super ByteBuffer, ? extends R> fn ) {
+        Objects.requireNonNull( fn );
+        Objects.checkFromIndexSize( pos, len, size );
+        if ( 0 == len ) {
+            return fn.apply( ByteBuffer.allocate( 0 ).asReadOnlyBuffer() );
+        }
+        final int off = ( int ) ( pos % windowSize );
+        enter();
+        try {
+            final MappedByteBuffer win = window( ( int ) ( pos / windowSize ) );
+            if ( off + len <= win.capacity() ) {
+                return fn.apply( win.slice( off, len ).asReadOnlyBuffer() );
+            }
+            // crosses a window border
+            final MappedByteBuffer mbb = map( pos, len );
+            try {
+                return fn.apply( mbb.asReadOnlyBuffer() );
+            } finally {
+                Unmapper.unmap( mbb );
+            }
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Visit all windows in file order.
+     * Each window is a read only view.
+     *
+     * @param consumer consumer of windows
+     * @throws NullPointerException  if {@code consumer} is null
+     * @throws IllegalStateException if closed
+     * @throws UncheckedIOException  if failed to map
+     */
+    public void forEachWindow( final Consumer<? super ByteBuffer> consumer ) {
+        Objects.requireNonNull( consumer );
+        enter();
+        try {
+            for ( int i = 0; i < windows.length(); i++ ) {
+                consumer.accept( window( i ).asReadOnlyBuffer() );
+            }
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Return number of windows.
+     *
+     * @return window count
+     */
+    public int getWindowCount() {
+        return windows.length();
+    }
+
+    /**
+     * Return a read only view of a window.
+     * The view must not be used after close.
+     *
+     * @param idx index of window [0 .. window count)
+     * @return window
+     * @throws IndexOutOfBoundsException if {@code idx} is out of bounds
+     * @throws IllegalStateException     if closed
+     * @throws UncheckedIOException      if failed to map
+     */
+    public ByteBuffer getWindow( final int idx ) {
+        Objects.checkIndex( idx, windows.length() );
+        enter();
+        try {
+            escaped = true;
+            return window( idx ).asReadOnlyBuffer();
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Release all mappings and close the file.
+     * Mappings in use by reads on other threads are released by the last of them.
+     *
+     * @throws IOException if failed to close
+     */
+    @Override
+    public void close() throws IOException {
+        if ( closed ) {
+            return;
+        }
+        closed = true;
+        if ( 0 == readers.get() ) {
+            release();
+        }
+        fc.close();
+    }
+
+    private void enter() {
+        readers.incrementAndGet();
+        if ( closed ) {
+            exit();
+            throw new IllegalStateException( "Mapped file[='" + path + "'] closed" );
+        }
+    }
+
+    private void exit() {
+        if ( 0 == readers.decrementAndGet() && closed ) {
+            release();
+        }
+    }
+
+    private MappedByteBuffer window( final int idx ) {
+        MappedByteBuffer win = windows.get( idx );
+        if ( null != win ) {
+            return win;
+        }
+        final long pos = ( long ) idx * windowSize;
+        win = map( pos, ( int ) Math.min( windowSize, size - pos ) );
+        if ( !windows.compareAndSet( idx, null, win ) ) {
+            // never seen by anyone else
+            Unmapper.unmap( win );
+            win = windows.get( idx );
+        }
+        return win;
+    }
+
+    private ByteBuffer sliceOf( final long pos, final int len ) {
+        final int off = ( int ) ( pos % windowSize );
+        final MappedByteBuffer win = window( ( int ) ( pos / windowSize ) );
+        if ( off + len <= win.capacity() ) {
+            return win.slice( off, len );
+        }
+        // crosses a window border, unmapped by the garbage collector
+        return map( pos, len );
+    }
+
+    private MappedByteBuffer map( final long pos, final int len ) {
+        if ( closed ) {
+            throw new IllegalStateException( "Mapped file[='" + path + "'] closed" );
+        }
+        try {
+            return fc.map( FileChannel.MapMode.READ_ONLY, pos, len );
+        } catch ( final IOException ioe ) {
+            throw new UncheckedIOException( "Failed to map[='" + path + "'] at " + pos, ioe );
+        }
+    }
+
+    // called with no read in flight; views may be reachable if escaped
+    private void release() {
+        final boolean unmap = !escaped;
+        for ( int i = 0; i < windows.length(); i++ ) {
+            final MappedByteBuffer win = windows.getAndSet( i, null );
+            if ( null != win && unmap ) {
+                Unmapper.unmap( win );
+            }
+        }
+    }
+
+    /**
+     * Releases a mapping without waiting for the garbage collector.
+     * Uses {@code sun.misc.Unsafe#invokeCleaner} if available.
+     */
+    private static final class Unmapper {
+
+        private static final MethodHandle INVOKE_CLEANER = lookup();
+
+        static void unmap( final ByteBuffer bb ) {
+            if ( null == INVOKE_CLEANER ) {
+                return;
+            }
+            try {
+                INVOKE_CLEANER.invokeExact( bb );
+            } catch ( final Throwable t ) {
+                LOG.debug( "Failed to unmap buffer", t );
+            }
+        }
+
+        private static MethodHandle lookup() {
+            try {
+                final Class<?> unsafeCls = Class.forName( "sun.misc.Unsafe" );
+                final Field field = unsafeCls.getDeclaredField( "theUnsafe" );
+                field.setAccessible( true );
+                final MethodHandle mh = MethodHandles.lookup().findVirtual( unsafeCls, "invokeCleaner",
+                        MethodType.methodType( void.class, ByteBuffer.class ) );
+                return mh.bindTo( field.get( null ) );
+            } catch ( final ReflectiveOperationException | RuntimeException e ) {
+                LOG.info( "Unmapping not supported, mappings are released by the garbage collector" );
+                return null;
+            }
+        }
+    }
+}
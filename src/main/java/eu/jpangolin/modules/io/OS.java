@@ -20,6 +20,7 @@ import java.awt.*;
 import java.io.IOException;
 import java.nio.file.Path;
 
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
@@ -67,23 +68,35 @@ public enum OS {
 
     /**
      * Try to guess the OS.
+     * The OS is detected once.
      * @return depending on the OS name the corresponding Operating System
      */
     public static OS getSystemOS() {
 
-        final String ostr = OS.getOSName().toLowerCase();
+        return SystemOSHolder.SYSTEM_OS;
+    }
+
+    /**
+     * Guess the OS from an OS name.
+     *
+     * @param osNameStr OS name
+     * @return matching OS or {@linkplain #OTHER}
+     */
+    static OS detect( final String osNameStr ) {
+
+        final String ostr = osNameStr.toLowerCase( Locale.ROOT );
 
         final OS os;
         // Linux Unix
-        if ( ostr.matches( ".*(nix|nux|aix).*" ) ) {
+        if ( ostr.contains( "nix" ) || ostr.contains( "nux" ) || ostr.contains( "aix" ) ) {
             os = LINUX;
-        } else if ( ostr.matches( ".*sunos.*" ) ) {
+        } else if ( ostr.contains( "sunos" ) ) {
             os = SOLARIS;
-        } else if ( ostr.matches( ".*mac.*" ) ) {
+        } else if ( ostr.contains( "mac" ) ) {
             os = MAC;
-        } else if ( ostr.matches( ".*win.*" ) ) {
+        } else if ( ostr.contains( "win" ) ) {
             os = WINDOWS;
-        } else if ( ostr.matches( ".*dos.*" ) ) {
+        } else if ( ostr.contains( "dos" ) ) {
             os = DOS;
         } else {
             os = OTHER;
@@ -92,7 +105,6 @@ public enum OS {
         return os;
     }
 
-
     /**
      * Return OS name.
      *
@@ -151,4 +163,8 @@ public enum OS {
 
         return path;
     }
-}
\ No newline at end of file
+
+    private static final class SystemOSHolder {
+        static final OS SYSTEM_OS = detect( getOSName() );
+    }
+}
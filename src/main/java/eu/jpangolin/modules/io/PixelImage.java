@@ -0,0 +1,313 @@
+/*
+ * Copyright (c) 2025 Tim Langhammer.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.jpangolin.modules.io;
+
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.Raster;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Pixel Image.
+ * <p>
+ *     Decoded image pixels shared by AWT and JavaFX.
+ *     The pixels are stored once as premultiplied ARGB in an {@code int[]} from a {@link PixelPool}.
+ *     {@link #getBufferedImage()} and {@link #getJavaFXImage()} are views on the same array, so no
+ *     {@code SwingFXUtils} conversion and no second decode are needed.
+ * </p>
+ * <p>
+ *     Note: the pixels live on the heap since an AWT raster can not wrap off-heap memory.
+ *     JavaFX reads the array through a {@link PixelBuffer} without copying it.
+ * </p>
+ * <p>
+ *     {@link #load(Path, int, int, PixelPool)} decodes straight into the pooled array if the decoder offers
+ *     an int RGB or ARGB layout, like color JPEG and most PNG images. Alpha is then set or premultiplied in place.
+ *     Other images, like indexed GIF, are decoded into an image allocated by ImageIO and copied once.
+ * </p>
+ * <p>
+ *     {@link #close()} returns the array to the pool. The views must not be used afterwards.
+ *     {@link #update(BufferedImage)} and {@code close()} exclude each other.
+ * </p>
+ *
+ * @author jTzipi
+ */
+public final class PixelImage implements AutoCloseable {
+
+    // premultiplied ARGB, the layout of PixelFormat.getIntArgbPreInstance()
+    private static final DirectColorModel ARGB_PRE = new DirectColorModel( ColorSpace.getInstance( ColorSpace.CS_sRGB ),
+            32, 0x00FF0000, 0x0000FF00, 0x000000FF, 0xFF000000, true, DataBufferInt.TYPE_INT );
+    // layouts a decoder may write into the same array
+    private static final DirectColorModel ARGB = new DirectColorModel( 32, 0x00FF0000, 0x0000FF00, 0x000000FF, 0xFF000000 );
+    private static final DirectColorModel RGB = new DirectColorModel( 24, 0x00FF0000, 0x0000FF00, 0x000000FF );
+
+    private final PixelPool pool;
+    private final int width;
+    private final int height;
+    private final BufferedImage img;
+    private int[] pixels;
+    private PixelBuffer<IntBuffer> pixelBuffer;
+    private WritableImage fxImage;
+
+    private PixelImage( final PixelPool pool, final int[] pixels, final int width, final int height ) {
+        this.pool = pool;
+        this.pixels = pixels;
+        this.width = width;
+        this.height = height;
+        this.img = view( ARGB_PRE );
+    }
+
+    /**
+     * Decode an image into a pooled pixel array.
+     * The image is subsampled while decoding so that it is not smaller than the target size.
+     *
+     * @param path         path to image
+     * @param targetWidth  target width or &lt;= 0 for no constraint
+     * @param targetHeight target height or &lt;= 0 for no constraint
+     * @param pool         pool of pixel arrays
+     * @return pixel image
+     * @throws IOException          if {@code path} is not readable or failed to decode
+     * @throws NullPointerException if {@code path}|{@code pool} is null
+     */
+    public static PixelImage load( final Path path, final int targetWidth, final int targetHeight, final PixelPool pool ) throws IOException {
+        Objects.requireNonNull( path );
+        Objects.requireNonNull( pool );
+        final PixelImage[] target = new PixelImage[1];
+        final DirectColorModel[] layout = new DirectColorModel[1];
+        BufferedImage decoded;
+        try {
+            decoded = ImageDecoder.decode( path, null, targetWidth, targetHeight, ( type, w, h ) -> {
+                layout[0] = switch ( type ) {
+                    case BufferedImage.TYPE_INT_ARGB_PRE -> ARGB_PRE;
+                    case BufferedImage.TYPE_INT_ARGB -> ARGB;
+                    case BufferedImage.TYPE_INT_RGB -> RGB;
+                    default -> null;
+                };
+                if ( null == layout[0] ) {
+                    return null;
+                }
+                target[0] = allocate( w, h, pool );
+                return target[0].view( layout[0] );
+            } );
+        } catch ( final IllegalArgumentException iae ) {
+            if ( null == target[0] ) {
+                throw iae;
+            }
+            // destination refused by the decoder
+            target[0].close();
+            target[0] = null;
+            decoded = ImageDecoder.decode( path, null, targetWidth, targetHeight );
+        } catch ( final IOException | RuntimeException e ) {
+            if ( null != target[0] ) {
+                target[0].close();
+            }
+            throw e;
+        }
+
+        final PixelImage pi = target[0];
+        if ( null != pi && decoded.getRaster().getDataBuffer() instanceof DataBufferInt db && db.getData() == pi.pixels ) {
+            pi.fixUp( layout[0] );
+            return pi;
+        }
+        // decoded by ImageIO, copy once
+        if ( null != pi ) {
+            pi.close();
+        }
+        final PixelImage copy = allocate( decoded.getWidth(), decoded.getHeight(), pool );
+        copy.draw( decoded );
+        return copy;
+    }
+
+    /**
+     * Create an image with undefined content from a pooled pixel array.
+     *
+     * @param width  width [1 .. ]
+     * @param height height [1 .. ]
+     * @param pool   pool of pixel arrays
+     * @return pixel image
+     * @throws IllegalArgumentException if {@code width}|{@code height} &lt; 1 or too large
+     * @throws NullPointerException     if {@code pool} is null
+     */
+    public static PixelImage allocate( final int width, final int height, final PixelPool pool ) {
+        Objects.requireNonNull( pool );
+        if ( 1 > width || 1 > height ) {
+            throw new IllegalArgumentException( "Size[=" + width + "x" + height + "] < 1" );
+        }
+        final long px = ( long ) width * height;
+        if ( Integer.MAX_VALUE - 8 < px ) {
+            throw new IllegalArgumentException( "Size[=" + width + "x" + height + "] too large" );
+        }
+        return new PixelImage( pool, pool.acquire( ( int ) px ), width, height );
+    }
+
+    /**
+     * Replace the pixels by a frame scaled to this size.
+     * If the JavaFX view was created the pixels are changed inside {@link PixelBuffer#updateBuffer},
+     * so this method must then be called on the JavaFX application thread.
+     *
+     * @param frame new frame
+     * @throws NullPointerException  if {@code frame} is null
+     * @throws IllegalStateException if closed
+     */
+    public synchronized void update( final BufferedImage frame ) {
+        Objects.requireNonNull( frame );
+        checkOpen();
+        if ( null == pixelBuffer ) {
+            draw( frame );
+        } else {
+            pixelBuffer.updateBuffer( pb -> {
+                draw( frame );
+                // whole image changed
+                return null;
+            } );
+        }
+    }
+
+    /**
+     * Return the AWT view.
+     * Changes made through it must be announced to JavaFX with {@link PixelBuffer#updateBuffer}.
+     *
+     * @return buffered image of type {@linkplain BufferedImage#TYPE_INT_ARGB_PRE} sharing the pixels
+     * @throws IllegalStateException if closed
+     */
+    public BufferedImage getBufferedImage() {
+        checkOpen();
+        return img;
+    }
+
+    /**
+     * Return the pixel buffer of the JavaFX view.
+     * It is created on first call.
+     *
+     * @return pixel buffer sharing the pixels
+     * @throws IllegalStateException if closed
+     */
+    public synchronized PixelBuffer<IntBuffer> getPixelBuffer() {
+        checkOpen();
+        if ( null == pixelBuffer ) {
+            pixelBuffer = new PixelBuffer<>( width, height, IntBuffer.wrap( pixels ), PixelFormat.getIntArgbPreInstance() );
+        }
+        return pixelBuffer;
+    }
+
+    /**
+     * Return the JavaFX view.
+     * It is created on first call.
+     *
+     * @return writable image sharing the pixels
+     * @throws IllegalStateException if closed
+     */
+    public synchronized WritableImage getJavaFXImage() {
+        if ( null == fxImage ) {
+            fxImage = new WritableImage( getPixelBuffer() );
+        }
+        return fxImage;
+    }
+
+    /**
+     * Return width.
+     *
+     * @return width
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Return height.
+     *
+     * @return height
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Return the pixel array to the pool.
+     */
+    @Override
+    public synchronized void close() {
+        if ( null != pixels ) {
+            final int[] px = pixels;
+            pixels = null;
+            pixelBuffer = null;
+            fxImage = null;
+            pool.release( px );
+        }
+    }
+
+    // image of a layout on the pixels
+    private BufferedImage view( final DirectColorModel cm ) {
+        final DataBufferInt db = new DataBufferInt( pixels, width * height );
+        final SinglePixelPackedSampleModel sm = new SinglePixelPackedSampleModel( DataBufferInt.TYPE_INT, width, height, cm.getMasks() );
+        final WritableRaster raster = Raster.createWritableRaster( sm, db, null );
+        return new BufferedImage( cm, raster, cm.isAlphaPremultiplied(), null );
+    }
+
+    // convert pixels decoded in a layout to premultiplied ARGB in place
+    private void fixUp( final DirectColorModel cm ) {
+        final int n = width * height;
+        if ( RGB == cm ) {
+            for ( int i = 0; i < n; i++ ) {
+                pixels[i] |= 0xFF000000;
+            }
+        } else if ( ARGB == cm ) {
+            for ( int i = 0; i < n; i++ ) {
+                final int p = pixels[i];
+                final int a = p >>> 24;
+                if ( 0xFF == a ) {
+                    continue;
+                }
+                final int r = ( ( p >> 16 & 0xFF ) * a + 127 ) / 255;
+                final int g = ( ( p >> 8 & 0xFF ) * a + 127 ) / 255;
+                final int b = ( ( p & 0xFF ) * a + 127 ) / 255;
+                pixels[i] = a << 24 | r << 16 | g << 8 | b;
+            }
+        }
+    }
+
+    private void draw( final BufferedImage frame ) {
+        final Graphics2D g = img.createGraphics();
+        try {
+            g.setComposite( AlphaComposite.Src );
+            if ( frame.getWidth() != width || frame.getHeight() != height ) {
+                g.setRenderingHint( RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR );
+            }
+            g.drawImage( frame, 0, 0, width, height, null );
+        } finally {
+            g.dispose();
+        }
+    }
+
+    private synchronized void checkOpen() {
+        if ( null == pixels ) {
+            throw new IllegalStateException( "Pixel image closed" );
+        }
+    }
+}
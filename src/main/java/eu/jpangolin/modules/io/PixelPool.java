@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2025 Tim Langhammer.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.jpangolin.modules.io;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pixel Pool.
+ * <p>
+ *     Pool of {@code int[]} pixel arrays for {@link PixelImage}, so refreshing a preview does not allocate
+ *     a new array for each frame.
+ *     Arrays are grouped in size classes with eight classes per power of two, so an array is at most 12.5 % larger than requested.
+ * </p>
+ * <p>
+ *     The pool is bounded by the bytes of all idle arrays. Released arrays beyond the bound are left to the garbage collector.
+ * </p>
+ *
+ * @author jTzipi
+ */
+public final class PixelPool {
+
+    /**
+     * Default maximal bytes of idle arrays (64 MiB).
+     */
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024L * 1024L;
+
+    // smallest size class in pixels
+    private static final int MIN_CLASS = 1024;
+
+    private final long maxBytes;
+    private final ConcurrentHashMap<Integer, ConcurrentLinkedQueue<int[]>> idle = new ConcurrentHashMap<>();
+    private final AtomicLong idleBytes = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Pixel Pool.
+     *
+     * @param maxBytes maximal bytes of idle arrays [0 .. ]
+     * @throws IllegalArgumentException if {@code maxBytes} &lt; 0
+     */
+    public PixelPool( final long maxBytes ) {
+        if ( 0L > maxBytes ) {
+            throw new IllegalArgumentException( "max bytes[=" + maxBytes + "] < 0" );
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Return the shared pixel pool with {@linkplain #DEFAULT_MAX_BYTES}.
+     *
+     * @return pixel pool
+     */
+    public static PixelPool getDefault() {
+        return Holder.DEFAULT;
+    }
+
+    /**
+     * Return an array of at least {@code pixels} length.
+     * The content is undefined.
+     *
+     * @param pixels number of pixels [1 .. ]
+     * @return pixel array
+     * @throws IllegalArgumentException if {@code pixels} &lt; 1
+     */
+    public int[] acquire( final int pixels ) {
+        if ( 1 > pixels ) {
+            throw new IllegalArgumentException( "pixels[=" + pixels + "] < 1" );
+        }
+        final int len = sizeClass( pixels );
+        final ConcurrentLinkedQueue<int[]> queue = idle.get( len );
+        final int[] px = null == queue ? null : queue.poll();
+        if ( null != px ) {
+            idleBytes.addAndGet( -4L * len );
+            hits.increment();
+            return px;
+        }
+        misses.increment();
+        return new int[len];
+    }
+
+    /**
+     * Return an array to the pool.
+     * The array must not be used afterwards.
+     *
+     * @param px array from {@link #acquire(int)}
+     * @throws NullPointerException if {@code px} is null
+     */
+    public void release( final int[] px ) {
+        Objects.requireNonNull( px );
+        final long bytes = 4L * px.length;
+        if ( px.length != sizeClass( px.length ) ) {
+            // not from this pool
+            return;
+        }
+        long cur;
+        do {
+            cur = idleBytes.get();
+            if ( cur + bytes > maxBytes ) {
+                return;
+            }
+        } while ( !idleBytes.compareAndSet( cur, cur + bytes ) );
+        idle.computeIfAbsent( px.length, len -> new ConcurrentLinkedQueue<>() ).offer( px );
+    }
+
+    /**
+     * Drop all idle arrays.
+     */
+    public void clear() {
+        for ( final ConcurrentLinkedQueue<int[]> queue : idle.values() ) {
+            int[] px;
+            while ( null != ( px = queue.poll() ) ) {
+                idleBytes.addAndGet( -4L * px.length );
+            }
+        }
+    }
+
+    /**
+     * Return bytes of idle arrays.
+     *
+     * @return idle bytes
+     */
+    public long getIdleBytes() {
+        return idleBytes.get();
+    }
+
+    /**
+     * Return number of acquires served by an idle array.
+     *
+     * @return hits
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Return number of acquires which allocated.
+     *
+     * @return misses
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    // round up to 1/8 of the highest power of two
+    static int sizeClass( final int pixels ) {
+        if ( MIN_CLASS >= pixels ) {
+            return MIN_CLASS;
+        }
+        final long step = Integer.highestOneBit( pixels - 1 ) >>> 3;
+        final long len = ( pixels + step - 1L ) / step * step;
+        return ( int ) Math.min( len, Integer.MAX_VALUE - 8 );
+    }
+
+    private static final class Holder {
+        static final PixelPool DEFAULT = new PixelPool( DEFAULT_MAX_BYTES );
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2025 Tim Langhammer.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.jpangolin.modules.io;
+
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Platform Profile.
+ * <p>
+ *     Capabilities of the platform which decide I/O strategies.
+ *     The profile is probed once, on first access, in the temporary directory.
+ * </p>
+ *
+ * @param os             operating system
+ * @param pageSize       memory page size in bytes
+ * @param processors     available processors
+ * @param fileSystemType type of the file store of the temporary directory like {@code "ext4"} or {@code "NTFS"}
+ * @param caseSensitive  file names are case sensitive
+ * @param symbolicLinks  symbolic links can be created
+ * @author jTzipi
+ */
+public record PlatformProfile( OS os, int pageSize, int processors, String fileSystemType, boolean caseSensitive, boolean symbolicLinks ) {
+
+    /**
+     * Page size if not readable.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 4096;
+
+    // Logger
+    private static final org.slf4j.Logger LOG = LoggerFactory.getLogger( PlatformProfile.class );
+
+    // buffer size bounds
+    private static final int MIN_BUFFER_SIZE = 8192;
+    private static final int MAX_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Return the profile of this platform.
+     *
+     * @return platform profile
+     */
+    public static PlatformProfile get() {
+        return ProfileHolder.PROFILE;
+    }
+
+    /**
+     * Return the buffer size for stream I/O.
+     * A multiple of the page size in [8 KiB .. 64 KiB].
+     *
+     * @return buffer size in bytes
+     */
+    public int bufferSize() {
+        return Math.clamp( 16L * pageSize, MIN_BUFFER_SIZE, MAX_BUFFER_SIZE );
+    }
+
+    /**
+     * Return the file size from which mapping a file into memory is cheaper than reading it with a buffer.
+     * Below the mapping setup and page faults cost more than a copy.
+     *
+     * @return threshold in bytes
+     */
+    public long mmapThreshold() {
+        return 256L * pageSize;
+    }
+
+    static PlatformProfile probe() {
+        final OS os = OS.getSystemOS();
+        final int procs = Runtime.getRuntime().availableProcessors();
+        // defaults for platforms we can not probe
+        boolean caseSensitive = OS.WINDOWS != os && OS.DOS != os && OS.MAC != os;
+        boolean links = OS.WINDOWS != os && OS.DOS != os;
+        String fsType = IOUtils._NA_;
+
+        Path dir = null;
+        try {
+            dir = Files.createTempDirectory( "pango-probe" );
+            fsType = Files.getFileStore( dir ).type();
+            final Path lower = Files.createFile( dir.resolve( "probe" ) );
+            caseSensitive = !Files.exists( dir.resolve( "PROBE" ) );
+            links = canLink( dir.resolve( "link" ), lower );
+        } catch ( final IOException | RuntimeException e ) {
+            LOG.debug( "Failed to probe file system, use defaults for '{}'", os, e );
+        } finally {
+            delete( dir );
+        }
+
+        final PlatformProfile profile = new PlatformProfile( os, readPageSize(), procs, fsType, caseSensitive, links );
+        LOG.debug( "Platform {}", profile );
+        return profile;
+    }
+
+    private static boolean canLink( final Path link, final Path target ) {
+        try {
+            Files.createSymbolicLink( link, target.getFileName() );
+            return true;
+        } catch ( final IOException | UnsupportedOperationException | SecurityException e ) {
+            // Windows without developer mode
+            return false;
+        }
+    }
+
+    private static void delete( final Path dir ) {
+        if ( null == dir ) {
+            return;
+        }
+        try ( Stream<Path> paths = Files.walk( dir ) ) {
+            paths.sorted( Comparator.reverseOrder() ).forEach( path -> {
+                try {
+                    Files.deleteIfExists( path );
+                } catch ( final IOException ioe ) {
+                    LOG.debug( "Failed to delete '{}'", path );
+                }
+            } );
+        } catch ( final IOException | RuntimeException e ) {
+            LOG.debug( "Failed to delete '{}'", dir );
+        }
+    }
+
+    private static int readPageSize() {
+        try {
+            final Class<?> unsafeCls = Class.forName( "sun.misc.Unsafe" );
+            final Field field = unsafeCls.getDeclaredField( "theUnsafe" );
+            field.setAccessible( true );
+            final int size = ( int ) unsafeCls.getMethod( "pageSize" ).invoke( field.get( null ) );
+            return 0 < size ? size : DEFAULT_PAGE_SIZE;
+        } catch ( final ReflectiveOperationException | RuntimeException e ) {
+            LOG.debug( "Page size not readable, use {}", DEFAULT_PAGE_SIZE );
+            return DEFAULT_PAGE_SIZE;
+        }
+    }
+
+    private static final class ProfileHolder {
+        static final PlatformProfile PROFILE = probe();
+    }
+}
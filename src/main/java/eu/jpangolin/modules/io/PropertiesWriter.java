@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2025 Tim Langhammer.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.jpangolin.modules.io;
+
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Properties Writer.
+ * <p>
+ *     Write behind for a properties file.
+ *     All updates submitted within a window are coalesced, only the last one is written.
+ *     Each write goes to a temporary file in the same directory which is then moved atomically over the target.
+ * </p>
+ * <p>
+ *     Writes run on a daemon thread, so {@link #close()} the writer before exit to write pending updates.
+ * </p>
+ *
+ * @author jTzipi
+ */
+public final class PropertiesWriter implements AutoCloseable {
+
+    /**
+     * Default coalescing window.
+     */
+    public static final Duration DEFAULT_WINDOW = Duration.ofMillis( 500L );
+
+    // Logger
+    private static final org.slf4j.Logger LOG = LoggerFactory.getLogger( PropertiesWriter.class );
+
+    private final Path path;
+    private final long windowMs;
+    private final boolean fsync;
+    private final AtomicReference<Pending> pending = new AtomicReference<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final Object writeLock = new Object();
+    private final LongAdder submits = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private volatile boolean closed;
+
+    /**
+     * Properties Writer.
+     *
+     * @param path   path to write
+     * @param window coalescing window
+     * @param fsync  force each write to disk
+     * @throws NullPointerException     if {@code path}|{@code window} is null
+     * @throws IllegalArgumentException if {@code window} is negative
+     */
+    public PropertiesWriter( final Path path, final Duration window, final boolean fsync ) {
+        this.path = Objects.requireNonNull( path );
+        if ( Objects.requireNonNull( window ).isNegative() ) {
+            throw new IllegalArgumentException( "window[=" + window + "] < 0" );
+        }
+        this.windowMs = window.toMillis();
+        this.fsync = fsync;
+    }
+
+    /**
+     * Properties Writer with default window and without fsync.
+     *
+     * @param path path to write
+     * @throws NullPointerException if {@code path} is null
+     */
+    public PropertiesWriter( final Path path ) {
+        this( path, DEFAULT_WINDOW, false );
+    }
+
+    /**
+     * Submit properties to write.
+     * The properties are copied.
+     *
+     * @param prop       properties
+     * @param commentStr comment (optional)
+     * @throws NullPointerException  if {@code prop} is null
+     * @throws IllegalStateException if closed
+     */
+    public void submit( final Properties prop, final String commentStr ) {
+        Objects.requireNonNull( prop );
+        if ( closed ) {
+            throw new IllegalStateException( "Writer for '" + path + "' closed" );
+        }
+        final Properties copy = new Properties();
+        copy.putAll( prop );
+        pending.set( new Pending( copy, commentStr ) );
+        submits.increment();
+
+        if ( scheduled.compareAndSet( false, true ) ) {
+            SchedulerHolder.SCHEDULER.schedule( this::flushScheduled, windowMs, TimeUnit.MILLISECONDS );
+        }
+    }
+
+    /**
+     * Write pending properties now.
+     * If the write fails the properties stay pending unless a newer submit replaced them,
+     * so the next flush or {@link #close()} retries.
+     *
+     * @throws IOException if failed to write
+     */
+    public void flush() throws IOException {
+        synchronized ( writeLock ) {
+            final Pending pend = pending.getAndSet( null );
+            if ( null != pend ) {
+                try {
+                    IOUtils.storeProperties( path, pend.prop(), pend.commentStr(), fsync );
+                } catch ( final IOException | RuntimeException e ) {
+                    failures.increment();
+                    pending.compareAndSet( null, pend );
+                    throw e;
+                }
+                writes.increment();
+                LOG.debug( "Wrote '{}' ({} submits, {} writes)", path, submits.sum(), writes.sum() );
+            }
+        }
+    }
+
+    /**
+     * Return number of submits.
+     *
+     * @return submits
+     */
+    public long getSubmitCount() {
+        return submits.sum();
+    }
+
+    /**
+     * Return number of writes.
+     *
+     * @return writes
+     */
+    public long getWriteCount() {
+        return writes.sum();
+    }
+
+    /**
+     * Return number of failed writes.
+     *
+     * @return failures
+     */
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    /**
+     * Write pending properties and refuse further submits.
+     *
+     * @throws IOException if failed to write
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        flush();
+    }
+
+    private void flushScheduled() {
+        scheduled.set( false );
+        try {
+            flush();
+        } catch ( final IOException | RuntimeException e ) {
+            LOG.warn( "Failed to write '{}', kept pending for the next flush", path, e );
+        }
+    }
+
+    private record Pending( Properties prop, String commentStr ) {
+    }
+
+    private static final class SchedulerHolder {
+        static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor( r -> {
+            final Thread thread = new Thread( r, "pango-properties-writer" );
+            thread.setDaemon( true );
+            return thread;
+        } );
+    }
+}
@@ -0,0 +1,374 @@
+/*
+ * Copyright (c) 2025 Tim Langhammer.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.jpangolin.modules.io;
+
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.ResourceBundle;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Resource Cache.
+ * <p>
+ *     Caches parsed class path resources per class loader and resolved resource name,
+ *     so a resource is looked up, inflated and parsed only once.
+ *     The class loaders are referenced weakly, a redeployed loader and its resources can be collected.
+ * </p>
+ * <p>
+ *     Properties are returned as copies. Resource bundles, images and strings are shared and must not be modified.
+ *     Failures are not cached.
+ * </p>
+ * <p>
+ *     Resources can be loaded ahead of time with {@link #preload(Class, Collection)}.
+ * </p>
+ *
+ * @author jTzipi
+ */
+public final class ResourceCache {
+
+    // Logger
+    private static final org.slf4j.Logger LOG = LoggerFactory.getLogger( ResourceCache.class );
+
+    // stands for the bootstrap loader
+    private static final Object BOOT_LOADER = new Object();
+
+    private final Map<Object, ConcurrentHashMap<Key, CompletableFuture<Object>>> byLoader = Collections.synchronizedMap( new WeakHashMap<>() );
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Resource Cache.
+     */
+    public ResourceCache() {
+    }
+
+    /**
+     * Return the shared resource cache.
+     *
+     * @return resource cache
+     */
+    public static ResourceCache getDefault() {
+        return Holder.DEFAULT;
+    }
+
+    /**
+     * Return a '.properties'-resource.
+     *
+     * @param cls     class to resolve the resource
+     * @param fileStr resource name
+     * @return copy of the properties
+     * @throws IOException           if failed to read
+     * @throws IllegalStateException if not found
+     * @throws NullPointerException  if {@code cls}|{@code fileStr} is null
+     * @see IOUtils#loadPropertiesFromResource(Class, String)
+     */
+    public Properties getProperties( final Class<?> cls, final String fileStr ) throws IOException {
+        final Properties cached = ( Properties ) get( cls, fileStr, Kind.PROPERTIES, null );
+        final Properties copy = new Properties();
+        copy.putAll( cached );
+        return copy;
+    }
+
+    /**
+     * Return a resource bundle.
+     *
+     * @param cls     class to resolve the resource
+     * @param fileStr resource name
+     * @return shared resource bundle
+     * @throws IOException           if failed to read
+     * @throws IllegalStateException if not found
+     * @throws NullPointerException  if {@code cls}|{@code fileStr} is null
+     * @see IOUtils#loadResourceBundle(Class, String)
+     */
+    public ResourceBundle getResourceBundle( final Class<?> cls, final String fileStr ) throws IOException {
+        return ( ResourceBundle ) get( cls, fileStr, Kind.BUNDLE, null );
+    }
+
+    /**
+     * Return an image resource.
+     *
+     * @param cls     class to resolve the resource
+     * @param fileStr resource name
+     * @return shared image
+     * @throws IOException           if failed to read or not an image
+     * @throws IllegalStateException if not found
+     * @throws NullPointerException  if {@code cls}|{@code fileStr} is null
+     * @see IOUtils#loadBufferedImageFromResource(Class, String)
+     */
+    public java.awt.image.BufferedImage getBufferedImage( final Class<?> cls, final String fileStr ) throws IOException {
+        return ( java.awt.image.BufferedImage ) get( cls, fileStr, Kind.IMAGE, null );
+    }
+
+    /**
+     * Return a text resource verbatim.
+     *
+     * @param cls     class to resolve the resource
+     * @param fileStr resource name
+     * @param cs      charset
+     * @return content
+     * @throws IOException          if not found or failed to read
+     * @throws NullPointerException if {@code cls}|{@code fileStr}|{@code cs} is null
+     * @see IOUtils#loadResourceString(Class, String, Charset)
+     */
+    public String getString( final Class<?> cls, final String fileStr, final Charset cs ) throws IOException {
+        Objects.requireNonNull( cs );
+        return ( String ) get( cls, fileStr, Kind.TEXT, cs );
+    }
+
+    /**
+     * Load resources in parallel on virtual threads.
+     * The kind of a resource is chosen by its suffix: '.properties' are cached as properties,
+     * images as images and everything else as UTF-8 text.
+     * Failures are logged and do not fail the returned future.
+     *
+     * @param cls   class to resolve the resources
+     * @param names resource names
+     * @return future of the number of loaded resources
+     * @throws NullPointerException if {@code cls}|{@code names} is null
+     */
+    public CompletableFuture<Integer> preload( final Class<?> cls, final Collection<String> names ) {
+        return preload( cls, names, VirtualThreadHolder.EXE );
+    }
+
+    /**
+     * Load resources in parallel with an executor.
+     *
+     * @param cls   class to resolve the resources
+     * @param names resource names
+     * @param exe   executor
+     * @return future of the number of loaded resources
+     * @throws NullPointerException if {@code cls}|{@code names}|{@code exe} is null
+     * @see #preload(Class, Collection)
+     */
+    public CompletableFuture<Integer> preload( final Class<?> cls, final Collection<String> names, final Executor exe ) {
+        Objects.requireNonNull( cls );
+        Objects.requireNonNull( exe );
+        final List<CompletableFuture<Boolean>> loads = new ArrayList<>( names.size() );
+        for ( final String name : List.copyOf( names ) ) {
+            loads.add( CompletableFuture.supplyAsync( () -> preloadOne( cls, name ), exe ) );
+        }
+        return CompletableFuture.allOf( loads.toArray( CompletableFuture[]::new ) ).thenApply( v -> {
+            final int loaded = ( int ) loads.stream().filter( CompletableFuture::join ).count();
+            LOG.debug( "Preloaded {} of {} resource(s)", loaded, loads.size() );
+            return loaded;
+        } );
+    }
+
+    /**
+     * Load the resources listed in a manifest resource in parallel.
+     * The manifest is a UTF-8 text with one resource name per line. Blank lines and lines starting with '#' are skipped.
+     *
+     * @param cls         class to resolve the manifest and the resources
+     * @param manifestStr resource name of the manifest
+     * @return future of the number of loaded resources
+     * @throws IOException          if the manifest is not readable
+     * @throws NullPointerException if {@code cls}|{@code manifestStr} is null
+     * @see #preload(Class, Collection)
+     */
+    public CompletableFuture<Integer> preloadManifest( final Class<?> cls, final String manifestStr ) throws IOException {
+        final List<String> names;
+        try ( Stream<String> lines = IOUtils.lines( cls, manifestStr, StandardCharsets.UTF_8 ) ) {
+            names = lines.map( String::strip ).filter( line -> !line.isEmpty() && !line.startsWith( "#" ) ).toList();
+        }
+        return preload( cls, names );
+    }
+
+    /**
+     * Remove all resources of a class loader.
+     *
+     * @param loader class loader or {@code null} for the bootstrap loader
+     */
+    public void invalidate( final ClassLoader loader ) {
+        byLoader.remove( null == loader ? BOOT_LOADER : loader );
+    }
+
+    /**
+     * Remove all resources.
+     */
+    public void clear() {
+        byLoader.clear();
+    }
+
+    /**
+     * Return number of cached resources.
+     *
+     * @return size
+     */
+    public int size() {
+        synchronized ( byLoader ) {
+            return byLoader.values().stream().mapToInt( Map::size ).sum();
+        }
+    }
+
+    /**
+     * Return number of requests served from the cache.
+     *
+     * @return hits
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Return number of requests which loaded the resource.
+     *
+     * @return misses
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    private boolean preloadOne( final Class<?> cls, final String name ) {
+        final String lower = name.toLowerCase( Locale.ROOT );
+        try {
+            if ( lower.endsWith( ".properties" ) ) {
+                get( cls, name, Kind.PROPERTIES, null );
+            } else if ( lower.endsWith( ".png" ) || lower.endsWith( ".jpg" ) || lower.endsWith( ".jpeg" )
+                    || lower.endsWith( ".gif" ) || lower.endsWith( ".bmp" ) ) {
+                get( cls, name, Kind.IMAGE, null );
+            } else {
+                get( cls, name, Kind.TEXT, StandardCharsets.UTF_8 );
+            }
+            return true;
+        } catch ( final IOException | RuntimeException e ) {
+            LOG.debug( "Preload of '{}' failed", name, e );
+            return false;
+        }
+    }
+
+    private Object get( final Class<?> cls, final String fileStr, final Kind kind, final Charset cs ) throws IOException {
+        Objects.requireNonNull( cls );
+        Objects.requireNonNull( fileStr );
+
+        final ClassLoader cl = cls.getClassLoader();
+        final ConcurrentHashMap<Key, CompletableFuture<Object>> resources = byLoader.computeIfAbsent( null == cl ? BOOT_LOADER : cl,
+                loader -> new ConcurrentHashMap<>() );
+        final Key key = new Key( kind, resolve( cls, fileStr ), cs );
+
+        CompletableFuture<Object> cf = resources.get( key );
+        if ( null == cf ) {
+            final CompletableFuture<Object> own = new CompletableFuture<>();
+            cf = resources.putIfAbsent( key, own );
+            if ( null == cf ) {
+                misses.increment();
+                load( cls, key, own, resources );
+                return await( own, key );
+            }
+        }
+        hits.increment();
+        return await( cf, key );
+    }
+
+    private static void load( final Class<?> cls, final Key key, final CompletableFuture<Object> own,
+                              final ConcurrentHashMap<Key, CompletableFuture<Object>> resources ) {
+        final String abs = "/" + key.name();
+        try {
+            final Object value = switch ( key.kind() ) {
+                case PROPERTIES -> IOUtils.loadPropertiesFromResource( cls, abs );
+                case BUNDLE -> IOUtils.loadResourceBundle( cls, abs );
+                case IMAGE -> {
+                    final java.awt.image.BufferedImage img = IOUtils.loadBufferedImageFromResource( cls, abs );
+                    if ( null == img ) {
+                        throw new IOException( "Resource[='" + key.name() + "'] is not an image" );
+                    }
+                    yield img;
+                }
+                case TEXT -> IOUtils.loadResourceString( cls, abs, key.cs() );
+            };
+            own.complete( value );
+        } catch ( final IOException | RuntimeException e ) {
+            // not cached
+            resources.remove( key, own );
+            own.completeExceptionally( e );
+        }
+    }
+
+    /**
+     * Resolve a resource name like {@link Class#getResource(String)}.
+     *
+     * @param cls     class
+     * @param fileStr resource name
+     * @return absolute name without leading '/'
+     */
+    static String resolve( final Class<?> cls, final String fileStr ) {
+        if ( fileStr.startsWith( "/" ) ) {
+            return fileStr.substring( 1 );
+        }
+        Class<?> c = cls;
+        while ( c.isArray() ) {
+            c = c.getComponentType();
+        }
+        final String pkg = c.getPackageName();
+        return pkg.isEmpty() ? fileStr : pkg.replace( '.', '/' ) + "/" + fileStr;
+    }
+
+    private static Object await( final CompletableFuture<Object> cf, final Key key ) throws IOException {
+        try {
+            return cf.get();
+        } catch ( final InterruptedException ie ) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException( "Interrupted while loading resource '" + key.name() + "'" );
+        } catch ( final ExecutionException ee ) {
+            final Throwable cause = ee.getCause();
+            if ( cause instanceof IOException ioe ) {
+                throw new IOException( ioe.getMessage(), ioe );
+            }
+            if ( cause instanceof IllegalStateException ise ) {
+                throw new IllegalStateException( ise.getMessage(), ise );
+            }
+            throw new IOException( "Failed to load resource '" + key.name() + "'", cause );
+        }
+    }
+
+    private enum Kind {
+        PROPERTIES,
+        BUNDLE,
+        IMAGE,
+        TEXT
+    }
+
+    // the value must never reference the class loader
+    private record Key( Kind kind, String name, Charset cs ) {
+    }
+
+    private static final class Holder {
+        static final ResourceCache DEFAULT = new ResourceCache();
+    }
+
+    private static final class VirtualThreadHolder {
+        static final ExecutorService EXE = Executors.newThreadPerTaskExecutor( Thread.ofVirtual().name( "pango-resource-", 0L ).factory() );
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2025 Tim Langhammer.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.jpangolin.modules.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * Text Reader.
+ * <p>
+ *     Bulk decoding of text with an explicit charset into a caller supplied {@link Appendable}.
+ * </p>
+ *
+ * @author jTzipi
+ */
+final class TextReader {
+
+    /**
+     * Size of the char buffer.
+     */
+    static final int BUFFER_SIZE = 8192;
+
+    // maximal array size
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private TextReader() {
+        throw new AssertionError( "--__--" );
+    }
+
+    /**
+     * Open a resource and return its stream and length.
+     *
+     * @param cls     class to load from
+     * @param fileStr resource name
+     * @return opened resource
+     * @throws IOException if not found or failed to open
+     */
+    static Resource open( final Class<?> cls, final String fileStr ) throws IOException {
+        final URL url = cls.getResource( fileStr );
+        if ( null == url ) {
+            throw new IOException( "InputStream for resource '" + fileStr + "' can not created!Was null!" );
+        }
+        final URLConnection con = url.openConnection();
+        return new Resource( con.getInputStream(), con.getContentLengthLong() );
+    }
+
+    /**
+     * Estimate the number of chars of a text.
+     *
+     * @param byteLength length in bytes or &lt; 0 if unknown
+     * @param cs         charset
+     * @return initial capacity for a builder
+     */
+    static int capacityFor( final long byteLength, final Charset cs ) {
+        if ( 0L > byteLength ) {
+            return BUFFER_SIZE;
+        }
+        final double chars = byteLength * ( double ) cs.newDecoder().averageCharsPerByte();
+        return ( int ) Math.min( MAX_CAPACITY, ( long ) chars + 16L );
+    }
+
+    /**
+     * Copy all chars verbatim.
+     *
+     * @param in  reader
+     * @param out target
+     * @return number of chars copied
+     * @throws IOException if failed to read or append
+     */
+    static long copy( final Reader in, final Appendable out ) throws IOException {
+        final char[] buf = new char[BUFFER_SIZE];
+        // avoid the CharBuffer wrap for the common case
+        final StringBuilder sb = out instanceof StringBuilder b ? b : null;
+        long total = 0L;
+        int n;
+        while ( -1 != ( n = in.read( buf ) ) ) {
+            if ( null != sb ) {
+                sb.append( buf, 0, n );
+            } else {
+                out.append( CharBuffer.wrap( buf, 0, n ) );
+            }
+            total += n;
+        }
+        return total;
+    }
+
+    /**
+     * Copy all lines.
+     * Lines are terminated like {@link java.util.Scanner#nextLine()} does.
+     * If {@code appendNewLine} each line is terminated with {@literal \n}, else the lines are joined.
+     *
+     * @param in            reader
+     * @param sb            target
+     * @param appendNewLine terminate each line with {@literal \n}
+     * @throws IOException if failed to read
+     */
+    static void copyLines( final Reader in, final StringBuilder sb, final boolean appendNewLine ) throws IOException {
+        final char[] buf = new char[BUFFER_SIZE];
+        boolean prevCR = false;
+        boolean openLine = false;
+        int n;
+        while ( -1 != ( n = in.read( buf ) ) ) {
+            int start = 0;
+            for ( int i = 0; i < n; i++ ) {
+                final char c = buf[i];
+                if ( '\n' == c && prevCR ) {
+                    // second half of \r\n
+                    prevCR = false;
+                    start = i + 1;
+                    continue;
+                }
+                prevCR = '\r' == c;
+                if ( isLineSeparator( c ) ) {
+                    sb.append( buf, start, i - start );
+                    if ( appendNewLine ) {
+                        sb.append( '\n' );
+                    }
+                    start = i + 1;
+                    openLine = false;
+                } else {
+                    openLine = true;
+                }
+            }
+            sb.append( buf, start, n - start );
+        }
+        if ( openLine && appendNewLine ) {
+            sb.append( '\n' );
+        }
+    }
+
+    /**
+     * Create a reader decoding with charset.
+     *
+     * @param is input stream
+     * @param cs charset
+     * @return reader
+     */
+    static Reader reader( final InputStream is, final Charset cs ) {
+        return new InputStreamReader( is, cs );
+    }
+
+    private static boolean isLineSeparator( final char c ) {
+        return '\n' == c || '\r' == c || '\u2028' == c || '\u2029' == c || '\u0085' == c;
+    }
+
+    /**
+     * Opened resource.
+     *
+     * @param in     stream
+     * @param length length in bytes or -1 if unknown
+     */
+    record Resource( InputStream in, long length ) {
+    }
+}
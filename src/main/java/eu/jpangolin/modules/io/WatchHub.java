@@ -0,0 +1,533 @@
+/*
+ * Copyright (c) 2025 Tim Langhammer.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.jpangolin.modules.io;
+
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Watch Hub.
+ * <p>
+ *     One watcher thread and one {@link WatchService} for any number of watched files and directories
+ *     of the default file system. Registrations of the same directory share one watch key.
+ * </p>
+ * <p>
+ *     Events of a path are coalesced until no further event arrived for the debounce time,
+ *     so a burst of modify events of one write is reported once. Listeners are called on virtual threads,
+ *     the changes of one registration in order.
+ * </p>
+ * <p>
+ *     If the platform watch service only polls, like on macOS, the hub polls the watched directories itself.
+ *     The interval starts at {@value #MIN_POLL_MS} ms, doubles while a directory does not change up to
+ *     {@value #MAX_POLL_MS} ms and drops back after a change.
+ * </p>
+ *
+ * @author jTzipi
+ */
+public final class WatchHub implements AutoCloseable {
+
+    /**
+     * Default debounce time.
+     */
+    public static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis( 50L );
+    /**
+     * Minimal poll interval in ms.
+     */
+    public static final long MIN_POLL_MS = 250L;
+    /**
+     * Maximal poll interval in ms.
+     */
+    public static final long MAX_POLL_MS = 4000L;
+
+    // Logger
+    private static final org.slf4j.Logger LOG = LoggerFactory.getLogger( WatchHub.class );
+    // a steady burst is reported at least after this many debounce times
+    private static final int MAX_DELAY_FACTOR = 20;
+
+    private final long debounceNanos;
+    private final boolean forcePolling;
+    private final Object lock = new Object();
+    // guarded by lock
+    private final Map<Path, DirWatch> dirs = new HashMap<>();
+    private final Map<WatchKey, DirWatch> byKey = new ConcurrentHashMap<>();
+    // guarded by lock
+    private WatchService watchService;
+    private Thread thread;
+    private volatile boolean polling;
+    private volatile boolean closed;
+    // watcher thread only
+    private final Map<Path, Pending> pending = new LinkedHashMap<>();
+
+    /**
+     * Watch Hub.
+     *
+     * @param debounce     time without further events before a change is reported
+     * @param forcePolling poll even if the platform watch service does not, for example for network file systems
+     * @throws NullPointerException     if {@code debounce} is null
+     * @throws IllegalArgumentException if {@code debounce} is negative
+     */
+    public WatchHub( final Duration debounce, final boolean forcePolling ) {
+        if ( Objects.requireNonNull( debounce ).isNegative() ) {
+            throw new IllegalArgumentException( "debounce[=" + debounce + "] < 0" );
+        }
+        this.debounceNanos = debounce.toNanos();
+        this.forcePolling = forcePolling;
+    }
+
+    /**
+     * Watch Hub with default debounce.
+     */
+    public WatchHub() {
+        this( DEFAULT_DEBOUNCE, false );
+    }
+
+    /**
+     * Return the shared watch hub.
+     *
+     * @return watch hub
+     */
+    public static WatchHub getDefault() {
+        return Holder.DEFAULT;
+    }
+
+    /**
+     * Watch a file or a directory.
+     * A file is watched by its name, it may be missing, created or replaced later.
+     * A directory reports the changes of its entries, not of subdirectories.
+     *
+     * @param path     file or directory
+     * @param listener called with each coalesced change
+     * @return registration, close it to stop watching
+     * @throws IOException              if the (parent) directory is not watchable
+     * @throws NullPointerException     if {@code path}|{@code listener} is null
+     * @throws IllegalArgumentException if {@code path} is a root without parent or not of the default file system
+     * @throws IllegalStateException    if closed
+     */
+    public Registration watch( final Path path, final Consumer<? super Change> listener ) throws IOException {
+        Objects.requireNonNull( path );
+        Objects.requireNonNull( listener );
+        if ( FileSystems.getDefault() != path.getFileSystem() ) {
+            throw new IllegalArgumentException( "Path[='" + path + "'] is not of the default file system" );
+        }
+        final Path abs = path.toAbsolutePath().normalize();
+        final boolean isDir = Files.isDirectory( abs );
+        final Path dir = isDir ? abs : abs.getParent();
+        if ( null == dir ) {
+            throw new IllegalArgumentException( "Path[='" + path + "'] has no parent" );
+        }
+
+        final Registration reg = new Registration( this, dir, isDir ? null : abs.getFileName(), listener );
+        synchronized ( lock ) {
+            if ( closed ) {
+                throw new IllegalStateException( "Watch hub closed" );
+            }
+            start();
+            DirWatch dw = dirs.get( dir );
+            if ( null == dw ) {
+                dw = new DirWatch( dir );
+                if ( polling ) {
+                    dw.stamps = stamps( dir );
+                    dw.interval = TimeUnit.MILLISECONDS.toNanos( MIN_POLL_MS );
+                    dw.nextPoll = System.nanoTime() + dw.interval;
+                } else {
+                    dw.key = dir.register( watchService,
+                            StandardWatchEventKinds.ENTRY_CREATE,
+                            StandardWatchEventKinds.ENTRY_MODIFY,
+                            StandardWatchEventKinds.ENTRY_DELETE );
+                    byKey.put( dw.key, dw );
+                }
+                dirs.put( dir, dw );
+            }
+            dw.regs.add( reg );
+        }
+        if ( polling ) {
+            LockSupport.unpark( thread );
+        }
+        LOG.debug( "Watch '{}'", abs );
+        return reg;
+    }
+
+    /**
+     * Is the hub polling.
+     * Decided with the first registration.
+     *
+     * @return {@code true} if polling
+     */
+    public boolean isPolling() {
+        return polling;
+    }
+
+    /**
+     * Return number of watched directories.
+     *
+     * @return watched directories
+     */
+    public int getDirCount() {
+        synchronized ( lock ) {
+            return dirs.size();
+        }
+    }
+
+    /**
+     * Stop watching.
+     *
+     * @throws IOException if failed to close the watch service
+     */
+    @Override
+    public void close() throws IOException {
+        final Thread th;
+        synchronized ( lock ) {
+            closed = true;
+            dirs.clear();
+            byKey.clear();
+            th = thread;
+            if ( null != watchService ) {
+                watchService.close();
+            }
+        }
+        if ( null != th ) {
+            th.interrupt();
+        }
+    }
+
+    // guarded by lock
+    private void start() throws IOException {
+        if ( null != thread ) {
+            return;
+        }
+        if ( forcePolling ) {
+            polling = true;
+        } else {
+            watchService = FileSystems.getDefault().newWatchService();
+            polling = watchService.getClass().getName().endsWith( "PollingWatchService" );
+            if ( polling ) {
+                watchService.close();
+                watchService = null;
+            }
+        }
+        thread = new Thread( this::loop, "pango-watch-hub" );
+        thread.setDaemon( true );
+        thread.start();
+        LOG.debug( "Started watch hub (polling={})", polling );
+    }
+
+    private void unregister( final Registration reg ) {
+        synchronized ( lock ) {
+            final DirWatch dw = dirs.get( reg.dir );
+            if ( null != dw && dw.regs.remove( reg ) && dw.regs.isEmpty() ) {
+                dirs.remove( reg.dir );
+                if ( null != dw.key ) {
+                    byKey.remove( dw.key );
+                    dw.key.cancel();
+                }
+            }
+        }
+    }
+
+    private void loop() {
+        try {
+            while ( !closed ) {
+                long wait = dispatchDue( System.nanoTime() );
+                if ( polling ) {
+                    wait = Math.min( wait, pollDue( System.nanoTime() ) );
+                    if ( 0L < wait ) {
+                        LockSupport.parkNanos( this, wait );
+                    }
+                } else {
+                    final WatchKey key = Long.MAX_VALUE == wait ? watchService.take() : watchService.poll( wait, TimeUnit.NANOSECONDS );
+                    if ( null != key ) {
+                        process( key );
+                    }
+                }
+            }
+        } catch ( final InterruptedException | ClosedWatchServiceException e ) {
+            // closed
+        }
+        LOG.debug( "Stop watch hub" );
+    }
+
+    private void process( final WatchKey key ) {
+        final DirWatch dw = byKey.get( key );
+        final long now = System.nanoTime();
+        for ( final WatchEvent<?> evt : key.pollEvents() ) {
+            if ( null == dw ) {
+                continue;
+            }
+            final WatchEvent.Kind<?> kind = evt.kind();
+            if ( StandardWatchEventKinds.OVERFLOW == kind ) {
+                enqueue( dw, dw.dir, Kind.OVERFLOW, now );
+            } else {
+                final Kind k = StandardWatchEventKinds.ENTRY_CREATE == kind ? Kind.CREATED
+                        : StandardWatchEventKinds.ENTRY_DELETE == kind ? Kind.DELETED : Kind.MODIFIED;
+                enqueue( dw, dw.dir.resolve( ( Path ) evt.context() ), k, now );
+            }
+        }
+        if ( !key.reset() && null != dw ) {
+            LOG.debug( "Dir[='{}'] no longer watchable", dw.dir );
+            synchronized ( lock ) {
+                byKey.remove( key );
+                dirs.remove( dw.dir, dw );
+            }
+        }
+    }
+
+    private void enqueue( final DirWatch dw, final Path path, final Kind kind, final long now ) {
+        final Pending prev = pending.get( path );
+        if ( null == prev ) {
+            pending.put( path, new Pending( dw, kind, now, now + debounceNanos ) );
+        } else {
+            final long deadline = Math.min( now + debounceNanos, prev.first() + MAX_DELAY_FACTOR * debounceNanos );
+            pending.put( path, new Pending( dw, merge( prev.kind(), kind ), prev.first(), deadline ) );
+        }
+    }
+
+    private static Kind merge( final Kind prev, final Kind next ) {
+        if ( Kind.OVERFLOW == prev || Kind.CREATED == prev && Kind.MODIFIED == next ) {
+            return prev;
+        }
+        if ( Kind.DELETED == prev && Kind.CREATED == next ) {
+            // replaced
+            return Kind.MODIFIED;
+        }
+        return next;
+    }
+
+    // dispatch due changes and return nanos until the next one
+    private long dispatchDue( final long now ) {
+        long wait = Long.MAX_VALUE;
+        final Iterator<Map.Entry<Path, Pending>> it = pending.entrySet().iterator();
+        while ( it.hasNext() ) {
+            final Map.Entry<Path, Pending> entry = it.next();
+            final Pending pend = entry.getValue();
+            if ( pend.deadline() - now > 0L ) {
+                wait = Math.min( wait, pend.deadline() - now );
+                continue;
+            }
+            it.remove();
+            final Change change = new Change( entry.getKey(), pend.kind() );
+            for ( final Registration reg : pend.dw().regs ) {
+                if ( Kind.OVERFLOW == change.kind() || null == reg.name || reg.name.equals( change.path().getFileName() ) ) {
+                    reg.offer( change );
+                }
+            }
+        }
+        return wait;
+    }
+
+    // poll due directories and return nanos until the next poll
+    private long pollDue( final long now ) {
+        final List<DirWatch> watched;
+        synchronized ( lock ) {
+            watched = new ArrayList<>( dirs.values() );
+        }
+        long wait = Long.MAX_VALUE;
+        for ( final DirWatch dw : watched ) {
+            if ( dw.nextPoll - now <= 0L ) {
+                poll( dw, now );
+                dw.nextPoll = now + dw.interval;
+            }
+            wait = Math.min( wait, dw.nextPoll - now );
+        }
+        return wait;
+    }
+
+    private void poll( final DirWatch dw, final long now ) {
+        final Map<Path, Stamp> stamps;
+        try {
+            stamps = stamps( dw.dir );
+        } catch ( final IOException ioe ) {
+            LOG.debug( "Failed to poll dir[='{}']", dw.dir, ioe );
+            dw.interval = TimeUnit.MILLISECONDS.toNanos( MAX_POLL_MS );
+            return;
+        }
+        boolean changed = false;
+        for ( final Map.Entry<Path, Stamp> entry : stamps.entrySet() ) {
+            final Stamp old = dw.stamps.get( entry.getKey() );
+            if ( null == old || !old.equals( entry.getValue() ) ) {
+                enqueue( dw, dw.dir.resolve( entry.getKey() ), null == old ? Kind.CREATED : Kind.MODIFIED, now );
+                changed = true;
+            }
+        }
+        for ( final Path name : dw.stamps.keySet() ) {
+            if ( !stamps.containsKey( name ) ) {
+                enqueue( dw, dw.dir.resolve( name ), Kind.DELETED, now );
+                changed = true;
+            }
+        }
+        dw.stamps = stamps;
+        dw.interval = changed
+                ? TimeUnit.MILLISECONDS.toNanos( MIN_POLL_MS )
+                : Math.min( 2L * dw.interval, TimeUnit.MILLISECONDS.toNanos( MAX_POLL_MS ) );
+    }
+
+    private static Map<Path, Stamp> stamps( final Path dir ) throws IOException {
+        final Map<Path, Stamp> stamps = new HashMap<>();
+        for ( final DirectoryScanner.FileEntry entry : DirectoryScanner.scan( dir ) ) {
+            stamps.put( entry.path().getFileName(), new Stamp( entry.lastModified(), entry.size() ) );
+        }
+        return stamps;
+    }
+
+    /**
+     * Kind of change.
+     */
+    public enum Kind {
+        /** Entry created or moved in. */
+        CREATED,
+        /** Entry modified or replaced. */
+        MODIFIED,
+        /** Entry deleted or moved out. */
+        DELETED,
+        /** Events were lost, the path is the watched directory. */
+        OVERFLOW
+    }
+
+    /**
+     * Coalesced change of a path.
+     *
+     * @param path changed path
+     * @param kind kind of change
+     */
+    public record Change( Path path, Kind kind ) {
+    }
+
+    /**
+     * Registration of a listener.
+     */
+    public static final class Registration implements AutoCloseable {
+
+        private final WatchHub hub;
+        private final Path dir;
+        private final Path name;
+        private final Consumer<? super Change> listener;
+        private final ConcurrentLinkedQueue<Change> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean running = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Registration( final WatchHub hub, final Path dir, final Path name, final Consumer<? super Change> listener ) {
+            this.hub = hub;
+            this.dir = dir;
+            this.name = name;
+            this.listener = listener;
+        }
+
+        /**
+         * Return the watched path.
+         *
+         * @return file or directory
+         */
+        public Path getPath() {
+            return null == name ? dir : dir.resolve( name );
+        }
+
+        /**
+         * Stop watching.
+         * Changes already dispatched may still arrive.
+         */
+        @Override
+        public void close() {
+            if ( !closed ) {
+                closed = true;
+                hub.unregister( this );
+            }
+        }
+
+        private void offer( final Change change ) {
+            if ( closed ) {
+                return;
+            }
+            queue.add( change );
+            if ( running.compareAndSet( false, true ) ) {
+                VirtualThreadHolder.EXE.execute( this::drain );
+            }
+        }
+
+        // one drain at a time keeps the order of changes
+        private void drain() {
+            do {
+                Change change;
+                while ( null != ( change = queue.poll() ) ) {
+                    if ( closed ) {
+                        continue;
+                    }
+                    try {
+                        listener.accept( change );
+                    } catch ( final RuntimeException re ) {
+                        LOG.warn( "Watch listener of '{}' failed", getPath(), re );
+                    }
+                }
+                running.set( false );
+            } while ( !queue.isEmpty() && running.compareAndSet( false, true ) );
+        }
+    }
+
+    // watched directory
+    private static final class DirWatch {
+
+        private final Path dir;
+        private final List<Registration> regs = new CopyOnWriteArrayList<>();
+        // native
+        private WatchKey key;
+        // polling, watcher thread only after registration
+        private Map<Path, Stamp> stamps;
+        private long interval;
+        private long nextPoll;
+
+        DirWatch( final Path dir ) {
+            this.dir = dir;
+        }
+    }
+
+    private record Pending( DirWatch dw, Kind kind, long first, long deadline ) {
+    }
+
+    private record Stamp( long lastModified, long size ) {
+    }
+
+    private static final class VirtualThreadHolder {
+        static final ExecutorService EXE = Executors.newThreadPerTaskExecutor( Thread.ofVirtual().name( "pango-watch-", 0L ).factory() );
+    }
+
+    private static final class Holder {
+        static final WatchHub DEFAULT = new WatchHub();
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2025 Tim Langhammer.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package eu.jpangolin.modules.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Random;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link Checksums}.
+ *
+ * @author jTzipi
+ */
+class ChecksumsTest {
+
+    // two and a half chunks, so the last chunk is short
+    private static final int LARGE = 2 * Checksums.CHUNK_SIZE + Checksums.CHUNK_SIZE / 2 + 7;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void combineEqualsSequentialCrc() {
+        final byte[] data = random( 100_000 );
+        for ( final int split : new int[]{ 0, 1, 7, 4096, 65_537, 99_999, 100_000 } ) {
+            final int crc1 = crc( data, 0, split );
+            final int crc2 = crc( data, split, data.length - split );
+            assertEquals( crc( data, 0, data.length ), Checksums.combine( crc1, crc2, data.length - split ), "split " + split );
+        }
+    }
+
+    @Test
+    void combineOfEmptySecondPartIsFirst() {
+        assertEquals( 0x12345678, Checksums.combine( 0x12345678, 0, 0L ) );
+    }
+
+    @Test
+    void crc32cOfChunkedFile() throws IOException {
+        final byte[] data = random( LARGE );
+        final Path path = Files.write( dir.resolve( "large" ), data );
+        assertEquals( Integer.toUnsignedLong( crc( data, 0, data.length ) ), Checksums.crc32c( path ) );
+    }
+
+    @Test
+    void crc32cOfSmallAndEmptyFile() throws IOException {
+        final byte[] data = random( 1234 );
+        assertEquals( Integer.toUnsignedLong( crc( data, 0, data.length ) ), Checksums.crc32c( Files.write( dir.resolve( "small" ), data ) ) );
+        assertEquals( 0L, Checksums.crc32c( Files.write( dir.resolve( "empty" ), new byte[0] ) ) );
+    }
+
+    @Test
+    void sha256OfChunkedFile() throws IOException {
+        final byte[] data = random( LARGE );
+        final Path path = Files.write( dir.resolve( "large" ), data );
+        assertArrayEquals( sha256().digest( data ), Checksums.digest( path, Checksums.Algorithm.SHA_256 ) );
+    }
+
+    @Test
+    void treeDigestOfChunkedFile() throws IOException {
+        final byte[] data = random( LARGE );
+        final Path path = Files.write( dir.resolve( "large" ), data );
+        final MessageDigest root = sha256();
+        for ( int pos = 0; pos < data.length; pos += Checksums.CHUNK_SIZE ) {
+            root.update( sha256().digest( Arrays.copyOfRange( data, pos, Math.min( data.length, pos + Checksums.CHUNK_SIZE ) ) ) );
+        }
+        assertArrayEquals( root.digest(), Checksums.digest( path, Checksums.Algorithm.SHA_256_TREE ) );
+    }
+
+    @Test
+    void treeDigestOfSingleChunkIsDigestOfDigest() throws IOException {
+        final byte[] data = random( 1000 );
+        final Path path = Files.write( dir.resolve( "small" ), data );
+        assertArrayEquals( sha256().digest( sha256().digest( data ) ), Checksums.digest( path, Checksums.Algorithm.SHA_256_TREE ) );
+    }
+
+    @Test
+    void hashIsLowerCaseHex() throws IOException {
+        final byte[] data = random( 1000 );
+        final Path path = Files.write( dir.resolve( "small" ), data );
+        assertEquals( HexFormat.of().formatHex( sha256().digest( data ) ), Checksums.hash( path, Checksums.Algorithm.SHA_256 ) );
+    }
+
+    private static int crc( final byte[] data, final int off, final int len ) {
+        final CRC32C crc = new CRC32C();
+        crc.update( data, off, len );
+        return ( int ) crc.getValue();
+    }
+
+    private static byte[] random( final int size ) {
+        final byte[] data = new byte[size];
+        new Random( size ).nextBytes( data );
+        return data;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance( "SHA-256" );
+        } catch ( final NoSuchAlgorithmException nsae ) {
+            throw new IllegalStateException( nsae );
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2025 Tim Langhammer.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package eu.jpangolin.modules.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for {@link FileCopy}.
+ *
+ * @author jTzipi
+ */
+class FileCopyTest {
+
+    private static final int MIB = 1024 * 1024;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void copyEmptyFileInChunks() throws IOException {
+        assertCopy( new FileCopy( 4, 1L ), 0 );
+    }
+
+    @Test
+    void copyOneByteInChunks() throws IOException {
+        assertCopy( new FileCopy( 4, 1L ), 1 );
+    }
+
+    @Test
+    void copyUnalignedSizeInChunks() throws IOException {
+        assertCopy( new FileCopy( 4, 1L ), 3 * MIB + 12345 );
+    }
+
+    @Test
+    void copyExactlyAtThreshold() throws IOException {
+        final int size = 2 * MIB + 1;
+        assertCopy( new FileCopy( 4, size ), size );
+    }
+
+    @Test
+    void copyBelowThreshold() throws IOException {
+        final int size = 2 * MIB + 1;
+        assertCopy( new FileCopy( 4, size + 1L ), size );
+    }
+
+    @Test
+    void rejectThresholdBelowOne() {
+        assertThrows( IllegalArgumentException.class, () -> new FileCopy( 4, 0L ) );
+        assertThrows( IllegalArgumentException.class, () -> new FileCopy( 4, -1L ) );
+    }
+
+    @Test
+    void rejectParallelismBelowOne() {
+        assertThrows( IllegalArgumentException.class, () -> new FileCopy( 0, 1L ) );
+    }
+
+    private void assertCopy( final FileCopy fc, final int size ) throws IOException {
+        final byte[] data = new byte[size];
+        new Random( size ).nextBytes( data );
+        final Path src = Files.write( dir.resolve( "src-" + size ), data );
+        final Path target = dir.resolve( "target-" + size );
+        final AtomicLong reported = new AtomicLong();
+
+        assertEquals( size, fc.copy( src, target, false, p -> reported.accumulateAndGet( p.bytesCopied(), Math::max ) ) );
+        assertArrayEquals( data, Files.readAllBytes( target ) );
+        if ( 0 < size ) {
+            assertEquals( size, reported.get() );
+        }
+    }
+}